@@ -0,0 +1,67 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Paint;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+
+/** Drawing surface for {@link DaylightChartPainter}, such as a raster image or an SVG document. */
+interface ChartCanvas {
+
+  /**
+   * Clips all further drawing to an area, until the clip is reset.
+   *
+   * @param area Clip area
+   */
+  void clip(Rectangle2D area);
+
+  /**
+   * Draws the outline of a shape.
+   *
+   * @param shape Shape
+   * @param paint Stroke paint
+   * @param stroke Stroke
+   */
+  void draw(Shape shape, Paint paint, Stroke stroke);
+
+  /**
+   * Draws text with its baseline starting at the origin of a transform.
+   *
+   * @param text Text
+   * @param font Font
+   * @param paint Text paint
+   * @param transform Transform that positions and rotates the text
+   */
+  void drawString(String text, Font font, Paint paint, AffineTransform transform);
+
+  /**
+   * Fills a shape.
+   *
+   * @param shape Shape
+   * @param paint Fill paint
+   * @param alpha Additional opacity, from 0 to 1
+   */
+  void fill(Shape shape, Paint paint, float alpha);
+
+  /**
+   * Gets metrics to lay out text.
+   *
+   * @param font Font
+   * @return Font metrics
+   */
+  FontMetrics getFontMetrics(Font font);
+
+  /** Removes the clip set by {@link #clip(Rectangle2D)}. */
+  void resetClip();
+}
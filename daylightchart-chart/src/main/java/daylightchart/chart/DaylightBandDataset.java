@@ -0,0 +1,158 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart;
+
+import daylightchart.chart.data.DaylightBand;
+import java.io.Serial;
+import java.time.LocalDate;
+import java.util.TimeZone;
+import org.jfree.data.xy.AbstractIntervalXYDataset;
+
+/**
+ * Read-only dataset for a daylight band, with a sunrise series and a sunset series. Values are held
+ * in primitive arrays, with the same values as a time series collection of days, with times
+ * truncated to the minute on the first day of 1970, in the default time zone.
+ */
+final class DaylightBandDataset extends AbstractIntervalXYDataset {
+
+  @Serial private static final long serialVersionUID = -2386236417421935398L;
+
+  private static final long MILLIS_PER_SECOND = 1_000L;
+  private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+  private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+
+  /**
+   * Converts local time in milliseconds since the epoch to UTC milliseconds.
+   *
+   * @param timeZone Time zone of the local time
+   * @param localMillis Local time
+   * @return UTC milliseconds
+   */
+  private static long toUtcMillis(final TimeZone timeZone, final long localMillis) {
+    final int offset = timeZone.getOffset(localMillis - timeZone.getRawOffset());
+    return localMillis - timeZone.getOffset(localMillis - offset);
+  }
+
+  private static long toMinuteMillis(final int secondOfDay) {
+    return secondOfDay / 60 * MILLIS_PER_MINUTE;
+  }
+
+  private final String[] seriesKeys;
+  private final int itemCount;
+  private final double[] startX;
+  private final double[] endX;
+  private final double[][] y;
+
+  DaylightBandDataset(final DaylightBand daylightBand) {
+    final String name = daylightBand.getName();
+    seriesKeys = new String[] {"Sunrise " + name, "Sunset " + name};
+
+    itemCount = daylightBand.size();
+    startX = new double[itemCount];
+    endX = new double[itemCount];
+    y = new double[2][itemCount];
+    if (itemCount == 0) {
+      return;
+    }
+
+    final TimeZone timeZone = TimeZone.getDefault();
+    final long firstEpochDay = LocalDate.ofYearDay(daylightBand.getYear(), 1).toEpochDay();
+    int item = 0;
+    for (int dayIndex = daylightBand.getFirstDayIndex();
+        dayIndex <= daylightBand.getLastDayIndex();
+        dayIndex++) {
+      if (!daylightBand.hasRiseSet(dayIndex)) {
+        continue;
+      }
+      final long localDayStart = (firstEpochDay + dayIndex) * MILLIS_PER_DAY;
+      startX[item] = toUtcMillis(timeZone, localDayStart);
+      endX[item] = toUtcMillis(timeZone, localDayStart + MILLIS_PER_DAY) - 1;
+      y[0][item] =
+          toUtcMillis(timeZone, toMinuteMillis(daylightBand.getSunriseSecondOfDay(dayIndex)));
+      y[1][item] =
+          toUtcMillis(timeZone, toMinuteMillis(daylightBand.getSunsetSecondOfDay(dayIndex)));
+      item++;
+    }
+  }
+
+  @Override
+  public Number getEndX(final int series, final int item) {
+    return getEndXValue(series, item);
+  }
+
+  @Override
+  public double getEndXValue(final int series, final int item) {
+    return endX[item];
+  }
+
+  @Override
+  public Number getEndY(final int series, final int item) {
+    return getEndYValue(series, item);
+  }
+
+  @Override
+  public double getEndYValue(final int series, final int item) {
+    return y[series][item];
+  }
+
+  @Override
+  public int getItemCount(final int series) {
+    return itemCount;
+  }
+
+  @Override
+  public int getSeriesCount() {
+    return seriesKeys.length;
+  }
+
+  @Override
+  public Comparable<String> getSeriesKey(final int series) {
+    return seriesKeys[series];
+  }
+
+  @Override
+  public Number getStartX(final int series, final int item) {
+    return getStartXValue(series, item);
+  }
+
+  @Override
+  public double getStartXValue(final int series, final int item) {
+    return startX[item];
+  }
+
+  @Override
+  public Number getStartY(final int series, final int item) {
+    return getStartYValue(series, item);
+  }
+
+  @Override
+  public double getStartYValue(final int series, final int item) {
+    return y[series][item];
+  }
+
+  @Override
+  public Number getX(final int series, final int item) {
+    return getXValue(series, item);
+  }
+
+  @Override
+  public double getXValue(final int series, final int item) {
+    return startX[item];
+  }
+
+  @Override
+  public Number getY(final int series, final int item) {
+    return getYValue(series, item);
+  }
+
+  @Override
+  public double getYValue(final int series, final int item) {
+    return y[series][item];
+  }
+}
@@ -9,7 +9,6 @@
 package daylightchart.chart;
 
 import daylightchart.chart.data.DaylightBand;
-import daylightchart.chart.data.RiseSetUtility;
 import daylightchart.chart.data.RiseSetYearData;
 import daylightchart.chart.options.ChartOptions;
 import daylightchart.chart.options.ChartOptionsListener;
@@ -56,14 +55,13 @@ public class DaylightChart extends JFreeChart implements ChartOptionsListener {
   private static final Logger LOGGER = Logger.getLogger(DaylightChart.class.getName());
   private static final ChartOptionsService CHART_OPTIONS_SERVICE = new ChartOptionsService();
 
-  private final RiseSetYearData riseSetData;
+  private RiseSetYearData riseSetData;
+  private int numberOfBands;
+  private Font titleFont;
 
-  /** Create an empty chart, just to get the default chart options. */
+  /** Create an empty chart, without any data, just to get the default chart options. */
   public DaylightChart() {
-    this(
-        RiseSetUtility.createRiseSetYear(null, Year.now().getValue(), new Options()),
-        new Options(),
-        null);
+    this(null, new Options(), null);
     setTitle("");
   }
 
@@ -97,7 +95,8 @@ public class DaylightChart extends JFreeChart implements ChartOptionsListener {
     } else {
       titleFont = ChartConfiguration.chartFont;
     }
-    createTitles(chartOptions, titleFont.deriveFont(Font.BOLD, 18));
+    this.titleFont = titleFont.deriveFont(Font.BOLD, 18);
+    createTitles(chartOptions, this.titleFont);
   }
 
   /**
@@ -135,15 +134,57 @@ public class DaylightChart extends JFreeChart implements ChartOptionsListener {
     }
   }
 
+  /**
+   * Replaces the rise and set data shown in the chart, keeping the axes, legend and chart options.
+   * The bands, titles, DST marker and the range of the months axis are updated.
+   *
+   * @param riseSetData Rise and set data for the year
+   * @param chartOptions Chart options that the chart was created with
+   */
+  void replaceRiseSetData(final RiseSetYearData riseSetData, final ChartOptions chartOptions) {
+    final XYPlot plot = getXYPlot();
+    final boolean notify = isNotify();
+    setNotify(false);
+    try {
+      this.riseSetData = riseSetData;
+
+      plot.clearDomainMarkers();
+      if (riseSetData != null && riseSetData.usesDaylightTime()) {
+        createDSTMarker(plot);
+      }
+      setMonthsAxisRange((DateAxis) plot.getDomainAxis());
+
+      final int previousNumberOfBands = numberOfBands;
+      createBandsInPlot(plot);
+      for (int i = numberOfBands; i < previousNumberOfBands; i++) {
+        plot.setDataset(i, null);
+        plot.setRenderer(i, null);
+      }
+      if (numberOfBands == 0) {
+        plot.setRenderer(new StandardXYItemRenderer());
+      }
+
+      createTitles(
+          chartOptions == null ? new ChartOptions() : chartOptions,
+          titleFont == null ? ChartConfiguration.chartFont.deriveFont(Font.BOLD, 18) : titleFont);
+    } finally {
+      setNotify(notify);
+    }
+  }
+
   /** Creates bands for the sunrise and sunset times for the whole year. */
   private void createBandsInPlot(final XYPlot plot) {
+    numberOfBands = 0;
+    if (riseSetData == null) {
+      return;
+    }
     final List<DaylightBand> bands = riseSetData.getBands();
     for (final DaylightBand band : bands) {
       final DaylightChartBand chartBand = new DaylightChartBand(band);
       LOGGER.log(Level.FINE, band.toString());
-      final int currentDatasetNumber = plot.getDatasetCount();
-      plot.setDataset(currentDatasetNumber, chartBand.getTimeSeriesCollection());
-      plot.setRenderer(currentDatasetNumber, chartBand.getRenderer());
+      plot.setDataset(numberOfBands, chartBand.getDataset());
+      plot.setRenderer(numberOfBands, chartBand.getRenderer());
+      numberOfBands++;
     }
   }
 
@@ -166,7 +207,7 @@ public class DaylightChart extends JFreeChart implements ChartOptionsListener {
     createHoursAxis(plot);
 
     // Create a marker region for daylight savings time
-    if (riseSetData.usesDaylightTime()) {
+    if (riseSetData != null && riseSetData.usesDaylightTime()) {
       createDSTMarker(plot);
     }
 
@@ -262,13 +303,19 @@ public class DaylightChart extends JFreeChart implements ChartOptionsListener {
     axis.setDateFormatOverride(ChartConfiguration.monthsFormat);
     axis.setVerticalTickLabels(true);
     axis.setTickUnit(new DateTickUnit(DateTickUnitType.MONTH, 1), true, true);
-    // Fix the axis range for all the months in the year
-    final int dateYear = riseSetData.getYear() - 1900;
-    axis.setRange(new Date(dateYear, 0, 1), new Date(dateYear, 11, 31));
+    setMonthsAxisRange(axis);
     //
     plot.setDomainAxis(axis);
   }
 
+  @SuppressWarnings("deprecation")
+  private void setMonthsAxisRange(final DateAxis axis) {
+    // Fix the axis range for all the months in the year
+    final int year = riseSetData == null ? Year.now().getValue() : riseSetData.getYear();
+    final int dateYear = year - 1900;
+    axis.setRange(new Date(dateYear, 0, 1), new Date(dateYear, 11, 31));
+  }
+
   private void createTitles(final ChartOptions chartOptions, final Font titleFont) {
 
     // Clear all titles and subtitles
@@ -280,7 +327,7 @@ public class DaylightChart extends JFreeChart implements ChartOptionsListener {
     }
 
     // Build new titles and legend
-    final Location location = riseSetData.getLocation();
+    final Location location = riseSetData == null ? null : riseSetData.getLocation();
     final boolean showTitle = chartOptions.getTitleOptions().getShowTitle();
     if (location != null && showTitle) {
       final TextTitle title = new TextTitle(location.toString(), titleFont);
@@ -10,18 +10,12 @@ package daylightchart.chart;
 
 import daylightchart.chart.data.DaylightBand;
 import daylightchart.chart.data.DaylightBandType;
-import daylightchart.chart.data.RiseSet;
 import java.awt.BasicStroke;
 import java.awt.Color;
-import java.time.LocalDateTime;
 import org.jfree.chart.renderer.xy.XYDifferenceRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.time.Day;
-import org.jfree.data.time.Minute;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
-import org.jfree.data.time.TimeSeriesDataItem;
+import org.jfree.data.xy.IntervalXYDataset;
 
 /** Adapter for daylight bands to add charting functionality. */
 public class DaylightChartBand {
@@ -45,26 +39,12 @@ public class DaylightChartBand {
   }
 
   /**
-   * Get the band as a collection.
+   * Get the band as a dataset, with a sunrise series and a sunset series.
    *
-   * @return Time series collection
+   * @return Dataset
    */
-  public TimeSeriesCollection getTimeSeriesCollection() {
-    final String name = daylightBand.getName();
-    final TimeSeries sunriseSeries = new TimeSeries("Sunrise " + name);
-    final TimeSeries sunsetSeries = new TimeSeries("Sunset " + name);
-    for (final RiseSet riseSet : daylightBand.getRiseSets()) {
-      final LocalDateTime sunrise = riseSet.getSunrise();
-      final LocalDateTime sunset = riseSet.getSunset();
-      sunriseSeries.add(toTimeSeriesDataItem(sunrise));
-      sunsetSeries.add(toTimeSeriesDataItem(sunset));
-    }
-
-    final TimeSeriesCollection band = new TimeSeriesCollection();
-    band.addSeries(sunriseSeries);
-    band.addSeries(sunsetSeries);
-
-    return band;
+  public IntervalXYDataset getDataset() {
+    return new DaylightBandDataset(daylightBand);
   }
 
   private XYItemRenderer createDifferenceRenderer(final Color color) {
@@ -96,16 +76,4 @@ public class DaylightChartBand {
       default -> null;
     };
   }
-
-  /**
-   * A utility method for creating a value based on a date.
-   *
-   * @param date Date
-   */
-  private TimeSeriesDataItem toTimeSeriesDataItem(final LocalDateTime dateTime) {
-    final Day day = new Day(dateTime.getDayOfMonth(), dateTime.getMonthValue(), dateTime.getYear());
-    final Minute minute = new Minute(dateTime.getMinute(), dateTime.getHour(), 1, 1, 1970);
-    final long minuteValue = minute.getFirstMillisecond();
-    return new TimeSeriesDataItem(day, minuteValue);
-  }
 }
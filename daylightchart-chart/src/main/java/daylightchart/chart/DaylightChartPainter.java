@@ -0,0 +1,699 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart;
+
+import daylightchart.chart.data.DaylightBand;
+import daylightchart.chart.data.DaylightBandType;
+import daylightchart.chart.data.RiseSetYearData;
+import daylightchart.chart.options.AxisOptions;
+import daylightchart.chart.options.ChartOptions;
+import daylightchart.chart.options.PlotOptions;
+import daylightchart.chart.options.TitleOptions;
+import daylightchart.options.ChartOrientation;
+import daylightchart.options.Options;
+import daylightchart.options.TwilightType;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.text.DateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.geoname.data.Location;
+import org.jfree.chart.ui.RectangleInsets;
+
+/**
+ * Paints a daylight chart directly with Java2D, without building a JFreeChart chart. The layout,
+ * colors and fonts follow {@link DaylightChart}, so that the output looks the same, but there is no
+ * plot, axis or renderer machinery involved. Only the bands, DST marker, grid lines, axes, titles
+ * and legend of a daylight chart are supported.
+ */
+public final class DaylightChartPainter {
+
+  private static final long MILLIS_PER_HOUR = 60 * 60 * 1_000L;
+  private static final int[] HOUR_TICK_UNITS = {1, 2, 4, 6, 12};
+
+  private static final Stroke GRIDLINE_STROKE =
+      new BasicStroke(
+          0.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0.0f, new float[] {2.0f, 2.0f}, 0.0f);
+  private static final Stroke AXIS_LINE_STROKE = new BasicStroke(0.5f);
+  private static final Stroke DIFFERENCE_STROKE = new BasicStroke(0.1f);
+  private static final Stroke OUTLINE_BAND_STROKE = new BasicStroke(0.8f);
+  private static final Stroke LEGEND_SHAPE_STROKE = new BasicStroke(0.2f);
+  private static final Stroke LEGEND_LINE_STROKE = new BasicStroke(0.6f);
+
+  private static final double TICK_MARK_LENGTH = 2.0;
+  private static final RectangleInsets TICK_LABEL_INSETS = new RectangleInsets(2, 4, 2, 4);
+  private static final RectangleInsets DEFAULT_PLOT_INSETS = new RectangleInsets(4, 8, 4, 8);
+  private static final double AXIS_OFFSET = 5.0;
+  private static final double TITLE_PADDING = 1.0;
+  private static final double LEGEND_PADDING = 2.0;
+  private static final double LEGEND_SHAPE_SIZE = 10.0;
+
+  /** Edge of the data area that an axis is drawn on. */
+  private enum Edge {
+    top,
+    bottom,
+    left
+  }
+
+  private final RiseSetYearData riseSetData;
+  private final ChartOrientation chartOrientation;
+  private final boolean showLegend;
+  private final TwilightType twilightType;
+  private final ChartOptions chartOptions;
+  private final boolean antiAlias;
+  private final Paint backgroundPaint;
+
+  /**
+   * Constructor.
+   *
+   * @param riseSetData Rise and set data for the year
+   * @param options Options
+   * @param chartOptions Chart options
+   */
+  public DaylightChartPainter(
+      final RiseSetYearData riseSetData, final Options options, final ChartOptions chartOptions) {
+    this.riseSetData = riseSetData;
+    final Options optionsNotNull = options == null ? new Options() : options;
+    chartOrientation =
+        optionsNotNull.getChartOrientation() == null
+            ? ChartOrientation.STANDARD
+            : optionsNotNull.getChartOrientation();
+    showLegend = optionsNotNull.isShowChartLegend();
+    twilightType = optionsNotNull.getTwilightType();
+    // Without chart options, use the JFreeChart defaults
+    this.chartOptions = chartOptions == null ? new ChartOptions() : chartOptions;
+    antiAlias = chartOptions == null || chartOptions.isAntiAlias();
+    backgroundPaint = chartOptions == null ? Color.white : chartOptions.getBackgroundPaint();
+  }
+
+  /**
+   * Creates an image of the chart.
+   *
+   * @param width Image width
+   * @param height Image height
+   * @return Image
+   */
+  public BufferedImage createBufferedImage(final int width, final int height) {
+    return createBufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+  }
+
+  /**
+   * Creates an image of the chart.
+   *
+   * @param width Image width
+   * @param height Image height
+   * @param imageType Image type, one of the {@link BufferedImage} types
+   * @return Image
+   */
+  public BufferedImage createBufferedImage(final int width, final int height, final int imageType) {
+    final BufferedImage image = new BufferedImage(width, height, imageType);
+    final Graphics2D g2 = image.createGraphics();
+    try {
+      paint(g2, width, height);
+    } finally {
+      g2.dispose();
+    }
+    return image;
+  }
+
+  /**
+   * Paints the chart into an area starting at the origin of the graphics context.
+   *
+   * @param g2 Graphics context
+   * @param width Chart width
+   * @param height Chart height
+   */
+  public void paint(final Graphics2D g2, final int width, final int height) {
+    g2.setRenderingHint(
+        RenderingHints.KEY_ANTIALIASING,
+        antiAlias ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+    g2.setRenderingHint(
+        RenderingHints.KEY_TEXT_ANTIALIASING,
+        antiAlias
+            ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON
+            : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+    g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+    paint(new Graphics2DCanvas(g2), width, height);
+  }
+
+  /**
+   * Writes the chart as an SVG document, streaming each element as it is painted.
+   *
+   * @param writer Writer for the document, which is not closed
+   * @param width Chart width
+   * @param height Chart height
+   * @throws IOException On an exception writing the document
+   */
+  public void writeSvg(final Writer writer, final int width, final int height) throws IOException {
+    final SvgCanvas canvas = new SvgCanvas(writer, width, height);
+    try {
+      paint(canvas, width, height);
+      canvas.finish();
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void paint(final ChartCanvas canvas, final int width, final int height) {
+    if (backgroundPaint != null) {
+      canvas.fill(new Rectangle2D.Double(0, 0, width, height), backgroundPaint, 1f);
+    }
+
+    // Titles at the top, legend at the bottom, and the plot in between
+    final Rectangle2D area = new Rectangle2D.Double(0, 0, width, height);
+    drawTitles(canvas, area);
+    if (showLegend) {
+      drawLegend(canvas, area);
+    }
+    drawPlot(canvas, area);
+  }
+
+  private void drawTitles(final ChartCanvas canvas, final Rectangle2D area) {
+    final Location location = riseSetData == null ? null : riseSetData.getLocation();
+    final TitleOptions titleOptions = chartOptions.getTitleOptions();
+    if (location == null || titleOptions != null && !titleOptions.getShowTitle()) {
+      return;
+    }
+
+    final Font titleFont =
+        (titleOptions != null && titleOptions.getTitleFont() != null
+                ? titleOptions.getTitleFont()
+                : ChartConfiguration.chartFont)
+            .deriveFont(Font.BOLD, 18);
+    final Paint titlePaint =
+        titleOptions != null && titleOptions.getTitlePaint() != null
+            ? titleOptions.getTitlePaint()
+            : Color.black;
+    drawTitle(canvas, area, location.toString(), titleFont, titlePaint);
+    drawTitle(canvas, area, location.getDetails(), titleFont.deriveFont(Font.PLAIN), titlePaint);
+  }
+
+  private void drawTitle(
+      final ChartCanvas canvas,
+      final Rectangle2D area,
+      final String text,
+      final Font font,
+      final Paint paint) {
+    final FontMetrics metrics = canvas.getFontMetrics(font);
+    final double height = metrics.getHeight() + 2 * TITLE_PADDING;
+    canvas.drawString(
+        text,
+        font,
+        paint,
+        AffineTransform.getTranslateInstance(
+            area.getCenterX() - metrics.stringWidth(text) / 2.0,
+            area.getY() + TITLE_PADDING + metrics.getAscent()));
+    area.setRect(area.getX(), area.getY() + height, area.getWidth(), area.getHeight() - height);
+  }
+
+  private void drawLegend(final ChartCanvas canvas, final Rectangle2D area) {
+    final Font font = ChartConfiguration.chartFont.deriveFont(Font.PLAIN, 12);
+    final FontMetrics metrics = canvas.getFontMetrics(font);
+
+    final List<String> labels = new ArrayList<>();
+    final List<Paint> paints = new ArrayList<>();
+    final Paint plotBackgroundPaint = getPlotBackgroundPaint();
+    labels.add(Messages.getString("DaylightChart.Legend.Night"));
+    paints.add(plotBackgroundPaint);
+    labels.add(Messages.getString("DaylightChart.Legend.Daylight"));
+    paints.add(ChartConfiguration.daylightColor);
+    labels.add(Messages.getString("DaylightChart.Legend.WithoutDST"));
+    paints.add(null);
+    if (twilightType != TwilightType.NO) {
+      labels.add(getTwilightLabel());
+      paints.add(ChartConfiguration.twilightColor);
+    }
+
+    final double graphicWidth = LEGEND_SHAPE_SIZE + 2 * LEGEND_PADDING;
+    double legendWidth = 0;
+    for (final String label : labels) {
+      legendWidth = legendWidth + graphicWidth + metrics.stringWidth(label) + 2 * LEGEND_PADDING;
+    }
+    final double legendHeight = metrics.getHeight() + 2 * LEGEND_PADDING + 2 * TITLE_PADDING;
+    final double top = area.getMaxY() - legendHeight;
+    final double centerY = top + legendHeight / 2.0;
+
+    double x = area.getCenterX() - legendWidth / 2.0;
+    for (int i = 0; i < labels.size(); i++) {
+      final Paint paint = paints.get(i);
+      if (paint != null) {
+        final Rectangle2D shape =
+            new Rectangle2D.Double(
+                x + LEGEND_PADDING,
+                centerY - LEGEND_SHAPE_SIZE / 2.0,
+                LEGEND_SHAPE_SIZE,
+                LEGEND_SHAPE_SIZE);
+        canvas.fill(shape, paint, 1f);
+        canvas.draw(shape, Color.black, LEGEND_SHAPE_STROKE);
+      } else {
+        canvas.draw(
+            new Rectangle2D.Double(
+                x + LEGEND_PADDING, centerY - 1.5, LEGEND_SHAPE_SIZE, LEGEND_SHAPE_SIZE * 0.3),
+            Color.black,
+            LEGEND_LINE_STROKE);
+      }
+      x = x + graphicWidth;
+
+      canvas.drawString(
+          labels.get(i),
+          font,
+          Color.black,
+          AffineTransform.getTranslateInstance(
+              x + LEGEND_PADDING, centerY + (metrics.getAscent() - metrics.getDescent()) / 2.0));
+      x = x + metrics.stringWidth(labels.get(i)) + 2 * LEGEND_PADDING;
+    }
+
+    area.setRect(area.getX(), area.getY(), area.getWidth(), area.getHeight() - legendHeight);
+  }
+
+  private void drawPlot(final ChartCanvas canvas, final Rectangle2D area) {
+    final PlotOptions plotOptions = chartOptions.getPlotOptions();
+    final RectangleInsets insets =
+        plotOptions != null && plotOptions.getInsets() != null
+            ? plotOptions.getInsets()
+            : DEFAULT_PLOT_INSETS;
+    final Rectangle2D plotArea = insets.createInsetRectangle(area);
+
+    final boolean vertical = chartOrientation == ChartOrientation.VERTICAL;
+    final Edge monthsEdge =
+        switch (chartOrientation) {
+          case CONVENTIONAL -> Edge.bottom;
+          case VERTICAL -> Edge.left;
+          default -> Edge.top;
+        };
+    final Edge hoursEdge = vertical ? Edge.bottom : Edge.left;
+
+    final Font monthsFont =
+        getTickLabelFont(plotOptions == null ? null : plotOptions.getDomainAxisOptions());
+    final Font hoursFont =
+        getTickLabelFont(plotOptions == null ? null : plotOptions.getRangeAxisOptions());
+    final FontMetrics monthsMetrics = canvas.getFontMetrics(monthsFont);
+    final FontMetrics hoursMetrics = canvas.getFontMetrics(hoursFont);
+
+    final int year = riseSetData == null ? LocalDate.now().getYear() : riseSetData.getYear();
+    final ZoneId zoneId = ZoneId.systemDefault();
+    final double startMillis = toMillis(LocalDate.of(year, 1, 1), zoneId);
+    final double endMillis = toMillis(LocalDate.of(year, 12, 31), zoneId);
+    final double hoursStartMillis = toMillis(LocalDate.of(1970, 1, 1), zoneId);
+    final double hoursEndMillis = toMillis(LocalDate.of(1970, 1, 2), zoneId);
+
+    final DateFormat monthsFormat = (DateFormat) ChartConfiguration.monthsFormat.clone();
+    final List<String> monthLabels = new ArrayList<>();
+    final double[] monthTicks = new double[12];
+    int monthsLabelWidth = 0;
+    for (int month = 0; month < 12; month++) {
+      monthTicks[month] = toMillis(LocalDate.of(year, month + 1, 1), zoneId);
+      final String label = monthsFormat.format(new Date((long) monthTicks[month]));
+      monthLabels.add(label);
+      monthsLabelWidth = Math.max(monthsLabelWidth, monthsMetrics.stringWidth(label));
+    }
+    final int hoursLabelWidth = hoursMetrics.stringWidth("00:00");
+
+    // Space for the axes, then the data area inside the axis offsets
+    final double monthsSpace =
+        TICK_MARK_LENGTH
+            + (vertical
+                ? TICK_LABEL_INSETS.getLeft()
+                    + TICK_LABEL_INSETS.getRight()
+                    + monthsMetrics.getHeight()
+                : TICK_LABEL_INSETS.getTop() + TICK_LABEL_INSETS.getBottom() + monthsLabelWidth);
+    final double hoursSpace =
+        TICK_MARK_LENGTH
+            + (vertical
+                ? TICK_LABEL_INSETS.getTop()
+                    + TICK_LABEL_INSETS.getBottom()
+                    + hoursMetrics.getHeight()
+                : TICK_LABEL_INSETS.getLeft() + TICK_LABEL_INSETS.getRight() + hoursLabelWidth);
+    double left = plotArea.getX();
+    double top = plotArea.getY();
+    double right = plotArea.getMaxX();
+    double bottom = plotArea.getMaxY();
+    switch (monthsEdge) {
+      case top -> top = top + monthsSpace;
+      case bottom -> bottom = bottom - monthsSpace;
+      default -> left = left + monthsSpace;
+    }
+    if (hoursEdge == Edge.left) {
+      left = left + hoursSpace;
+    } else {
+      bottom = bottom - hoursSpace;
+    }
+    final Rectangle2D dataArea =
+        new Rectangle2D.Double(
+            left + AXIS_OFFSET,
+            top + AXIS_OFFSET,
+            right - left - 2 * AXIS_OFFSET,
+            bottom - top - 2 * AXIS_OFFSET);
+    if (dataArea.getWidth() <= 0 || dataArea.getHeight() <= 0) {
+      return;
+    }
+
+    final Transform transform =
+        new Transform(dataArea, startMillis, endMillis, hoursStartMillis, hoursEndMillis);
+
+    // Plot background
+    canvas.fill(dataArea, getPlotBackgroundPaint(), 1f);
+
+    // Grid lines
+    final int hourTickUnit =
+        selectHourTickUnit(
+            vertical ? dataArea.getWidth() : dataArea.getHeight(),
+            vertical ? hoursLabelWidth + 8 : hoursMetrics.getHeight() + 4);
+    for (final double monthTick : monthTicks) {
+      canvas.draw(transform.monthsLine(monthTick), Color.white, GRIDLINE_STROKE);
+    }
+    for (int hour = 0; hour <= 24; hour = hour + hourTickUnit) {
+      canvas.draw(
+          transform.hoursLine(hoursStartMillis + hour * MILLIS_PER_HOUR),
+          Color.white,
+          GRIDLINE_STROKE);
+    }
+
+    canvas.clip(dataArea);
+    drawDstMarker(canvas, transform, zoneId);
+    drawBands(canvas, transform);
+    canvas.resetClip();
+
+    // Outline
+    canvas.draw(
+        dataArea,
+        plotOptions != null && plotOptions.getOutlinePaint() != null
+            ? plotOptions.getOutlinePaint()
+            : Color.gray,
+        plotOptions != null && plotOptions.getOutlineStroke() != null
+            ? plotOptions.getOutlineStroke()
+            : AXIS_LINE_STROKE);
+
+    // Axes
+    drawAxisLine(canvas, monthsEdge, dataArea);
+    drawAxisLine(canvas, hoursEdge, dataArea);
+    for (int month = 0; month < 12; month++) {
+      drawTick(
+          canvas,
+          monthsEdge,
+          dataArea,
+          transform.toMonthsCoordinate(monthTicks[month]),
+          monthLabels.get(month),
+          monthsFont,
+          monthsMetrics,
+          true);
+    }
+    for (int hour = 0; hour < 24; hour = hour + hourTickUnit) {
+      drawTick(
+          canvas,
+          hoursEdge,
+          dataArea,
+          transform.toHoursCoordinate(hoursStartMillis + hour * MILLIS_PER_HOUR),
+          "%02d:00".formatted(hour),
+          hoursFont,
+          hoursMetrics,
+          false);
+    }
+  }
+
+  private void drawBands(final ChartCanvas canvas, final Transform transform) {
+    if (riseSetData == null) {
+      return;
+    }
+    // Later bands are drawn first, as JFreeChart does by default
+    final List<DaylightBand> bands = riseSetData.getBands();
+    for (int i = bands.size() - 1; i >= 0; i--) {
+      final DaylightBand band = bands.get(i);
+      final DaylightBandDataset dataset = new DaylightBandDataset(band);
+      final int itemCount = dataset.getItemCount(0);
+      if (itemCount == 0) {
+        continue;
+      }
+
+      final Path2D sunrises = new Path2D.Double();
+      final Path2D sunsets = new Path2D.Double();
+      for (int item = 0; item < itemCount; item++) {
+        transform.lineTo(sunrises, dataset.getXValue(0, item), dataset.getYValue(0, item), item);
+        transform.lineTo(sunsets, dataset.getXValue(1, item), dataset.getYValue(1, item), item);
+      }
+
+      switch (band.getDaylightBandType()) {
+        case without_clock_shift -> {
+          canvas.draw(sunrises, Color.white, OUTLINE_BAND_STROKE);
+          canvas.draw(sunsets, Color.white, OUTLINE_BAND_STROKE);
+        }
+        case with_clock_shift, twilight -> {
+          final Color color =
+              band.getDaylightBandType() == DaylightBandType.twilight
+                  ? ChartConfiguration.twilightColor
+                  : ChartConfiguration.daylightColor;
+          final Path2D area = new Path2D.Double(sunrises);
+          for (int item = itemCount - 1; item >= 0; item--) {
+            transform.lineTo(area, dataset.getXValue(1, item), dataset.getYValue(1, item), 1);
+          }
+          area.closePath();
+          canvas.fill(area, color, 1f);
+          canvas.draw(sunrises, color, DIFFERENCE_STROKE);
+          canvas.draw(sunsets, color, DIFFERENCE_STROKE);
+        }
+        default -> {
+          // No other band types
+        }
+      }
+    }
+  }
+
+  private void drawDstMarker(
+      final ChartCanvas canvas, final Transform transform, final ZoneId zoneId) {
+    if (riseSetData == null
+        || !riseSetData.usesDaylightTime()
+        || riseSetData.getDstStartDate() == null
+        || riseSetData.getDstEndDate() == null) {
+      return;
+    }
+    canvas.fill(
+        transform.monthsInterval(
+            toMillis(riseSetData.getDstStartDate(), zoneId),
+            toMillis(riseSetData.getDstEndDate(), zoneId)),
+        ChartConfiguration.nightColor,
+        0.4f);
+  }
+
+  private void drawAxisLine(final ChartCanvas canvas, final Edge edge, final Rectangle2D dataArea) {
+    final Line2D axisLine =
+        switch (edge) {
+          case top -> {
+            final double axisY = dataArea.getY() - AXIS_OFFSET;
+            yield new Line2D.Double(dataArea.getX(), axisY, dataArea.getMaxX(), axisY);
+          }
+          case bottom -> {
+            final double axisY = dataArea.getMaxY() + AXIS_OFFSET;
+            yield new Line2D.Double(dataArea.getX(), axisY, dataArea.getMaxX(), axisY);
+          }
+          default -> {
+            final double axisX = dataArea.getX() - AXIS_OFFSET;
+            yield new Line2D.Double(axisX, dataArea.getY(), axisX, dataArea.getMaxY());
+          }
+        };
+    canvas.draw(axisLine, Color.gray, AXIS_LINE_STROKE);
+  }
+
+  private void drawTick(
+      final ChartCanvas canvas,
+      final Edge edge,
+      final Rectangle2D dataArea,
+      final double coordinate,
+      final String label,
+      final Font font,
+      final FontMetrics metrics,
+      final boolean verticalLabel) {
+    final double labelWidth = metrics.stringWidth(label);
+    final double ascent = metrics.getAscent();
+    final double descent = metrics.getDescent();
+
+    final Line2D tickMark;
+    final AffineTransform labelTransform;
+    switch (edge) {
+      case top -> {
+        final double axisY = dataArea.getY() - AXIS_OFFSET;
+        tickMark = new Line2D.Double(coordinate, axisY, coordinate, axisY - TICK_MARK_LENGTH);
+        labelTransform =
+            AffineTransform.getTranslateInstance(
+                coordinate, axisY - TICK_MARK_LENGTH - TICK_LABEL_INSETS.getBottom());
+        labelTransform.rotate(Math.PI / 2);
+        labelTransform.translate(-labelWidth, (ascent - descent) / 2);
+      }
+      case bottom -> {
+        final double axisY = dataArea.getMaxY() + AXIS_OFFSET;
+        tickMark = new Line2D.Double(coordinate, axisY, coordinate, axisY + TICK_MARK_LENGTH);
+        final double labelY = axisY + TICK_MARK_LENGTH + TICK_LABEL_INSETS.getTop();
+        if (verticalLabel) {
+          labelTransform = AffineTransform.getTranslateInstance(coordinate, labelY);
+          labelTransform.rotate(-Math.PI / 2);
+          labelTransform.translate(-labelWidth, (ascent - descent) / 2);
+        } else {
+          labelTransform =
+              AffineTransform.getTranslateInstance(coordinate - labelWidth / 2, labelY + ascent);
+        }
+      }
+      default -> {
+        final double axisX = dataArea.getX() - AXIS_OFFSET;
+        tickMark = new Line2D.Double(axisX, coordinate, axisX - TICK_MARK_LENGTH, coordinate);
+        final double labelX = axisX - TICK_MARK_LENGTH - TICK_LABEL_INSETS.getRight();
+        if (verticalLabel) {
+          labelTransform = AffineTransform.getTranslateInstance(labelX, coordinate);
+          labelTransform.rotate(-Math.PI / 2);
+          labelTransform.translate(-labelWidth / 2, -descent);
+        } else {
+          labelTransform =
+              AffineTransform.getTranslateInstance(
+                  labelX - labelWidth, coordinate + (ascent - descent) / 2);
+        }
+      }
+    }
+    canvas.draw(tickMark, Color.gray, AXIS_LINE_STROKE);
+    canvas.drawString(label, font, Color.black, labelTransform);
+  }
+
+  private Paint getPlotBackgroundPaint() {
+    final PlotOptions plotOptions = chartOptions.getPlotOptions();
+    if (plotOptions != null && plotOptions.getBackgroundPaint() != null) {
+      return plotOptions.getBackgroundPaint();
+    }
+    return ChartConfiguration.nightColor;
+  }
+
+  private Font getTickLabelFont(final AxisOptions axisOptions) {
+    if (axisOptions != null && axisOptions.getTickLabelFont() != null) {
+      return axisOptions.getTickLabelFont();
+    }
+    return ChartConfiguration.chartFont.deriveFont(Font.PLAIN, 12);
+  }
+
+  private String getTwilightLabel() {
+    if (twilightType == null) {
+      return Messages.getString("DaylightChart.Legend.Twilight");
+    }
+    return switch (twilightType) {
+      case CIVIL -> Messages.getString("DaylightChart.Legend.Twilight.Civil");
+      case NAUTICAL -> Messages.getString("DaylightChart.Legend.Twilight.Nautical");
+      case ASTRONOMICAL -> Messages.getString("DaylightChart.Legend.Twilight.Astronomical");
+      default -> Messages.getString("DaylightChart.Legend.Twilight");
+    };
+  }
+
+  private static int selectHourTickUnit(final double length, final double labelSpace) {
+    for (final int hourTickUnit : HOUR_TICK_UNITS) {
+      if (length / 24.0 * hourTickUnit >= labelSpace) {
+        return hourTickUnit;
+      }
+    }
+    return HOUR_TICK_UNITS[HOUR_TICK_UNITS.length - 1];
+  }
+
+  private static double toMillis(final LocalDate date, final ZoneId zoneId) {
+    return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+  }
+
+  /** Maps months and hours values, in milliseconds, into the data area. */
+  private final class Transform {
+
+    private final Rectangle2D dataArea;
+    private final double monthsStart;
+    private final double monthsEnd;
+    private final double hoursStart;
+    private final double hoursEnd;
+
+    Transform(
+        final Rectangle2D dataArea,
+        final double monthsStart,
+        final double monthsEnd,
+        final double hoursStart,
+        final double hoursEnd) {
+      this.dataArea = dataArea;
+      this.monthsStart = monthsStart;
+      this.monthsEnd = monthsEnd;
+      this.hoursStart = hoursStart;
+      this.hoursEnd = hoursEnd;
+    }
+
+    void lineTo(final Path2D path, final double months, final double hours, final int item) {
+      final double monthsCoordinate = toMonthsCoordinate(months);
+      final double hoursCoordinate = toHoursCoordinate(hours);
+      final boolean vertical = chartOrientation == ChartOrientation.VERTICAL;
+      final double x = vertical ? hoursCoordinate : monthsCoordinate;
+      final double y = vertical ? monthsCoordinate : hoursCoordinate;
+      if (item == 0) {
+        path.moveTo(x, y);
+      } else {
+        path.lineTo(x, y);
+      }
+    }
+
+    Line2D monthsLine(final double months) {
+      final double coordinate = toMonthsCoordinate(months);
+      if (chartOrientation == ChartOrientation.VERTICAL) {
+        return new Line2D.Double(dataArea.getX(), coordinate, dataArea.getMaxX(), coordinate);
+      }
+      return new Line2D.Double(coordinate, dataArea.getY(), coordinate, dataArea.getMaxY());
+    }
+
+    Line2D hoursLine(final double hours) {
+      final double coordinate = toHoursCoordinate(hours);
+      if (chartOrientation == ChartOrientation.VERTICAL) {
+        return new Line2D.Double(coordinate, dataArea.getY(), coordinate, dataArea.getMaxY());
+      }
+      return new Line2D.Double(dataArea.getX(), coordinate, dataArea.getMaxX(), coordinate);
+    }
+
+    Rectangle2D monthsInterval(final double from, final double to) {
+      final double start = toMonthsCoordinate(from);
+      final double end = toMonthsCoordinate(to);
+      if (chartOrientation == ChartOrientation.VERTICAL) {
+        return new Rectangle2D.Double(
+            dataArea.getX(), Math.min(start, end), dataArea.getWidth(), Math.abs(end - start));
+      }
+      return new Rectangle2D.Double(
+          Math.min(start, end), dataArea.getY(), Math.abs(end - start), dataArea.getHeight());
+    }
+
+    double toMonthsCoordinate(final double months) {
+      final double fraction = (months - monthsStart) / (monthsEnd - monthsStart);
+      if (chartOrientation == ChartOrientation.VERTICAL) {
+        // Months run down the chart
+        return dataArea.getY() + fraction * dataArea.getHeight();
+      }
+      return dataArea.getX() + fraction * dataArea.getWidth();
+    }
+
+    double toHoursCoordinate(final double hours) {
+      final double fraction = (hours - hoursStart) / (hoursEnd - hoursStart);
+      return switch (chartOrientation) {
+        // Midnight at the top of the chart
+        case STANDARD -> dataArea.getY() + fraction * dataArea.getHeight();
+        // Midnight at the bottom of the chart
+        case CONVENTIONAL -> dataArea.getMaxY() - fraction * dataArea.getHeight();
+        // Midnight at the left of the chart
+        default -> dataArea.getX() + fraction * dataArea.getWidth();
+      };
+    }
+  }
+}
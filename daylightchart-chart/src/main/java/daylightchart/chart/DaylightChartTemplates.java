@@ -0,0 +1,91 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart;
+
+import daylightchart.chart.data.RiseSetYearData;
+import daylightchart.chart.options.ChartOptions;
+import daylightchart.options.ChartOrientation;
+import daylightchart.options.Options;
+import daylightchart.options.TwilightType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-thread pool of chart templates, for rendering charts without setting up the axes, legend and
+ * chart options each time. A template is keyed by the chart orientation, legend and twilight
+ * settings, and the chart options. Only the rise and set data is replaced for each chart.
+ *
+ * <p>The chart returned is shared by later requests on the same thread, so it must be rendered
+ * right away, on the same thread, and not kept.
+ */
+public final class DaylightChartTemplates {
+
+  private record Key(
+      ChartOrientation chartOrientation,
+      boolean showChartLegend,
+      TwilightType twilightType,
+      ChartOptions chartOptions) {}
+
+  private static final int MAXIMUM_TEMPLATES_PER_THREAD = 8;
+
+  private static final ThreadLocal<Map<Key, DaylightChart>> TEMPLATES =
+      ThreadLocal.withInitial(
+          () ->
+              new LinkedHashMap<>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Key, DaylightChart> eldest) {
+                  return size() > MAXIMUM_TEMPLATES_PER_THREAD;
+                }
+              });
+
+  /**
+   * Gets a chart for the rise and set data from this thread's templates, creating a template if
+   * needed.
+   *
+   * @param riseSetData Rise and set data for the year
+   * @param options Options
+   * @param chartOptions Chart options
+   * @return Chart, to be rendered immediately on the calling thread
+   */
+  public static DaylightChart template(
+      final RiseSetYearData riseSetData, final Options options, final ChartOptions chartOptions) {
+    final Options optionsNotNull = options == null ? new Options() : options;
+    final Key key =
+        new Key(
+            optionsNotNull.getChartOrientation(),
+            optionsNotNull.isShowChartLegend(),
+            optionsNotNull.getTwilightType(),
+            chartOptions);
+
+    final Map<Key, DaylightChart> templates = TEMPLATES.get();
+    final DaylightChart template = templates.get(key);
+    if (template != null) {
+      template.replaceRiseSetData(riseSetData, chartOptions);
+      return template;
+    }
+
+    // Keep a private copy of the options that the template depends on,
+    // since the legend holds on to them
+    final Options templateOptions = new Options();
+    templateOptions.setChartOrientation(key.chartOrientation());
+    templateOptions.setShowChartLegend(key.showChartLegend());
+    templateOptions.setTwilightType(key.twilightType());
+
+    final DaylightChart chart = new DaylightChart(riseSetData, templateOptions, chartOptions);
+    templates.put(key, chart);
+    return chart;
+  }
+
+  private DaylightChartTemplates() {
+    // Prevent instantiation
+  }
+}
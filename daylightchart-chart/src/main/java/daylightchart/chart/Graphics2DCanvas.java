@@ -0,0 +1,78 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+
+/** Chart canvas that draws with a Java2D graphics context. */
+final class Graphics2DCanvas implements ChartCanvas {
+
+  private final Graphics2D g2;
+  private Shape savedClip;
+
+  Graphics2DCanvas(final Graphics2D g2) {
+    this.g2 = g2;
+  }
+
+  @Override
+  public void clip(final Rectangle2D area) {
+    savedClip = g2.getClip();
+    g2.clip(area);
+  }
+
+  @Override
+  public void draw(final Shape shape, final Paint paint, final Stroke stroke) {
+    g2.setPaint(paint);
+    g2.setStroke(stroke);
+    g2.draw(shape);
+  }
+
+  @Override
+  public void drawString(
+      final String text, final Font font, final Paint paint, final AffineTransform transform) {
+    final AffineTransform saved = g2.getTransform();
+    g2.transform(transform);
+    g2.setFont(font);
+    g2.setPaint(paint);
+    g2.drawString(text, 0f, 0f);
+    g2.setTransform(saved);
+  }
+
+  @Override
+  public void fill(final Shape shape, final Paint paint, final float alpha) {
+    g2.setPaint(paint);
+    if (alpha >= 1f) {
+      g2.fill(shape);
+      return;
+    }
+    final Composite composite = g2.getComposite();
+    g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+    g2.fill(shape);
+    g2.setComposite(composite);
+  }
+
+  @Override
+  public FontMetrics getFontMetrics(final Font font) {
+    return g2.getFontMetrics(font);
+  }
+
+  @Override
+  public void resetClip() {
+    g2.setClip(savedClip);
+  }
+}
@@ -0,0 +1,334 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Chart canvas that streams SVG elements to a writer as they are drawn, without building a document
+ * in memory. Only flat colors are supported, so other paints are drawn with a representative color.
+ * Write errors are thrown as {@link UncheckedIOException}.
+ */
+final class SvgCanvas implements ChartCanvas {
+
+  private static final String HEX_DIGITS = "0123456789abcdef";
+
+  private static void appendColor(final StringBuilder buffer, final Color color) {
+    buffer.append('#');
+    for (final int component : new int[] {color.getRed(), color.getGreen(), color.getBlue()}) {
+      buffer.append(HEX_DIGITS.charAt(component >> 4)).append(HEX_DIGITS.charAt(component & 0xF));
+    }
+  }
+
+  private static void appendEscaped(final StringBuilder buffer, final String text) {
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      switch (c) {
+        case '<' -> buffer.append("&lt;");
+        case '>' -> buffer.append("&gt;");
+        case '&' -> buffer.append("&amp;");
+        case '"' -> buffer.append("&quot;");
+        case '\'' -> buffer.append("&apos;");
+        default -> buffer.append(c);
+      }
+    }
+  }
+
+  /** Appends a font name, with a generic family for the Java logical fonts as a fallback. */
+  private static void appendFontFamily(final StringBuilder buffer, final Font font) {
+    final String name = font.getName();
+    final String genericFamily =
+        switch (name) {
+          case Font.SERIF -> "serif";
+          case Font.MONOSPACED, Font.DIALOG_INPUT -> "monospace";
+          default -> "sans-serif";
+        };
+    if (!Font.SERIF.equals(name)
+        && !Font.SANS_SERIF.equals(name)
+        && !Font.MONOSPACED.equals(name)
+        && !Font.DIALOG.equals(name)
+        && !Font.DIALOG_INPUT.equals(name)) {
+      appendEscaped(buffer, name);
+      buffer.append(", ");
+    }
+    buffer.append(genericFamily);
+  }
+
+  /** Appends a number rounded to two decimal places, without a trailing zero fraction. */
+  private static void appendNumber(final StringBuilder buffer, final double value) {
+    long hundredths = Math.round(value * 100);
+    if (hundredths < 0) {
+      buffer.append('-');
+      hundredths = -hundredths;
+    }
+    buffer.append(hundredths / 100);
+    final long fraction = hundredths % 100;
+    if (fraction != 0) {
+      buffer.append('.').append(fraction / 10);
+      if (fraction % 10 != 0) {
+        buffer.append(fraction % 10);
+      }
+    }
+  }
+
+  private static void appendPaint(
+      final StringBuilder buffer, final String attribute, final Paint paint, final float alpha) {
+    final Color color = toColor(paint);
+    buffer.append(' ').append(attribute).append("=\"");
+    appendColor(buffer, color);
+    buffer.append('"');
+    final double opacity = color.getAlpha() / 255.0 * alpha;
+    if (opacity < 1) {
+      buffer.append(' ').append(attribute).append("-opacity=\"");
+      buffer.append(Math.round(opacity * 1_000) / 1_000.0);
+      buffer.append('"');
+    }
+  }
+
+  private static void appendPath(final StringBuilder buffer, final Shape shape) {
+    final double[] coordinates = new double[6];
+    final PathIterator iterator = shape.getPathIterator(null);
+    buffer.append(" d=\"");
+    while (!iterator.isDone()) {
+      final int segment = iterator.currentSegment(coordinates);
+      final int points =
+          switch (segment) {
+            case PathIterator.SEG_MOVETO -> {
+              buffer.append('M');
+              yield 1;
+            }
+            case PathIterator.SEG_LINETO -> {
+              buffer.append('L');
+              yield 1;
+            }
+            case PathIterator.SEG_QUADTO -> {
+              buffer.append('Q');
+              yield 2;
+            }
+            case PathIterator.SEG_CUBICTO -> {
+              buffer.append('C');
+              yield 3;
+            }
+            default -> {
+              buffer.append('Z');
+              yield 0;
+            }
+          };
+      for (int i = 0; i < points * 2; i++) {
+        if (i > 0) {
+          buffer.append(' ');
+        }
+        appendNumber(buffer, coordinates[i]);
+      }
+      iterator.next();
+    }
+    buffer.append('"');
+  }
+
+  private static void appendStroke(final StringBuilder buffer, final Stroke stroke) {
+    if (!(stroke instanceof final BasicStroke basicStroke)) {
+      buffer.append(" stroke-width=\"1\"");
+      return;
+    }
+    buffer.append(" stroke-width=\"");
+    appendNumber(buffer, basicStroke.getLineWidth());
+    buffer.append('"');
+    switch (basicStroke.getEndCap()) {
+      case BasicStroke.CAP_ROUND -> buffer.append(" stroke-linecap=\"round\"");
+      case BasicStroke.CAP_SQUARE -> buffer.append(" stroke-linecap=\"square\"");
+      default -> {
+        // Butt is the SVG default
+      }
+    }
+    switch (basicStroke.getLineJoin()) {
+      case BasicStroke.JOIN_ROUND -> buffer.append(" stroke-linejoin=\"round\"");
+      case BasicStroke.JOIN_BEVEL -> buffer.append(" stroke-linejoin=\"bevel\"");
+      default -> {
+        // Miter is the SVG default
+      }
+    }
+    final float[] dashArray = basicStroke.getDashArray();
+    if (dashArray != null && dashArray.length > 0) {
+      buffer.append(" stroke-dasharray=\"");
+      for (int i = 0; i < dashArray.length; i++) {
+        if (i > 0) {
+          buffer.append(',');
+        }
+        appendNumber(buffer, dashArray[i]);
+      }
+      buffer.append('"');
+    }
+  }
+
+  private static Color toColor(final Paint paint) {
+    if (paint instanceof final Color color) {
+      return color;
+    }
+    if (paint instanceof final GradientPaint gradientPaint) {
+      return gradientPaint.getColor1();
+    }
+    return Color.gray;
+  }
+
+  private final Writer writer;
+  private final StringBuilder buffer;
+  private final Graphics2D scratchGraphics;
+  private int clipCount;
+  private boolean clipped;
+
+  /**
+   * Starts an SVG document.
+   *
+   * @param writer Writer for the document
+   * @param width Document width
+   * @param height Document height
+   */
+  SvgCanvas(final Writer writer, final int width, final int height) {
+    this.writer = writer;
+    buffer = new StringBuilder(1024);
+
+    // Text is laid out with the same metrics as an anti-aliased image
+    scratchGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+    scratchGraphics.setRenderingHint(
+        RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    scratchGraphics.setRenderingHint(
+        RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+    buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    buffer.append("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\"");
+    buffer.append(" width=\"").append(width).append("\" height=\"").append(height).append('"');
+    buffer.append(" viewBox=\"0 0 ").append(width).append(' ').append(height).append("\">\n");
+    flushBuffer();
+  }
+
+  @Override
+  public void clip(final Rectangle2D area) {
+    final String id = "clip" + clipCount++;
+    buffer.append("<clipPath id=\"").append(id).append("\"><path");
+    appendPath(buffer, area);
+    buffer.append("/></clipPath>\n");
+    buffer.append("<g clip-path=\"url(#").append(id).append(")\">\n");
+    clipped = true;
+    flushBuffer();
+  }
+
+  @Override
+  public void draw(final Shape shape, final Paint paint, final Stroke stroke) {
+    buffer.append("<path fill=\"none\"");
+    appendPaint(buffer, "stroke", paint, 1f);
+    appendStroke(buffer, stroke);
+    appendPath(buffer, shape);
+    buffer.append("/>\n");
+    flushBuffer();
+  }
+
+  @Override
+  public void drawString(
+      final String text, final Font font, final Paint paint, final AffineTransform transform) {
+    buffer.append("<text");
+    if (transform.getType() == AffineTransform.TYPE_TRANSLATION
+        || transform.getType() == AffineTransform.TYPE_IDENTITY) {
+      buffer.append(" x=\"");
+      appendNumber(buffer, transform.getTranslateX());
+      buffer.append("\" y=\"");
+      appendNumber(buffer, transform.getTranslateY());
+      buffer.append('"');
+    } else {
+      final double[] matrix = new double[6];
+      transform.getMatrix(matrix);
+      buffer.append(" transform=\"matrix(");
+      for (int i = 0; i < matrix.length; i++) {
+        if (i > 0) {
+          buffer.append(' ');
+        }
+        // Rotations need more precision than coordinates
+        buffer.append(i < 4 ? Math.round(matrix[i] * 10_000) / 10_000.0 : matrix[i]);
+      }
+      buffer.append(")\"");
+    }
+    buffer.append(" font-family=\"");
+    appendFontFamily(buffer, font);
+    buffer.append("\" font-size=\"");
+    appendNumber(buffer, font.getSize2D());
+    buffer.append('"');
+    if (font.isBold()) {
+      buffer.append(" font-weight=\"bold\"");
+    }
+    if (font.isItalic()) {
+      buffer.append(" font-style=\"italic\"");
+    }
+    appendPaint(buffer, "fill", paint, 1f);
+    buffer.append('>');
+    appendEscaped(buffer, text);
+    buffer.append("</text>\n");
+    flushBuffer();
+  }
+
+  @Override
+  public void fill(final Shape shape, final Paint paint, final float alpha) {
+    buffer.append("<path");
+    appendPaint(buffer, "fill", paint, alpha);
+    appendPath(buffer, shape);
+    buffer.append("/>\n");
+    flushBuffer();
+  }
+
+  /**
+   * Ends the document, and flushes the writer.
+   *
+   * @throws IOException On an exception writing the document
+   */
+  void finish() throws IOException {
+    resetClip();
+    buffer.append("</svg>\n");
+    flushBuffer();
+    writer.flush();
+    scratchGraphics.dispose();
+  }
+
+  @Override
+  public FontMetrics getFontMetrics(final Font font) {
+    return scratchGraphics.getFontMetrics(font);
+  }
+
+  @Override
+  public void resetClip() {
+    if (clipped) {
+      buffer.append("</g>\n");
+      clipped = false;
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() {
+    try {
+      writer.append(buffer);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      buffer.setLength(0);
+    }
+  }
+}
@@ -14,19 +14,25 @@ import java.io.Serializable;
 import java.io.StringWriter;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
-/** One daylight band, consisting of a sunrise series and a sunset series. */
+/**
+ * One daylight band, consisting of a sunrise series and a sunset series. Rise/ sets are held in an
+ * array indexed by the day of the year, so they are always in date order.
+ */
 public final class DaylightBand implements Serializable {
 
   @Serial private static final long serialVersionUID = 5875662315368162333L;
 
+  private static final int MAXIMUM_DAYS_IN_YEAR = 366;
+
   private final DaylightBandType bandType;
   private final int bandNumber;
-  private final Map<LocalDate, RiseSet> riseSetMap;
+  private final RiseSet[] riseSets;
+  private int year;
+  private int size;
+  private int firstDayIndex;
+  private int lastDayIndex;
 
   /**
    * Create a new daylight band.
@@ -36,7 +42,9 @@ public final class DaylightBand implements Serializable {
   DaylightBand(final DaylightBandType bandType, final int bandNumber) {
     this.bandType = bandType;
     this.bandNumber = bandNumber;
-    riseSetMap = new HashMap<>();
+    riseSets = new RiseSet[MAXIMUM_DAYS_IN_YEAR];
+    firstDayIndex = -1;
+    lastDayIndex = -1;
   }
 
   /**
@@ -48,6 +56,63 @@ public final class DaylightBand implements Serializable {
     return bandType;
   }
 
+  /**
+   * Index of the first day of the year in the band, starting at zero.
+   *
+   * @return First day index, or -1 if the band is empty
+   */
+  public int getFirstDayIndex() {
+    return firstDayIndex;
+  }
+
+  /**
+   * Index of the last day of the year in the band, starting at zero.
+   *
+   * @return Last day index, or -1 if the band is empty
+   */
+  public int getLastDayIndex() {
+    return lastDayIndex;
+  }
+
+  /**
+   * Year of the days in the band.
+   *
+   * @return Year
+   */
+  public int getYear() {
+    return year;
+  }
+
+  /**
+   * Whether the band has a rise/ set for a day.
+   *
+   * @param dayIndex Day of the year, starting at zero
+   * @return Whether the band has a rise/ set for the day
+   */
+  public boolean hasRiseSet(final int dayIndex) {
+    return dayIndex >= 0 && dayIndex < riseSets.length && riseSets[dayIndex] != null;
+  }
+
+  /**
+   * Sunrise for a day in the band, as the second of the day.
+   *
+   * @param dayIndex Day of the year, starting at zero
+   * @return Sunrise second of the day
+   */
+  public int getSunriseSecondOfDay(final int dayIndex) {
+    return riseSets[dayIndex].getSunriseSecondOfDay();
+  }
+
+  /**
+   * Sunset for a day in the band, as the second of the day.
+   *
+   * @param dayIndex Day of the year, starting at zero
+   * @return Sunset second of the day
+   */
+  public int getSunsetSecondOfDay(final int dayIndex) {
+    return riseSets[dayIndex].getSunsetSecondOfDay();
+  }
+
   /**
    * Name of the band.
    *
@@ -63,9 +128,13 @@ public final class DaylightBand implements Serializable {
    * @return Rise/ sets list
    */
   public List<RiseSet> getRiseSets() {
-    final List<RiseSet> riseSets = new ArrayList<>(riseSetMap.values());
-    Collections.sort(riseSets);
-    return riseSets;
+    final List<RiseSet> riseSetsList = new ArrayList<>(size);
+    for (int dayIndex = firstDayIndex; size > 0 && dayIndex <= lastDayIndex; dayIndex++) {
+      if (riseSets[dayIndex] != null) {
+        riseSetsList.add(riseSets[dayIndex]);
+      }
+    }
+    return riseSetsList;
   }
 
   /**
@@ -74,7 +143,7 @@ public final class DaylightBand implements Serializable {
    * @return Size of the band
    */
   public int size() {
-    return riseSetMap.size();
+    return size;
   }
 
   /**
@@ -88,7 +157,7 @@ public final class DaylightBand implements Serializable {
     final PrintWriter printWriter = new PrintWriter(writer, true);
 
     printWriter.printf("%s", getName());
-    if (riseSetMap.size() > 0) {
+    if (size > 0) {
       printWriter.printf(
           ", starting %s ending %s", getFirstRiseSet().getDate(), getLastRiseSet().getDate());
     }
@@ -105,27 +174,49 @@ public final class DaylightBand implements Serializable {
         && riseSet.getSunrise().isBefore(riseSet.getSunset())
         && riseSet.getRiseSetType() != RiseSetType.all_nighttime
         && riseSet.getRiseSetType() != RiseSetType.partial) {
-      riseSetMap.put(riseSet.getDate(), riseSet);
+      put(riseSet);
     }
   }
 
   RiseSet get(final LocalDate date) {
-    return riseSetMap.get(date);
+    if (size == 0 || date.getYear() != year) {
+      return null;
+    }
+    return riseSets[date.getDayOfYear() - 1];
   }
 
   RiseSet getFirstRiseSet() {
-    if (riseSetMap.size() > 0) {
-      final List<RiseSet> riseSets = getRiseSets();
-      return riseSets.getFirst();
+    if (size > 0) {
+      return riseSets[firstDayIndex];
     }
     return null;
   }
 
   RiseSet getLastRiseSet() {
-    if (riseSetMap.size() > 0) {
-      final List<RiseSet> riseSets = getRiseSets();
-      return riseSets.getLast();
+    if (size > 0) {
+      return riseSets[lastDayIndex];
     }
     return null;
   }
+
+  private void put(final RiseSet riseSet) {
+    final LocalDate date = riseSet.getDate();
+    if (size == 0) {
+      year = date.getYear();
+    } else if (date.getYear() != year) {
+      throw new IllegalArgumentException("Cannot add " + date + " to a band for the year " + year);
+    }
+
+    final int dayIndex = date.getDayOfYear() - 1;
+    if (riseSets[dayIndex] == null) {
+      size++;
+    }
+    riseSets[dayIndex] = riseSet;
+    if (firstDayIndex == -1 || dayIndex < firstDayIndex) {
+      firstDayIndex = dayIndex;
+    }
+    if (dayIndex > lastDayIndex) {
+      lastDayIndex = dayIndex;
+    }
+  }
 }
@@ -17,7 +17,6 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import org.geoname.data.Location;
-import org.geoname.data.utility.Utility;
 
 /**
  * Sunrise and sunset at a given location, and a given date. RiseSet is calculated as part of the
@@ -29,6 +28,14 @@ public final class RiseSet implements Serializable, Comparable<RiseSet> {
 
   static final LocalTime JUST_AFTER_MIDNIGHT = LocalTime.MIDNIGHT.plusNanos(1);
 
+  static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+  /** Raw event time marking a day on which the sun never sets. */
+  public static final int ALL_DAYLIGHT = Integer.MAX_VALUE;
+
+  /** Raw event time marking a day on which the sun never rises. */
+  public static final int ALL_NIGHTTIME = Integer.MIN_VALUE;
+
   @Serial private static final long serialVersionUID = 3092668888760029582L;
 
   private final RiseSetType riseSetType;
@@ -38,19 +45,32 @@ public final class RiseSet implements Serializable, Comparable<RiseSet> {
   private final LocalTime sunrise;
   private final LocalTime sunset;
 
-  RiseSet(final RawRiseSet rawRiseSet) {
-    location = rawRiseSet.getLocation();
-    date = rawRiseSet.getDate();
-    inDaylightSavings = rawRiseSet.isInDaylightSavings();
-
-    final double sunriseRaw = rawRiseSet.getSunrise();
-    final double sunsetRaw = rawRiseSet.getSunset();
+  /**
+   * Creates a rise/ set from raw event times, given in seconds from the start of the day. Days on
+   * which the sun does not rise or set are marked with {@link #ALL_DAYLIGHT} or {@link
+   * #ALL_NIGHTTIME}.
+   *
+   * @param location Location
+   * @param date Date
+   * @param inDaylightSavings Whether the date is in daylight savings time
+   * @param sunriseSeconds Sunrise, in seconds from the start of the day, or a polar marker
+   * @param sunsetSeconds Sunset, in seconds from the start of the day, or a polar marker
+   */
+  public RiseSet(
+      final Location location,
+      final LocalDate date,
+      final boolean inDaylightSavings,
+      final int sunriseSeconds,
+      final int sunsetSeconds) {
+    this.location = location;
+    this.date = date;
+    this.inDaylightSavings = inDaylightSavings;
 
-    final boolean hasSunrise = !Double.isInfinite(sunriseRaw);
-    final boolean hasSunset = !Double.isInfinite(sunsetRaw);
-    if (sunriseRaw == Double.POSITIVE_INFINITY && sunsetRaw == Double.POSITIVE_INFINITY) {
+    final boolean hasSunrise = !isPolar(sunriseSeconds);
+    final boolean hasSunset = !isPolar(sunsetSeconds);
+    if (sunriseSeconds == ALL_DAYLIGHT && sunsetSeconds == ALL_DAYLIGHT) {
       riseSetType = RiseSetType.all_daylight;
-    } else if (sunriseRaw == Double.NEGATIVE_INFINITY && sunsetRaw == Double.NEGATIVE_INFINITY) {
+    } else if (sunriseSeconds == ALL_NIGHTTIME && sunsetSeconds == ALL_NIGHTTIME) {
       riseSetType = RiseSetType.all_nighttime;
     } else if (hasSunrise && !hasSunset || !hasSunrise && hasSunset) {
       riseSetType = RiseSetType.partial;
@@ -66,20 +86,20 @@ public final class RiseSet implements Serializable, Comparable<RiseSet> {
         break;
       case partial:
         if (hasSunrise) {
-          sunrise = toLocalTime(sunriseRaw);
+          sunrise = toLocalTime(sunriseSeconds);
         } else {
           sunrise = JUST_AFTER_MIDNIGHT;
         }
-        if (hasSunrise) {
-          sunset = toLocalTime(sunsetRaw);
+        if (hasSunset) {
+          sunset = toLocalTime(sunsetSeconds);
         } else {
           sunset = JUST_BEFORE_MIDNIGHT;
         }
         break;
       case normal:
       default:
-        sunrise = toLocalTime(sunriseRaw);
-        sunset = toLocalTime(sunsetRaw);
+        sunrise = toLocalTime(sunriseSeconds);
+        sunset = toLocalTime(sunsetSeconds);
         break;
     }
   }
@@ -175,6 +195,24 @@ public final class RiseSet implements Serializable, Comparable<RiseSet> {
     return writer.toString();
   }
 
+  /**
+   * Sunrise time, as the second of the day.
+   *
+   * @return Sunrise second of the day
+   */
+  int getSunriseSecondOfDay() {
+    return sunrise.toSecondOfDay();
+  }
+
+  /**
+   * Sunset time, as the second of the day.
+   *
+   * @return Sunset second of the day
+   */
+  int getSunsetSecondOfDay() {
+    return sunset.toSecondOfDay();
+  }
+
   /**
    * Gets the rise/ set type.
    *
@@ -228,12 +266,11 @@ public final class RiseSet implements Serializable, Comparable<RiseSet> {
     return new RiseSet(location, date, inDaylightSavings, sunrise, sunset);
   }
 
-  private LocalTime toLocalTime(final double hour) {
-    double dayHour = hour % 24D;
-    if (dayHour < 0) {
-      dayHour = dayHour + 24;
-    }
-    final int[] fields = Utility.sexagesimalSplit(dayHour);
-    return LocalTime.of(fields[0], fields[1], fields[2]);
+  private static boolean isPolar(final int seconds) {
+    return seconds == ALL_DAYLIGHT || seconds == ALL_NIGHTTIME;
+  }
+
+  private static LocalTime toLocalTime(final int seconds) {
+    return LocalTime.ofSecondOfDay(Math.floorMod(seconds, SECONDS_PER_DAY));
   }
 }
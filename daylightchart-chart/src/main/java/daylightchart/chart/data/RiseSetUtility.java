@@ -18,6 +18,9 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import net.e175.klaus.solarpositioning.DeltaT;
 import net.e175.klaus.solarpositioning.SPA;
 import net.e175.klaus.solarpositioning.SunriseResult;
@@ -27,6 +30,12 @@ import org.geoname.timezones.DefaultTimezones;
 /** Calculator for sunrise and sunset times for a year. */
 public final class RiseSetUtility {
 
+  /** Horizons for all twilight types, calculated together for each day. */
+  private static final SPA.Horizon[] HORIZONS = SPA.Horizon.values();
+
+  /** Number of days of the year computed together as one parallel task. */
+  private static final int DAYS_PER_RANGE = 32;
+
   /**
    * Calculator for sunrise and sunset times for a year.
    *
@@ -37,6 +46,23 @@ public final class RiseSetUtility {
    */
   public static RiseSetYearData createRiseSetYear(
       final Location location, final int year, final Options options) {
+    return createRiseSetYear(location, year, options, null);
+  }
+
+  /**
+   * Calculator for sunrise and sunset times for a year. If an executor is provided, the year is
+   * split into ranges of days which are calculated in parallel on the executor. The results are
+   * identical to the sequential calculation.
+   *
+   * @param location Location
+   * @param year Year
+   * @param options Options
+   * @param executor Executor for parallel calculation, such as {@link
+   *     java.util.concurrent.ForkJoinPool#commonPool()}, or null to calculate on the calling thread
+   * @return Full years sunset and sunrise times for a location
+   */
+  public static RiseSetYearData createRiseSetYear(
+      final Location location, final int year, final Options options, final Executor executor) {
     final TimeZoneOption timeZoneOption = options.getTimeZoneOption();
     final ZoneId zoneId;
     if (location != null) {
@@ -54,15 +80,33 @@ public final class RiseSetUtility {
     final boolean timeZoneUsesDaylightTime = !zoneId.getRules().getTransitionRules().isEmpty();
     final boolean useDaylightTime =
         timeZoneUsesDaylightTime && timeZoneOption != TimeZoneOption.USE_LOCAL_TIME;
-    boolean wasDaylightSavings = false;
 
     final TwilightType twilight = options.getTwilightType();
     final RiseSetYearData riseSetYear = new RiseSetYearData(location, twilight, year);
     riseSetYear.setUsesDaylightTime(useDaylightTime);
-    for (final LocalDate date : getYearsDates(year)) {
-      final boolean inDaylightSavings =
-          zoneId.getRules().isDaylightSavings(date.atStartOfDay().atZone(zoneId).toInstant());
+
+    final DayRangeCalculator calculator =
+        new DayRangeCalculator(location, zoneId, timeZoneUsesDaylightTime, riseSetYear);
+    final int numberOfDays = riseSetYear.getNumberOfDays();
+    if (executor == null) {
+      calculator.calculate(0, numberOfDays);
+    } else {
+      final List<CompletableFuture<Void>> ranges = new ArrayList<>();
+      for (int fromDay = 0; fromDay < numberOfDays; fromDay = fromDay + DAYS_PER_RANGE) {
+        final int startDay = fromDay;
+        final int endDay = Math.min(fromDay + DAYS_PER_RANGE, numberOfDays);
+        ranges.add(
+            CompletableFuture.runAsync(() -> calculator.calculate(startDay, endDay), executor));
+      }
+      CompletableFuture.allOf(ranges.toArray(new CompletableFuture[0])).join();
+    }
+
+    // Detect daylight savings time transitions in day order
+    boolean wasDaylightSavings = false;
+    for (int dayIndex = 0; dayIndex < numberOfDays; dayIndex++) {
+      final boolean inDaylightSavings = calculator.isInDaylightSavings(dayIndex);
       if (wasDaylightSavings != inDaylightSavings) {
+        final LocalDate date = LocalDate.ofYearDay(year, dayIndex + 1);
         if (!wasDaylightSavings) {
           riseSetYear.setDstStart(date);
         } else {
@@ -70,16 +114,6 @@ public final class RiseSetUtility {
         }
       }
       wasDaylightSavings = inDaylightSavings;
-
-      final RawRiseSet riseSet =
-          calculateRiseSet(location, date, zoneId, inDaylightSavings, TwilightType.NO);
-      riseSetYear.addRiseSet(riseSet);
-
-      if (twilight != null) {
-        final RawRiseSet twilights =
-            calculateRiseSet(location, date, zoneId, inDaylightSavings, twilight);
-        riseSetYear.addTwilight(twilights);
-      }
     }
 
     // Create band for twilight, clock-shift taken into account
@@ -121,13 +155,15 @@ public final class RiseSetUtility {
     DaylightBand baseBand = null;
     DaylightBand wrapBand = null;
 
+    // Walk the days with a sliding window, so that each rise/ set is
+    // only fetched once from the (lazily created) list
+    RiseSet riseSetYesterday = null;
+    RiseSet riseSet = null;
+    RiseSet riseSetTomorrow = riseSetData.isEmpty() ? null : riseSetData.getFirst();
     for (int i = 0; i < riseSetData.size(); i++) {
-      final RiseSet riseSet = riseSetData.get(i);
-      RiseSet riseSetYesterday = null;
-      if (i > 0) {
-        riseSetYesterday = riseSetData.get(i - 1);
-      }
-      RiseSet riseSetTomorrow = null;
+      riseSetYesterday = riseSet;
+      riseSet = riseSetTomorrow;
+      riseSetTomorrow = null;
       if (i < riseSetData.size() - 1) {
         riseSetTomorrow = riseSetData.get(i + 1);
       }
@@ -218,61 +254,6 @@ public final class RiseSetUtility {
     return new RiseSet[] {riseSet};
   }
 
-  private static RawRiseSet calculateRiseSet(
-      final Location location,
-      final LocalDate date,
-      final ZoneId zoneId,
-      final boolean inDaylightSavings,
-      final TwilightType twilight) {
-    final ZonedDateTime dayStart = date.atStartOfDay(zoneId);
-    final double latitude;
-    final double longitude;
-    if (location == null) {
-      latitude = 0D;
-      longitude = 0D;
-    } else {
-      latitude = location.getPointLocation().getLatitude().getDegrees();
-      longitude = location.getPointLocation().getLongitude().getDegrees();
-    }
-    final SunriseResult sunriseResult =
-        SPA.calculateSunriseTransitSet(
-            dayStart, latitude, longitude, DeltaT.estimate(date), toHorizon(twilight));
-
-    final boolean usesDaylightSavings = !zoneId.getRules().getTransitionRules().isEmpty();
-    if (sunriseResult instanceof final SunriseResult.RegularDay regularDay) {
-      return new RawRiseSet(
-          location,
-          date,
-          usesDaylightSavings && inDaylightSavings,
-          toHour(dayStart, regularDay.sunrise()),
-          toHour(dayStart, regularDay.sunset()));
-    }
-    if (sunriseResult instanceof SunriseResult.AllDay) {
-      return new RawRiseSet(
-          location,
-          date,
-          usesDaylightSavings && inDaylightSavings,
-          Double.POSITIVE_INFINITY,
-          Double.POSITIVE_INFINITY);
-    }
-    return new RawRiseSet(
-        location,
-        date,
-        usesDaylightSavings && inDaylightSavings,
-        Double.NEGATIVE_INFINITY,
-        Double.NEGATIVE_INFINITY);
-  }
-
-  private static List<LocalDate> getYearsDates(final int year) {
-    final List<LocalDate> dates = new ArrayList<>();
-    LocalDate date = LocalDate.of(year, 1, 1);
-    do {
-      dates.add(date);
-      date = date.plusDays(1);
-    } while (!(date.getMonthValue() == 1 && date.getDayOfMonth() == 1));
-    return dates;
-  }
-
   private static SPA.Horizon toHorizon(final TwilightType twilight) {
     if (twilight == null || twilight == TwilightType.NO) {
       return SPA.Horizon.SUNRISE_SUNSET;
@@ -285,8 +266,99 @@ public final class RiseSetUtility {
     };
   }
 
-  private static double toHour(final ZonedDateTime dayStart, final ZonedDateTime eventTime) {
-    return Duration.between(dayStart, eventTime).getSeconds() / 3600D;
+  private static int toSeconds(final ZonedDateTime dayStart, final ZonedDateTime eventTime) {
+    return (int) Duration.between(dayStart, eventTime).getSeconds();
+  }
+
+  private static int toSunriseSeconds(
+      final ZonedDateTime dayStart, final SunriseResult sunriseResult) {
+    if (sunriseResult instanceof final SunriseResult.RegularDay regularDay) {
+      return toSeconds(dayStart, regularDay.sunrise());
+    }
+    if (sunriseResult instanceof SunriseResult.AllDay) {
+      return RiseSet.ALL_DAYLIGHT;
+    }
+    return RiseSet.ALL_NIGHTTIME;
+  }
+
+  private static int toSunsetSeconds(
+      final ZonedDateTime dayStart, final SunriseResult sunriseResult) {
+    if (sunriseResult instanceof final SunriseResult.RegularDay regularDay) {
+      return toSeconds(dayStart, regularDay.sunset());
+    }
+    if (sunriseResult instanceof SunriseResult.AllDay) {
+      return RiseSet.ALL_DAYLIGHT;
+    }
+    return RiseSet.ALL_NIGHTTIME;
+  }
+
+  /**
+   * Calculates rise and set times for ranges of days of a year. Each range writes only to its own
+   * day indices, so disjoint ranges can be calculated concurrently.
+   */
+  private static final class DayRangeCalculator {
+
+    private final ZoneId zoneId;
+    private final boolean timeZoneUsesDaylightTime;
+    private final double latitude;
+    private final double longitude;
+    private final RiseSetYearData riseSetYear;
+    private final boolean[] inDaylightSavings;
+
+    DayRangeCalculator(
+        final Location location,
+        final ZoneId zoneId,
+        final boolean timeZoneUsesDaylightTime,
+        final RiseSetYearData riseSetYear) {
+      this.zoneId = zoneId;
+      this.timeZoneUsesDaylightTime = timeZoneUsesDaylightTime;
+      if (location == null) {
+        latitude = 0D;
+        longitude = 0D;
+      } else {
+        latitude = location.getPointLocation().getLatitude().getDegrees();
+        longitude = location.getPointLocation().getLongitude().getDegrees();
+      }
+      this.riseSetYear = riseSetYear;
+      inDaylightSavings = new boolean[riseSetYear.getNumberOfDays()];
+    }
+
+    /**
+     * Calculates rise and set times for a range of days.
+     *
+     * @param fromDayIndex First day index, inclusive
+     * @param toDayIndex Last day index, exclusive
+     */
+    void calculate(final int fromDayIndex, final int toDayIndex) {
+      final int year = riseSetYear.getYear();
+      for (int dayIndex = fromDayIndex; dayIndex < toDayIndex; dayIndex++) {
+        final LocalDate date = LocalDate.ofYearDay(year, dayIndex + 1);
+        final ZonedDateTime dayStart = date.atStartOfDay(zoneId);
+        inDaylightSavings[dayIndex] =
+            zoneId.getRules().isDaylightSavings(date.atStartOfDay().atZone(zoneId).toInstant());
+
+        riseSetYear.setInDaylightSavings(
+            dayIndex, timeZoneUsesDaylightTime && inDaylightSavings[dayIndex]);
+
+        // Calculate for all twilight types at once, sharing the solar
+        // position terms
+        final Map<SPA.Horizon, SunriseResult> riseSets =
+            SPA.calculateSunriseTransitSet(
+                dayStart, latitude, longitude, DeltaT.estimate(date), HORIZONS);
+        for (final TwilightType twilight : TwilightType.values()) {
+          final SunriseResult riseSet = riseSets.get(toHorizon(twilight));
+          riseSetYear.setRiseSet(
+              dayIndex,
+              twilight,
+              toSunriseSeconds(dayStart, riseSet),
+              toSunsetSeconds(dayStart, riseSet));
+        }
+      }
+    }
+
+    boolean isInDaylightSavings(final int dayIndex) {
+      return inDaylightSavings[dayIndex];
+    }
   }
 
   private RiseSetUtility() {
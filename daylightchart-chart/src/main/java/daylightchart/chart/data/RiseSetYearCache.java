@@ -0,0 +1,256 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart.data;
+
+import daylightchart.options.Options;
+import daylightchart.options.TimeZoneOption;
+import daylightchart.options.TwilightType;
+import java.time.zone.ZoneRulesProvider;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoname.data.Location;
+
+/**
+ * Bounded, least-recently-used cache of calculated years of sunrise and sunset times. Entries are
+ * evicted when either the number of entries or their total weight exceeds the limits. The weight of
+ * an entry is the number of rise/ set records it holds. The time zone database version is checked
+ * on every miss, before a year is calculated, so that the cache is cleared once time zone rules are
+ * refreshed; {@link #checkTzdbVersion()} checks it right away.
+ */
+public final class RiseSetYearCache {
+
+  /**
+   * Cache statistics.
+   *
+   * @param hits Number of lookups answered from the cache
+   * @param misses Number of lookups that needed a calculation
+   * @param evictions Number of entries evicted to stay within the limits
+   * @param size Number of entries in the cache
+   * @param weight Total weight of the entries in the cache
+   */
+  public record Statistics(long hits, long misses, long evictions, int size, long weight) {}
+
+  private record Key(
+      String deduplicationKey,
+      double latitude,
+      double longitude,
+      String timeZoneId,
+      int year,
+      TimeZoneOption timeZoneOption,
+      TwilightType twilight) {
+
+    Key withTwilight(final TwilightType twilight) {
+      return new Key(
+          deduplicationKey, latitude, longitude, timeZoneId, year, timeZoneOption, twilight);
+    }
+  }
+
+  private static final Logger LOGGER = Logger.getLogger(RiseSetYearCache.class.getName());
+
+  /** Default maximum number of entries. */
+  public static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+
+  /** Default maximum total weight, roughly a few years worth of records per entry. */
+  public static final long DEFAULT_MAXIMUM_WEIGHT = DEFAULT_MAXIMUM_SIZE * 366L * 4;
+
+  private static final String TZDB_ZONE_ID = "Etc/UTC";
+
+  private static final RiseSetYearCache RISE_SET_YEAR_CACHE =
+      new RiseSetYearCache(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_WEIGHT);
+
+  /**
+   * Shared cache, with the default limits, for charts and reports.
+   *
+   * @return Shared cache
+   */
+  public static RiseSetYearCache riseSetYears() {
+    return RISE_SET_YEAR_CACHE;
+  }
+
+  private static String currentTzdbVersion() {
+    try {
+      return ZoneRulesProvider.getVersions(TZDB_ZONE_ID).lastKey();
+    } catch (final RuntimeException e) {
+      LOGGER.log(Level.FINE, "Could not get time zone database version", e);
+      return "";
+    }
+  }
+
+  private static int weigh(final RiseSetYearData riseSetYear) {
+    int weight = riseSetYear.getNumberOfDays();
+    for (final DaylightBand band : riseSetYear.getBands()) {
+      weight = weight + band.size();
+    }
+    return weight;
+  }
+
+  private final int maximumSize;
+  private final long maximumWeight;
+  private final LinkedHashMap<Key, RiseSetYearData> cache;
+  private final Map<Key, Integer> weights;
+  private String tzdbVersion;
+  private long weight;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Constructor.
+   *
+   * @param maximumSize Maximum number of entries
+   * @param maximumWeight Maximum total weight of all entries
+   */
+  public RiseSetYearCache(final int maximumSize, final long maximumWeight) {
+    if (maximumSize < 0 || maximumWeight < 0) {
+      throw new IllegalArgumentException("Cache limits must not be negative");
+    }
+    this.maximumSize = maximumSize;
+    this.maximumWeight = maximumWeight;
+    cache = new LinkedHashMap<>(16, 0.75f, true);
+    weights = new HashMap<>();
+    tzdbVersion = currentTzdbVersion();
+  }
+
+  /**
+   * Gets sunrise and sunset times for a year, calculating them only if they are not cached.
+   *
+   * @param location Location
+   * @param year Year
+   * @param options Options
+   * @return Full years sunset and sunrise times for a location
+   */
+  public RiseSetYearData get(final Location location, final int year, final Options options) {
+    return get(location, year, options, null);
+  }
+
+  /**
+   * Gets sunrise and sunset times for a year, calculating them only if they are not cached.
+   *
+   * @param location Location
+   * @param year Year
+   * @param options Options
+   * @param executor Executor for parallel calculation, or null to calculate on the calling thread
+   * @return Full years sunset and sunrise times for a location
+   */
+  public RiseSetYearData get(
+      final Location location, final int year, final Options options, final Executor executor) {
+    if (location == null || options == null) {
+      return RiseSetUtility.createRiseSetYear(location, year, options, executor);
+    }
+
+    final Key key =
+        new Key(
+            location.deduplicationKey(),
+            location.getPointLocation().getLatitude().getDegrees(),
+            location.getPointLocation().getLongitude().getDegrees(),
+            location.getTimeZoneId(),
+            year,
+            options.getTimeZoneOption(),
+            options.getTwilightType());
+
+    final RiseSetYearData cached = lookup(key);
+    if (cached != null) {
+      return cached;
+    }
+    // A calculation costs far more than reading the version, so a miss is a cheap place to notice
+    // refreshed time zone rules
+    checkTzdbVersion();
+
+    final RiseSetYearData riseSetYear =
+        RiseSetUtility.createRiseSetYear(location, year, options, executor);
+    put(key, riseSetYear);
+    return riseSetYear;
+  }
+
+  /**
+   * Gets cache statistics.
+   *
+   * @return Cache statistics
+   */
+  public synchronized Statistics getStatistics() {
+    return new Statistics(hits, misses, evictions, cache.size(), weight);
+  }
+
+  /**
+   * Clears the cache if the time zone database version changed since the cache was created, or
+   * since the last check. Call this after refreshing time zone rules, such as with {@link
+   * ZoneRulesProvider#refresh()}.
+   *
+   * @return true if the version changed, and the cache was cleared
+   */
+  public synchronized boolean checkTzdbVersion() {
+    final String currentTzdbVersion = currentTzdbVersion();
+    if (currentTzdbVersion.equals(tzdbVersion)) {
+      return false;
+    }
+    LOGGER.log(
+        Level.CONFIG,
+        "Time zone database changed from {0} to {1}, clearing cache",
+        new Object[] {tzdbVersion, currentTzdbVersion});
+    tzdbVersion = currentTzdbVersion;
+    invalidateAll();
+    return true;
+  }
+
+  /** Removes all entries from the cache. */
+  public synchronized void invalidateAll() {
+    cache.clear();
+    weights.clear();
+    weight = 0;
+  }
+
+  private synchronized RiseSetYearData lookup(final Key key) {
+    final RiseSetYearData cached = cache.get(key);
+    if (cached != null) {
+      hits++;
+      return cached;
+    }
+
+    // The same year with a different twilight type is just as good,
+    // since all twilight types are calculated together
+    for (final TwilightType twilight : TwilightType.values()) {
+      final RiseSetYearData sibling = cache.get(key.withTwilight(twilight));
+      if (sibling != null) {
+        hits++;
+        final RiseSetYearData riseSetYear = sibling.withTwilight(key.twilight());
+        put(key, riseSetYear);
+        return riseSetYear;
+      }
+    }
+
+    misses++;
+    return null;
+  }
+
+  private synchronized void put(final Key key, final RiseSetYearData riseSetYear) {
+    final int entryWeight = weigh(riseSetYear);
+    if (entryWeight > maximumWeight) {
+      return;
+    }
+
+    if (cache.put(key, riseSetYear) != null) {
+      weight = weight - weights.get(key);
+    }
+    weights.put(key, entryWeight);
+    weight = weight + entryWeight;
+
+    final Iterator<Map.Entry<Key, RiseSetYearData>> iterator = cache.entrySet().iterator();
+    while ((cache.size() > maximumSize || weight > maximumWeight) && iterator.hasNext()) {
+      final Key eldestKey = iterator.next().getKey();
+      iterator.remove();
+      weight = weight - weights.remove(eldestKey);
+      evictions++;
+    }
+  }
+}
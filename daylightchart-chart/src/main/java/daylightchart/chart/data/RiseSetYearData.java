@@ -12,12 +12,18 @@ import daylightchart.options.TwilightType;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.Year;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import org.geoname.data.Location;
 
-/** A full year's sunrise and sunset times for a location. */
+/**
+ * A full year's sunrise and sunset times for a location. Raw event times are held in columns
+ * indexed by the day of the year (starting at zero), as seconds from the start of the day. {@link
+ * RiseSet} objects are only created when they are asked for. Times are held for every twilight
+ * type, so that the data can be switched to a different twilight type without recalculation.
+ */
 public final class RiseSetYearData implements Serializable {
 
   @Serial private static final long serialVersionUID = -7055404819725658424L;
@@ -28,16 +34,37 @@ public final class RiseSetYearData implements Serializable {
   private LocalDate dstStart;
   private LocalDate dstEnd;
   private final TwilightType twilight;
-  private final List<RawRiseSet> riseSets;
-  private final List<RawRiseSet> twilights;
+  private final int numberOfDays;
+  private final boolean[] inDaylightSavings;
+  // Rise and set times, indexed by twilight type ordinal, and then by
+  // day index - sunrise and sunset are held under TwilightType.NO
+  private final int[][] rises;
+  private final int[][] sets;
   private final List<DaylightBand> bands;
 
   RiseSetYearData(final Location location, final TwilightType twilight, final int year) {
     this.location = location;
     this.year = year;
     this.twilight = twilight;
-    riseSets = new ArrayList<>();
-    twilights = new ArrayList<>();
+    numberOfDays = Year.of(year).length();
+    inDaylightSavings = new boolean[numberOfDays];
+    final int numberOfTwilightTypes = TwilightType.values().length;
+    rises = new int[numberOfTwilightTypes][numberOfDays];
+    sets = new int[numberOfTwilightTypes][numberOfDays];
+    bands = new ArrayList<>();
+  }
+
+  private RiseSetYearData(final RiseSetYearData riseSetYear, final TwilightType twilight) {
+    location = riseSetYear.location;
+    year = riseSetYear.year;
+    usesDaylightTime = riseSetYear.usesDaylightTime;
+    dstStart = riseSetYear.dstStart;
+    dstEnd = riseSetYear.dstEnd;
+    this.twilight = twilight;
+    numberOfDays = riseSetYear.numberOfDays;
+    inDaylightSavings = riseSetYear.inDaylightSavings;
+    rises = riseSetYear.rises;
+    sets = riseSetYear.sets;
     bands = new ArrayList<>();
   }
 
@@ -89,15 +116,20 @@ public final class RiseSetYearData implements Serializable {
    * @return Sunrise and sunset data for the year
    */
   public List<RiseSetData> getRiseSetData() {
-    final List<RiseSetData> riseSetData = new ArrayList<>();
-    final List<RiseSet> riseSets = getRiseSets(true);
-    final List<RiseSet> twilights = getTwilights();
-    for (int i = 0; i < riseSets.size(); i++) {
-      final RiseSet riseSet = riseSets.get(i);
-      final RiseSet twilight = twilights.get(i);
-      riseSetData.add(new RiseSetData(riseSet, twilight));
-    }
-    return riseSetData;
+    return new AbstractList<>() {
+
+      @Override
+      public RiseSetData get(final int dayIndex) {
+        final RiseSet riseSet = getRiseSet(dayIndex);
+        final RiseSet twilight = hasTwilight() ? getTwilight(dayIndex) : riseSet;
+        return new RiseSetData(riseSet, twilight);
+      }
+
+      @Override
+      public int size() {
+        return numberOfDays;
+      }
+    };
   }
 
   /**
@@ -127,56 +159,98 @@ public final class RiseSetYearData implements Serializable {
     return usesDaylightTime;
   }
 
-  void addDaylightBands(final List<DaylightBand> bands) {
-    this.bands.addAll(bands);
+  /**
+   * Gets the same sunrise and sunset data for the year, with twilight times for another twilight
+   * type. The data is shared, and only the twilight bands are rebuilt.
+   *
+   * @param twilight Twilight type
+   * @return Sunrise and sunset data for the year, with the requested twilight
+   */
+  public RiseSetYearData withTwilight(final TwilightType twilight) {
+    if (twilight == this.twilight) {
+      return this;
+    }
+    final RiseSetYearData riseSetYear = new RiseSetYearData(this, twilight);
+    RiseSetUtility.createBands(riseSetYear, DaylightBandType.twilight);
+    for (final DaylightBand band : bands) {
+      if (band.getDaylightBandType() != DaylightBandType.twilight) {
+        riseSetYear.bands.add(band);
+      }
+    }
+    return riseSetYear;
   }
 
-  void addRiseSet(final RawRiseSet riseSet) {
-    riseSets.add(riseSet);
+  void addDaylightBands(final List<DaylightBand> bands) {
+    this.bands.addAll(bands);
   }
 
-  void addTwilight(final RawRiseSet riseSet) {
-    twilights.add(riseSet);
+  /**
+   * Number of days in the year.
+   *
+   * @return Number of days
+   */
+  int getNumberOfDays() {
+    return numberOfDays;
   }
 
   /**
-   * Gets a list of rise/ set timings.
+   * Gets a list of rise/ set timings. The list is a view over the raw data, and rise/ set objects
+   * are created as elements are accessed.
    *
    * @param adjustedForDaylightSavings Whether the times need to be adjusted for daylight savings
    *     time
    * @return List of rise/ set timings.
    */
   List<RiseSet> getRiseSets(final boolean adjustedForDaylightSavings) {
-    List<RiseSet> copiedRiseSets;
-    if (!adjustedForDaylightSavings) {
-      copiedRiseSets = new ArrayList<>();
-      for (final RawRiseSet riseSetTuple : riseSets) {
-        final RiseSet riseSet = new RiseSet(riseSetTuple);
-        copiedRiseSets.add(riseSet.withAdjustmentForDaylightSavings(adjustedForDaylightSavings));
+    return new AbstractList<>() {
+
+      @Override
+      public RiseSet get(final int dayIndex) {
+        return getRiseSet(dayIndex).withAdjustmentForDaylightSavings(adjustedForDaylightSavings);
       }
-    } else {
-      copiedRiseSets = new ArrayList<>();
-      for (final RawRiseSet riseSetTuple : riseSets) {
-        final RiseSet riseSet = new RiseSet(riseSetTuple);
-        copiedRiseSets.add(riseSet);
+
+      @Override
+      public int size() {
+        return numberOfDays;
       }
-    }
-    return Collections.unmodifiableList(copiedRiseSets);
+    };
   }
 
   /**
-   * Gets a list of twilight timings.
+   * Gets a list of twilight timings. The list is a view over the raw data, and rise/ set objects
+   * are created as elements are accessed.
    *
    * @return List of rise/ set timings.
    */
   List<RiseSet> getTwilights() {
-    List<RiseSet> copiedRiseSets;
-    copiedRiseSets = new ArrayList<>();
-    for (final RawRiseSet riseSetTuple : twilights) {
-      final RiseSet riseSet = new RiseSet(riseSetTuple);
-      copiedRiseSets.add(riseSet);
+    if (!hasTwilight()) {
+      return List.of();
     }
-    return Collections.unmodifiableList(copiedRiseSets);
+    return new AbstractList<>() {
+
+      @Override
+      public RiseSet get(final int dayIndex) {
+        return getTwilight(dayIndex);
+      }
+
+      @Override
+      public int size() {
+        return numberOfDays;
+      }
+    };
+  }
+
+  void setInDaylightSavings(final int dayIndex, final boolean inDaylightSavings) {
+    this.inDaylightSavings[dayIndex] = inDaylightSavings;
+  }
+
+  void setRiseSet(
+      final int dayIndex,
+      final TwilightType twilight,
+      final int riseSeconds,
+      final int setSeconds) {
+    rises[twilight.ordinal()][dayIndex] = riseSeconds;
+    sets[twilight.ordinal()][dayIndex] = setSeconds;
   }
 
   void setDstEnd(final LocalDate dstEnd) {
@@ -190,4 +264,29 @@ public final class RiseSetYearData implements Serializable {
   void setUsesDaylightTime(final boolean usesDaylightTime) {
     this.usesDaylightTime = usesDaylightTime;
   }
+
+  private LocalDate getDate(final int dayIndex) {
+    return LocalDate.ofYearDay(year, dayIndex + 1);
+  }
+
+  private RiseSet getRiseSet(final int dayIndex) {
+    return getRiseSet(dayIndex, TwilightType.NO);
+  }
+
+  private RiseSet getRiseSet(final int dayIndex, final TwilightType twilight) {
+    return new RiseSet(
+        location,
+        getDate(dayIndex),
+        inDaylightSavings[dayIndex],
+        rises[twilight.ordinal()][dayIndex],
+        sets[twilight.ordinal()][dayIndex]);
+  }
+
+  private RiseSet getTwilight(final int dayIndex) {
+    return getRiseSet(dayIndex, twilight);
+  }
+
+  private boolean hasTwilight() {
+    return twilight != null;
+  }
 }
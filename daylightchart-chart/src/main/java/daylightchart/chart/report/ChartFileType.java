@@ -15,7 +15,9 @@ public enum ChartFileType implements FileType {
   /** Portable Network Graphics */
   png("Portable Network Graphics", ".png"),
   /** JPEG */
-  jpg("JPEG", ".jpg");
+  jpg("JPEG", ".jpg"),
+  /** Scalable Vector Graphics */
+  svg("Scalable Vector Graphics", ".svg");
 
   private final String description;
   private final String fileExtension;
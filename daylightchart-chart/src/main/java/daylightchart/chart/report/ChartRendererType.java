@@ -0,0 +1,42 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart.report;
+
+/** Renderer used to draw a chart image. */
+public enum ChartRendererType {
+  /** JFreeChart, using pooled chart templates */
+  jfreechart("JFreeChart"),
+  /** Direct Java2D painting, without JFreeChart */
+  fast("Fast");
+
+  private final String description;
+
+  ChartRendererType(final String description) {
+    this.description = description;
+  }
+
+  /**
+   * Description of the renderer.
+   *
+   * @return Description
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see java.lang.Enum#toString()
+   */
+  @Override
+  public String toString() {
+    return description;
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart.report;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Palette of up to 256 ARGB colors for an indexed-color image. Daylight charts use a handful of
+ * flat colors, plus anti-aliasing ramps between them, so an image with more than 256 colors is
+ * quantized by popularity: the most frequent colors that are distinct from each other are kept, and
+ * every other color maps to its nearest palette entry. If there are too many colors to count
+ * exactly, they are counted in buckets of similar colors, with the same alpha, and each bucket is
+ * represented by the first color seen in it.
+ *
+ * <p>Translucent entries are kept at the start of the palette, so that the transparency table is as
+ * short as possible. A palette is not thread-safe, since color lookups are memoized.
+ */
+public final class ColorPalette {
+
+  /** Maximum number of colors in a palette. */
+  public static final int MAXIMUM_SIZE = 256;
+
+  private static final int MAXIMUM_DISTINCT_COLORS = 1 << 16;
+  private static final int REDUCED_PRECISION_MASK = 0xFFF8F8F8;
+  private static final int DISTINCT_COLOR_DISTANCE = 3 * 24 * 24;
+
+  /**
+   * Creates a palette for an image, quantizing the image colors if there are too many.
+   *
+   * @param image Image
+   * @return Palette
+   */
+  public static ColorPalette quantize(final BufferedImage image) {
+    int mask = 0xFFFFFFFF;
+    ColorIndex histogram = histogram(image, mask);
+    if (histogram == null) {
+      // Too many colors for an exact histogram, so count them at a lower precision
+      mask = REDUCED_PRECISION_MASK;
+      histogram = histogram(image, mask);
+    }
+    return new ColorPalette(histogram, mask);
+  }
+
+  private static int distance(final int color1, final int color2) {
+    final int da = (color1 >>> 24) - (color2 >>> 24);
+    final int dr = (color1 >> 16 & 0xFF) - (color2 >> 16 & 0xFF);
+    final int dg = (color1 >> 8 & 0xFF) - (color2 >> 8 & 0xFF);
+    final int db = (color1 & 0xFF) - (color2 & 0xFF);
+    return da * da + dr * dr + dg * dg + db * db;
+  }
+
+  private static ColorIndex histogram(final BufferedImage image, final int mask) {
+    final int width = image.getWidth();
+    final int[] row = new int[width];
+    final ColorIndex histogram = new ColorIndex();
+    for (int y = 0; y < image.getHeight(); y++) {
+      image.getRGB(0, y, width, 1, row, 0, width);
+      for (final int argb : row) {
+        histogram.increment(argb & mask, argb);
+      }
+      if (mask == 0xFFFFFFFF && histogram.size() > MAXIMUM_DISTINCT_COLORS) {
+        return null;
+      }
+    }
+    return histogram;
+  }
+
+  private final int[] colors;
+  private final int mask;
+  private final ColorIndex indexes;
+
+  private ColorPalette(final ColorIndex histogram, final int mask) {
+    this.mask = mask;
+
+    // Sort distinct colors, most frequent first
+    final int distinctColors = histogram.size();
+    final long[] byCount = new long[distinctColors];
+    int n = 0;
+    for (int slot = 0; slot < histogram.capacity(); slot++) {
+      if (histogram.isUsed(slot)) {
+        byCount[n++] = (long) histogram.valueAt(slot) << 32 | histogram.firstAt(slot) & 0xFFFFFFFFL;
+      }
+    }
+    Arrays.sort(byCount);
+
+    final int[] selected = new int[Math.min(distinctColors, MAXIMUM_SIZE)];
+    int size = 0;
+    if (distinctColors <= MAXIMUM_SIZE) {
+      for (final long entry : byCount) {
+        selected[size++] = (int) entry;
+      }
+    } else {
+      // First keep frequent colors that are distinct from each other, then fill the rest of the
+      // palette with the most frequent colors that are left
+      final boolean[] taken = new boolean[distinctColors];
+      for (int pass = 0; pass < 2 && size < MAXIMUM_SIZE; pass++) {
+        for (int i = distinctColors - 1; i >= 0 && size < MAXIMUM_SIZE; i--) {
+          if (taken[i]) {
+            continue;
+          }
+          final int color = (int) byCount[i];
+          if (pass == 0 && nearestDistance(selected, size, color) < DISTINCT_COLOR_DISTANCE) {
+            continue;
+          }
+          taken[i] = true;
+          selected[size++] = color;
+        }
+      }
+    }
+
+    // Translucent colors first, for a short transparency table
+    final long[] byAlpha = new long[size];
+    for (int i = 0; i < size; i++) {
+      byAlpha[i] = (long) (selected[i] >>> 24) << 32 | selected[i] & 0xFFFFFFFFL;
+    }
+    Arrays.sort(byAlpha);
+    colors = new int[size];
+    for (int i = 0; i < size; i++) {
+      colors[i] = (int) byAlpha[i];
+    }
+
+    indexes = new ColorIndex();
+    for (int i = 0; i < colors.length; i++) {
+      indexes.put(colors[i] & mask, i);
+    }
+  }
+
+  /**
+   * Gets a palette color.
+   *
+   * @param index Palette index
+   * @return ARGB color
+   */
+  public int getColor(final int index) {
+    return colors[index];
+  }
+
+  /**
+   * Gets the palette index for a color, which is the nearest palette color if the color is not in
+   * the palette.
+   *
+   * @param argb ARGB color
+   * @return Palette index
+   */
+  public int indexOf(final int argb) {
+    final int color = argb & mask;
+    int index = indexes.get(color);
+    if (index < 0) {
+      index = nearestIndex(color);
+      indexes.put(color, index);
+    }
+    return index;
+  }
+
+  /**
+   * Number of translucent colors at the start of the palette.
+   *
+   * @return Number of colors with an alpha less than 255
+   */
+  public int getTranslucentSize() {
+    int translucentSize = 0;
+    while (translucentSize < colors.length && colors[translucentSize] >>> 24 < 0xFF) {
+      translucentSize++;
+    }
+    return translucentSize;
+  }
+
+  /**
+   * Number of colors in the palette.
+   *
+   * @return Palette size
+   */
+  public int size() {
+    return colors.length;
+  }
+
+  private int nearestDistance(final int[] candidates, final int size, final int color) {
+    int nearest = Integer.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      nearest = Math.min(nearest, distance(candidates[i], color));
+    }
+    return nearest;
+  }
+
+  private int nearestIndex(final int color) {
+    int nearestIndex = 0;
+    int nearest = Integer.MAX_VALUE;
+    for (int i = 0; i < colors.length; i++) {
+      final int distance = distance(colors[i], color);
+      if (distance < nearest) {
+        nearest = distance;
+        nearestIndex = i;
+      }
+    }
+    return nearestIndex;
+  }
+
+  /**
+   * Open-addressing hash map from an ARGB color to a non-negative int. For a histogram, the first
+   * full-precision color counted for each key is also kept.
+   */
+  private static final class ColorIndex {
+
+    private int[] keys = new int[1024];
+    private int[] values = newValues(1024);
+    private int[] firsts = new int[1024];
+    private int size;
+
+    private static int[] newValues(final int capacity) {
+      final int[] values = new int[capacity];
+      Arrays.fill(values, -1);
+      return values;
+    }
+
+    int capacity() {
+      return keys.length;
+    }
+
+    int get(final int key) {
+      return values[slot(key)];
+    }
+
+    int firstAt(final int slot) {
+      return firsts[slot];
+    }
+
+    void increment(final int key, final int color) {
+      final int slot = slot(key);
+      if (values[slot] < 0) {
+        firsts[slot] = color;
+        insert(slot, key, 1);
+      } else {
+        values[slot]++;
+      }
+    }
+
+    boolean isUsed(final int slot) {
+      return values[slot] >= 0;
+    }
+
+    void put(final int key, final int value) {
+      final int slot = slot(key);
+      if (values[slot] < 0) {
+        firsts[slot] = key;
+        insert(slot, key, value);
+      } else {
+        values[slot] = value;
+      }
+    }
+
+    int size() {
+      return size;
+    }
+
+    int valueAt(final int slot) {
+      return values[slot];
+    }
+
+    private void insert(final int slot, final int key, final int value) {
+      keys[slot] = key;
+      values[slot] = value;
+      size++;
+      if (size * 2 > keys.length) {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        final int[] oldFirsts = firsts;
+        keys = new int[oldKeys.length * 2];
+        values = newValues(oldKeys.length * 2);
+        firsts = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+          if (oldValues[i] >= 0) {
+            final int newSlot = slot(oldKeys[i]);
+            keys[newSlot] = oldKeys[i];
+            values[newSlot] = oldValues[i];
+            firsts[newSlot] = oldFirsts[i];
+          }
+        }
+      }
+    }
+
+    private int slot(final int key) {
+      final int mask = keys.length - 1;
+      int slot = key * 0x9E3779B9 >>> 7 & mask;
+      while (values[slot] >= 0 && keys[slot] != key) {
+        slot = slot + 1 & mask;
+      }
+      return slot;
+    }
+  }
+}
@@ -9,19 +9,30 @@
 package daylightchart.chart.report;
 
 import daylightchart.chart.DaylightChart;
-import daylightchart.chart.data.RiseSetUtility;
+import daylightchart.chart.DaylightChartPainter;
+import daylightchart.chart.DaylightChartTemplates;
+import daylightchart.chart.data.RiseSetYearCache;
 import daylightchart.chart.data.RiseSetYearData;
 import daylightchart.chart.options.ChartOptions;
 import daylightchart.chart.options.ChartOptionsService;
 import daylightchart.options.Options;
 import daylightchart.options.persistence.FileType;
-import java.io.File;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoname.data.Location;
@@ -34,8 +45,41 @@ public class DaylightChartReport {
 
   private static final ChartOptionsService CHART_OPTIONS_SERVICE = new ChartOptionsService();
 
+  /** Default width of a report file, for A4 landscape paper at 72 dots per inch. */
+  public static final int DEFAULT_WIDTH = 842;
+
+  /** Default height of a report file, for A4 landscape paper at 72 dots per inch. */
+  public static final int DEFAULT_HEIGHT = 595;
+
+  /**
+   * Images larger than this number of pixels are rendered in horizontal strips of about this size,
+   * to bound the memory used for poster-size images.
+   */
+  private static final int STRIP_PIXELS = 4 * 1024 * 1024;
+
+  /** Width of the reduced image that the palette of a striped image is taken from. */
+  private static final int PALETTE_PREVIEW_WIDTH = 1024;
+
+  /**
+   * Whether a PNG image of a given size is drawn in horizontal strips, by the fast renderer.
+   *
+   * @param width Image width.
+   * @param height Image height.
+   * @return True for poster-size images
+   * @throws IllegalArgumentException If the width or height is not positive
+   */
+  public static boolean isDrawnInStrips(final int width, final int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Image width and height must be positive");
+    }
+    return height > Math.max(1, STRIP_PIXELS / width);
+  }
+
   private final Location location;
-  private final DaylightChart chart;
+  private final Options options;
+  private final ChartOptions chartOptions;
+  private final RiseSetYearData riseSetData;
+  private DaylightChart chart;
 
   /**
    * Constructor.
@@ -46,23 +90,42 @@ public class DaylightChartReport {
    */
   public DaylightChartReport(
       final Location location, final Options options, final ChartOptions chartOptions) {
+    this(location, options, chartOptions, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param location Location for the report.
+   * @param options Report options.
+   * @param chartOptions Chart options.
+   * @param executor Executor to calculate rise and set times in parallel, or null to calculate on
+   *     the calling thread.
+   */
+  public DaylightChartReport(
+      final Location location,
+      final Options options,
+      final ChartOptions chartOptions,
+      final Executor executor) {
     this.location = location;
-    final Options effectiveOptions = options == null ? new Options() : options;
-    final ChartOptions effectiveChartOptions =
+    this.options = options == null ? new Options() : options;
+    this.chartOptions =
         chartOptions == null ? CHART_OPTIONS_SERVICE.createDefaultChartOptions() : chartOptions;
 
     final int year = Year.now().getValue();
-    final RiseSetYearData riseSetData =
-        RiseSetUtility.createRiseSetYear(location, year, effectiveOptions);
-    chart = new DaylightChart(riseSetData, effectiveOptions, effectiveChartOptions);
+    riseSetData = RiseSetYearCache.riseSetYears().get(location, year, this.options, executor);
   }
 
   /**
-   * Daylight Chart chart.
+   * Daylight Chart chart. The chart is created the first time it is asked for, and belongs to this
+   * report.
    *
    * @return Chart
    */
-  public DaylightChart getChart() {
+  public synchronized DaylightChart getChart() {
+    if (chart == null) {
+      chart = new DaylightChart(riseSetData, options, chartOptions);
+    }
     return chart;
   }
 
@@ -103,6 +166,38 @@ public class DaylightChartReport {
    * @param chartFileType Type of chart file.
    */
   public void write(final Path file, final ChartFileType chartFileType) {
+    write(file, chartFileType, ChartRendererType.jfreechart);
+  }
+
+  /**
+   * Write the Daylight Chart report to a file, at the default size.
+   *
+   * @param file File to write to.
+   * @param chartFileType Type of chart file.
+   * @param chartRendererType Renderer for raster chart images.
+   */
+  public void write(
+      final Path file,
+      final ChartFileType chartFileType,
+      final ChartRendererType chartRendererType) {
+    write(file, chartFileType, chartRendererType, DEFAULT_WIDTH, DEFAULT_HEIGHT);
+  }
+
+  /**
+   * Write the Daylight Chart report to a file.
+   *
+   * @param file File to write to.
+   * @param chartFileType Type of chart file.
+   * @param chartRendererType Renderer for raster chart images.
+   * @param width Chart width. PNG images of any size are rendered in strips, with bounded memory.
+   * @param height Chart height.
+   */
+  public void write(
+      final Path file,
+      final ChartFileType chartFileType,
+      final ChartRendererType chartRendererType,
+      final int width,
+      final int height) {
     if (chartFileType == null) {
       LOGGER.warning("Cannot write report file, since no chart file type was specified");
       return;
@@ -112,15 +207,173 @@ public class DaylightChartReport {
       return;
     }
 
-    try {
-      final File chartFile = file.toAbsolutePath().toFile();
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
       switch (chartFileType) {
-        case png -> ChartUtils.saveChartAsPNG(chartFile, chart, 842, 595);
-        case jpg -> ChartUtils.saveChartAsJPEG(chartFile, chart, 842, 595);
+        case png -> writeChartAsPNG(out, width, height, chartRendererType);
+        case jpg ->
+            ChartUtils.writeBufferedImageAsJPEG(
+                out,
+                createBufferedImage(width, height, chartRendererType, BufferedImage.TYPE_INT_RGB));
+        case svg -> writeChartAsSVG(out, width, height);
         default -> throw new IllegalArgumentException("Unknown chart file type");
       }
     } catch (final IOException e) {
       LOGGER.log(Level.WARNING, "Error generating a report of type " + chartFileType, e);
     }
   }
+
+  /**
+   * Write the Daylight Chart report as a PNG image.
+   *
+   * @param out Output stream to write to.
+   * @param width Image width.
+   * @param height Image height.
+   * @throws IOException On an exception writing the image
+   */
+  public void writeChartAsPNG(final OutputStream out, final int width, final int height)
+      throws IOException {
+    writeChartAsPNG(out, width, height, ChartRendererType.jfreechart);
+  }
+
+  /**
+   * Write the Daylight Chart report as a PNG image.
+   *
+   * @param out Output stream to write to.
+   * @param width Image width.
+   * @param height Image height.
+   * @param chartRendererType Renderer for the chart image.
+   * @throws IOException On an exception writing the image
+   */
+  public void writeChartAsPNG(
+      final OutputStream out,
+      final int width,
+      final int height,
+      final ChartRendererType chartRendererType)
+      throws IOException {
+    writeChartAsPNG(out, width, height, chartRendererType, IndexedPngEncoder.DEFAULT);
+  }
+
+  /**
+   * Write the Daylight Chart report as an indexed-color PNG image. Poster-size images are drawn in
+   * strips, and always by the fast renderer.
+   *
+   * @param out Output stream to write to.
+   * @param width Image width.
+   * @param height Image height.
+   * @param chartRendererType Renderer for the chart image, unless it is drawn in strips.
+   * @param pngEncoder PNG encoder, with the filter and compression settings to use.
+   * @throws IOException On an exception writing the image
+   */
+  public void writeChartAsPNG(
+      final OutputStream out,
+      final int width,
+      final int height,
+      final ChartRendererType chartRendererType,
+      final IndexedPngEncoder pngEncoder)
+      throws IOException {
+    if (!isDrawnInStrips(width, height)) {
+      pngEncoder.encode(
+          createBufferedImage(width, height, chartRendererType, BufferedImage.TYPE_INT_ARGB), out);
+      return;
+    }
+
+    // Poster-size images are drawn one horizontal strip at a time, and each strip is encoded
+    // before the next one is drawn, so only one strip is held in memory. Strips are drawn by the
+    // fast painter, since JFreeChart would lay out and draw the whole chart for every strip.
+    final int stripHeight = Math.max(1, STRIP_PIXELS / width);
+    final DaylightChartPainter painter = getPainter();
+    final ColorPalette palette =
+        ColorPalette.quantize(createPalettePreview(painter, width, height));
+    final IndexedPngEncoder.RowWriter rowWriter = pngEncoder.start(out, width, height, palette);
+    final BufferedImage strip = new BufferedImage(width, stripHeight, BufferedImage.TYPE_INT_ARGB);
+    for (int y = 0; y < height; y = y + stripHeight) {
+      final int rows = Math.min(stripHeight, height - y);
+      final Graphics2D g2 = strip.createGraphics();
+      try {
+        g2.setComposite(AlphaComposite.Clear);
+        g2.fillRect(0, 0, width, stripHeight);
+        g2.setComposite(AlphaComposite.SrcOver);
+        g2.translate(0, -y);
+        g2.clipRect(0, y, width, rows);
+        painter.paint(g2, width, height);
+      } finally {
+        g2.dispose();
+      }
+      rowWriter.writeRows(strip, 0, rows);
+    }
+    rowWriter.finish();
+  }
+
+  /**
+   * Write the Daylight Chart report as an SVG document. The document is streamed as it is drawn,
+   * and can be scaled to any size.
+   *
+   * @param out Output stream to write to.
+   * @param width Document width.
+   * @param height Document height.
+   * @throws IOException On an exception writing the document
+   */
+  public void writeChartAsSVG(final OutputStream out, final int width, final int height)
+      throws IOException {
+    final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    getPainter().writeSvg(writer, width, height);
+    writer.flush();
+  }
+
+  /**
+   * Draws the whole chart, scaled down, so that a palette can be chosen before drawing strips. The
+   * flat colors of the chart are the same at any scale, but anti-aliased edges are blended
+   * differently, so blends in the strips that are not in the preview map to their nearest palette
+   * color.
+   */
+  private static BufferedImage createPalettePreview(
+      final DaylightChartPainter painter, final int width, final int height) {
+    final double scale = Math.min(1.0, (double) PALETTE_PREVIEW_WIDTH / width);
+    final BufferedImage preview =
+        new BufferedImage(
+            Math.max(1, (int) Math.ceil(width * scale)),
+            Math.max(1, (int) Math.ceil(height * scale)),
+            BufferedImage.TYPE_INT_ARGB);
+    final Graphics2D g2 = preview.createGraphics();
+    try {
+      g2.scale(scale, scale);
+      painter.paint(g2, width, height);
+    } finally {
+      g2.dispose();
+    }
+    return preview;
+  }
+
+  private BufferedImage createBufferedImage(
+      final int width,
+      final int height,
+      final ChartRendererType chartRendererType,
+      final int imageType) {
+    if (chartRendererType == ChartRendererType.fast) {
+      return getPainter().createBufferedImage(width, height, imageType);
+    }
+    return getRenderChart().createBufferedImage(width, height, imageType, null);
+  }
+
+  /**
+   * Gets a painter that draws the chart without JFreeChart.
+   *
+   * @return Chart painter
+   */
+  private DaylightChartPainter getPainter() {
+    return new DaylightChartPainter(riseSetData, options, chartOptions);
+  }
+
+  /**
+   * Gets a chart to render immediately. Unless this report already has its own chart, a pooled
+   * chart template for the calling thread is used.
+   *
+   * @return Chart to render
+   */
+  private synchronized DaylightChart getRenderChart() {
+    if (chart != null) {
+      return chart;
+    }
+    return DaylightChartTemplates.template(riseSetData, options, chartOptions);
+  }
 }
@@ -10,6 +10,7 @@ package daylightchart.chart.report;
 
 import daylightchart.chart.options.ChartOptions;
 import daylightchart.options.Options;
+import java.util.concurrent.Executor;
 import org.geoname.data.Location;
 
 /** Service facade for chart report creation and export. */
@@ -26,4 +27,12 @@ public class DaylightChartReportService {
       final Location location, final Options options, final ChartOptions chartOptions) {
     return new DaylightChartReport(location, options, chartOptions);
   }
+
+  public DaylightChartReport createReport(
+      final Location location,
+      final Options options,
+      final ChartOptions chartOptions,
+      final Executor executor) {
+    return new DaylightChartReport(location, options, chartOptions, executor);
+  }
 }
@@ -0,0 +1,363 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart.report;
+
+import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes images as 8-bit indexed-color PNG. Images are quantized to a {@link ColorPalette}, and
+ * rows are filtered and compressed one at a time as they are written, so that only a couple of rows
+ * are held in memory besides the image itself. The filter type and deflate level can be chosen to
+ * trade encoding time for payload size.
+ */
+public final class IndexedPngEncoder {
+
+  /**
+   * Encoder used when none is specified, with unfiltered rows and the best deflate compression, for
+   * the smallest files at the cost of encoding speed.
+   */
+  public static final IndexedPngEncoder DEFAULT =
+      new IndexedPngEncoder(PngFilterType.none, Deflater.BEST_COMPRESSION);
+
+  private static final byte[] SIGNATURE = {
+    (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+  };
+  private static final int IDAT_CHUNK_SIZE = 32 * 1024;
+
+  private static int paeth(final int left, final int up, final int upLeft) {
+    final int estimate = left + up - upLeft;
+    final int leftDistance = Math.abs(estimate - left);
+    final int upDistance = Math.abs(estimate - up);
+    final int upLeftDistance = Math.abs(estimate - upLeft);
+    if (leftDistance <= upDistance && leftDistance <= upLeftDistance) {
+      return left;
+    }
+    if (upDistance <= upLeftDistance) {
+      return up;
+    }
+    return upLeft;
+  }
+
+  private static void putInt(final byte[] bytes, final int offset, final int value) {
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+  }
+
+  private static void writeChunk(
+      final DataOutputStream out, final String type, final byte[] data, final int length)
+      throws IOException {
+    final byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+    final CRC32 crc = new CRC32();
+    crc.update(typeBytes);
+    crc.update(data, 0, length);
+
+    out.writeInt(length);
+    out.write(typeBytes);
+    out.write(data, 0, length);
+    out.writeInt((int) crc.getValue());
+  }
+
+  private final PngFilterType filterType;
+  private final int compressionLevel;
+
+  /**
+   * Constructor.
+   *
+   * @param filterType Row filter
+   * @param compressionLevel Deflate level, from 0 for no compression to 9 for best compression
+   */
+  public IndexedPngEncoder(final PngFilterType filterType, final int compressionLevel) {
+    if (compressionLevel < Deflater.NO_COMPRESSION
+        || compressionLevel > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Compression level must be between 0 and 9");
+    }
+    this.filterType = filterType == null ? PngFilterType.none : filterType;
+    this.compressionLevel = compressionLevel;
+  }
+
+  /**
+   * Writes an image as PNG, with a palette quantized from the image.
+   *
+   * @param image Image
+   * @param out Output stream, which is not closed
+   * @throws IOException On an exception writing the image
+   */
+  public void encode(final BufferedImage image, final OutputStream out) throws IOException {
+    final RowWriter rowWriter =
+        start(out, image.getWidth(), image.getHeight(), ColorPalette.quantize(image));
+    rowWriter.writeRows(image);
+    rowWriter.finish();
+  }
+
+  public int getCompressionLevel() {
+    return compressionLevel;
+  }
+
+  public PngFilterType getFilterType() {
+    return filterType;
+  }
+
+  /**
+   * Starts a PNG image, writing the header and palette. Rows are then written with the returned row
+   * writer, top to bottom.
+   *
+   * @param out Output stream, which is not closed
+   * @param width Image width
+   * @param height Image height
+   * @param palette Palette for the image
+   * @return Row writer
+   * @throws IOException On an exception writing the image
+   */
+  public RowWriter start(
+      final OutputStream out, final int width, final int height, final ColorPalette palette)
+      throws IOException {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Image must not be empty");
+    }
+    return new RowWriter(out, width, height, palette);
+  }
+
+  /** Writes the rows of a PNG image as they are rendered. */
+  public final class RowWriter {
+
+    private final DataOutputStream out;
+    private final int width;
+    private final int height;
+    private final ColorPalette palette;
+    private final Deflater deflater;
+    private final IdatOutputStream idat;
+    private final DeflaterOutputStream compressed;
+    private final int[] argbRow;
+    private final byte[][] filtered;
+    private byte[] previous;
+    private byte[] current;
+    private int rows;
+
+    private RowWriter(
+        final OutputStream out, final int width, final int height, final ColorPalette palette)
+        throws IOException {
+      this.out = new DataOutputStream(out);
+      this.width = width;
+      this.height = height;
+      this.palette = palette;
+
+      this.out.write(SIGNATURE);
+      writeHeader();
+      writePalette();
+
+      deflater = new Deflater(compressionLevel);
+      idat = new IdatOutputStream(this.out);
+      compressed = new DeflaterOutputStream(idat, deflater, 8192);
+      argbRow = new int[width];
+      filtered = new byte[5][width + 1];
+      for (int type = 0; type < filtered.length; type++) {
+        filtered[type][0] = (byte) type;
+      }
+      previous = new byte[width];
+      current = new byte[width];
+    }
+
+    /**
+     * Finishes the image, after all rows are written.
+     *
+     * @throws IOException On an exception writing the image
+     */
+    public void finish() throws IOException {
+      if (rows != height) {
+        throw new IllegalStateException("Expected " + height + " rows, but got " + rows);
+      }
+      try {
+        compressed.finish();
+        idat.flush();
+      } finally {
+        deflater.end();
+      }
+      writeChunk(out, "IEND", new byte[0], 0);
+      out.flush();
+    }
+
+    /**
+     * Writes all the rows of an image, which may be a horizontal strip of the whole image.
+     *
+     * @param image Image with the same width as the PNG image
+     * @throws IOException On an exception writing the image
+     */
+    public void writeRows(final BufferedImage image) throws IOException {
+      writeRows(image, 0, image.getHeight());
+    }
+
+    /**
+     * Writes rows of an image, which may be a horizontal strip of the whole image.
+     *
+     * @param image Image with the same width as the PNG image
+     * @param y First row of the image to write
+     * @param count Number of rows to write
+     * @throws IOException On an exception writing the image
+     */
+    public void writeRows(final BufferedImage image, final int y, final int count)
+        throws IOException {
+      if (image.getWidth() != width) {
+        throw new IllegalArgumentException("Image width must be " + width);
+      }
+      for (int row = y; row < y + count; row++) {
+        image.getRGB(0, row, width, 1, argbRow, 0, width);
+        writeRow(argbRow);
+      }
+    }
+
+    /**
+     * Writes the next row.
+     *
+     * @param argb ARGB colors of the row
+     * @throws IOException On an exception writing the image
+     */
+    public void writeRow(final int[] argb) throws IOException {
+      if (rows == height) {
+        throw new IllegalStateException("All " + height + " rows are already written");
+      }
+      for (int x = 0; x < width; x++) {
+        current[x] = (byte) palette.indexOf(argb[x]);
+      }
+      compressed.write(filterRow());
+
+      final byte[] swap = previous;
+      previous = current;
+      current = swap;
+      rows++;
+    }
+
+    private byte[] filterRow() {
+      final int type = filterType.getFilterType();
+      if (type >= 0) {
+        filter(type);
+        return filtered[type];
+      }
+
+      // Adaptive, using the minimum sum of absolute differences heuristic
+      int bestType = 0;
+      long bestSum = Long.MAX_VALUE;
+      for (int candidate = 0; candidate < filtered.length; candidate++) {
+        filter(candidate);
+        long sum = 0;
+        final byte[] bytes = filtered[candidate];
+        for (int i = 1; i < bytes.length && sum < bestSum; i++) {
+          sum = sum + Math.abs(bytes[i]);
+        }
+        if (sum < bestSum) {
+          bestSum = sum;
+          bestType = candidate;
+        }
+      }
+      return filtered[bestType];
+    }
+
+    private void filter(final int type) {
+      final byte[] bytes = filtered[type];
+      final boolean firstRow = rows == 0;
+      for (int x = 0; x < width; x++) {
+        final int value = current[x] & 0xFF;
+        final int left = x == 0 ? 0 : current[x - 1] & 0xFF;
+        final int up = firstRow ? 0 : previous[x] & 0xFF;
+        final int upLeft = firstRow || x == 0 ? 0 : previous[x - 1] & 0xFF;
+        final int prediction =
+            switch (type) {
+              case 1 -> left;
+              case 2 -> up;
+              case 3 -> (left + up) >>> 1;
+              case 4 -> paeth(left, up, upLeft);
+              default -> 0;
+            };
+        bytes[x + 1] = (byte) (value - prediction);
+      }
+    }
+
+    private void writeHeader() throws IOException {
+      final byte[] header = new byte[13];
+      putInt(header, 0, width);
+      putInt(header, 4, height);
+      header[8] = 8; // Bit depth
+      header[9] = 3; // Indexed color
+      writeChunk(out, "IHDR", header, header.length);
+    }
+
+    private void writePalette() throws IOException {
+      final int size = palette.size();
+      final byte[] colors = new byte[size * 3];
+      for (int i = 0; i < size; i++) {
+        final int argb = palette.getColor(i);
+        colors[i * 3] = (byte) (argb >> 16);
+        colors[i * 3 + 1] = (byte) (argb >> 8);
+        colors[i * 3 + 2] = (byte) argb;
+      }
+      writeChunk(out, "PLTE", colors, colors.length);
+
+      final int translucentSize = palette.getTranslucentSize();
+      if (translucentSize > 0) {
+        final byte[] alphas = new byte[translucentSize];
+        for (int i = 0; i < translucentSize; i++) {
+          alphas[i] = (byte) (palette.getColor(i) >>> 24);
+        }
+        writeChunk(out, "tRNS", alphas, alphas.length);
+      }
+    }
+  }
+
+  /** Buffers compressed data, and writes it out as IDAT chunks. */
+  private static final class IdatOutputStream extends OutputStream {
+
+    private final DataOutputStream out;
+    private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+    private int count;
+
+    IdatOutputStream(final DataOutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (count > 0) {
+        writeChunk(out, "IDAT", buffer, count);
+        count = 0;
+      }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+      int written = 0;
+      while (written < length) {
+        final int n = Math.min(length - written, buffer.length - count);
+        System.arraycopy(bytes, offset + written, buffer, count, n);
+        count = count + n;
+        written = written + n;
+        if (count == buffer.length) {
+          flush();
+        }
+      }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.chart.report;
+
+/** PNG scanline filter applied to each row before compression. */
+public enum PngFilterType {
+  /** No filtering, usually best for palette images */
+  none(0),
+  /** Difference from the pixel to the left */
+  sub(1),
+  /** Difference from the pixel above */
+  up(2),
+  /** Difference from the average of the pixels to the left and above */
+  average(3),
+  /** Difference from the Paeth predictor */
+  paeth(4),
+  /** Picks the filter with the smallest sum of absolute differences, for each row */
+  adaptive(-1);
+
+  private final int filterType;
+
+  PngFilterType(final int filterType) {
+    this.filterType = filterType;
+  }
+
+  /**
+   * Filter type byte written at the start of each row, or -1 if chosen for each row.
+   *
+   * @return Filter type byte
+   */
+  int getFilterType() {
+    return filterType;
+  }
+}
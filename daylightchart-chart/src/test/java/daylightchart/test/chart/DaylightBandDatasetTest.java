@@ -0,0 +1,97 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.test.chart;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import daylightchart.chart.DaylightChart;
+import daylightchart.chart.data.DaylightBand;
+import daylightchart.chart.data.RiseSetUtility;
+import daylightchart.chart.data.RiseSetYearData;
+import daylightchart.options.Options;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.geoname.parser.LocationsListParser;
+import org.geoname.parser.ParserException;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.junit.jupiter.api.Test;
+
+public class DaylightBandDatasetTest {
+
+  private static final LocalDate TIME_OF_DAY_DATE = LocalDate.of(1970, 1, 1);
+
+  @Test
+  public void datasetsShouldMatchTheBandsTheyWrap() throws ParserException {
+    for (final String location :
+        new String[] {
+          "Boston;US-MA;US;America/New_York;+4232-07104/", "Tromso;;NO;Europe/Oslo;+6940+01857/"
+        }) {
+      final RiseSetYearData riseSetYear =
+          RiseSetUtility.createRiseSetYear(
+              LocationsListParser.parseLocation(location), 2024, new Options());
+      final DaylightChart chart = new DaylightChart(riseSetYear, new Options(), null);
+      final List<DaylightBand> bands = riseSetYear.getBands();
+
+      assertThat(location, chart.getXYPlot().getDatasetCount(), is(bands.size()));
+      for (int i = 0; i < bands.size(); i++) {
+        assertDataset(bands.get(i), (IntervalXYDataset) chart.getXYPlot().getDataset(i));
+      }
+    }
+  }
+
+  private static void assertDataset(final DaylightBand band, final IntervalXYDataset dataset) {
+    final String name = band.getName();
+    assertThat(name, dataset.getSeriesCount(), is(2));
+    assertThat(name, dataset.getSeriesKey(0), is("Sunrise " + name));
+    assertThat(name, dataset.getSeriesKey(1), is("Sunset " + name));
+    assertThat(name, dataset.getItemCount(0), is(band.size()));
+    assertThat(name, dataset.getItemCount(1), is(band.size()));
+
+    int item = 0;
+    for (int dayIndex = 0; dayIndex < 366; dayIndex++) {
+      if (!band.hasRiseSet(dayIndex)) {
+        continue;
+      }
+      final LocalDate date = LocalDate.ofYearDay(band.getYear(), dayIndex + 1);
+      final String day = name + " " + date;
+      final double dayStart = millis(date, LocalTime.MIDNIGHT);
+      final double dayEnd = millis(date.plusDays(1), LocalTime.MIDNIGHT) - 1;
+      final double sunrise = timeOfDay(band.getSunriseSecondOfDay(dayIndex));
+      final double sunset = timeOfDay(band.getSunsetSecondOfDay(dayIndex));
+
+      for (int series = 0; series < 2; series++) {
+        assertThat(day, dataset.getXValue(series, item), is(dayStart));
+        assertThat(day, dataset.getStartXValue(series, item), is(dayStart));
+        assertThat(day, dataset.getEndXValue(series, item), is(dayEnd));
+      }
+      assertThat(day, dataset.getYValue(0, item), is(sunrise));
+      assertThat(day, dataset.getStartYValue(0, item), is(sunrise));
+      assertThat(day, dataset.getEndYValue(0, item), is(sunrise));
+      assertThat(day, dataset.getYValue(1, item), is(sunset));
+      assertThat(day, dataset.getStartYValue(1, item), is(sunset));
+      assertThat(day, dataset.getEndYValue(1, item), is(sunset));
+      item++;
+    }
+    assertThat(name, item, is(band.size()));
+  }
+
+  private static double millis(final LocalDate date, final LocalTime time) {
+    return date.atTime(time).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  /** Time of day on the first day of 1970, truncated to the minute, as the chart plots it. */
+  private static double timeOfDay(final int secondOfDay) {
+    return millis(
+        TIME_OF_DAY_DATE, LocalTime.ofSecondOfDay(secondOfDay).truncatedTo(ChronoUnit.MINUTES));
+  }
+}
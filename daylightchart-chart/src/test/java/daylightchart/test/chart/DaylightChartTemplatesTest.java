@@ -0,0 +1,121 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.test.chart;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import daylightchart.chart.DaylightChart;
+import daylightchart.chart.DaylightChartTemplates;
+import daylightchart.chart.data.RiseSetUtility;
+import daylightchart.chart.data.RiseSetYearData;
+import daylightchart.chart.options.ChartOptions;
+import daylightchart.options.Options;
+import daylightchart.options.TwilightType;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import org.geoname.data.Location;
+import org.geoname.parser.LocationsListParser;
+import org.geoname.parser.ParserException;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.title.TextTitle;
+import org.junit.jupiter.api.Test;
+
+public class DaylightChartTemplatesTest {
+
+  @Test
+  public void templateShouldBeReusedForEqualChartOptions() throws ParserException {
+    final RiseSetYearData boston = riseSetYear("Boston;US-MA;US;America/New_York;+4232-07104/");
+
+    final DaylightChart first =
+        DaylightChartTemplates.template(boston, new Options(), new ChartOptions());
+    final DaylightChart second =
+        DaylightChartTemplates.template(boston, new Options(), new ChartOptions());
+
+    assertThat(second, is(sameInstance(first)));
+  }
+
+  @Test
+  public void templateShouldNotBeReusedForDifferentOptions() throws ParserException {
+    final RiseSetYearData boston = riseSetYear("Boston;US-MA;US;America/New_York;+4232-07104/");
+    final Options astronomical = new Options();
+    astronomical.setTwilightType(TwilightType.ASTRONOMICAL);
+
+    final DaylightChart civil =
+        DaylightChartTemplates.template(boston, new Options(), new ChartOptions());
+
+    assertThat(
+        DaylightChartTemplates.template(boston, astronomical, new ChartOptions()),
+        is(not(sameInstance(civil))));
+  }
+
+  @Test
+  public void reusedTemplateShouldShowNewLocationAndYear() throws ParserException {
+    final RiseSetYearData tromso =
+        RiseSetUtility.createRiseSetYear(
+            LocationsListParser.parseLocation("Tromso;;NO;Europe/Oslo;+6940+01857/"),
+            2024,
+            new Options());
+    final Location london =
+        LocationsListParser.parseLocation("London;;GB;Europe/London;+5130-00010/");
+    final RiseSetYearData london2025 =
+        RiseSetUtility.createRiseSetYear(london, 2025, new Options());
+
+    final DaylightChart first =
+        DaylightChartTemplates.template(tromso, new Options(), new ChartOptions());
+    final DaylightChart chart =
+        DaylightChartTemplates.template(london2025, new Options(), new ChartOptions());
+
+    assertThat(chart, is(sameInstance(first)));
+    assertThat(chart.getTitle().getText(), is(london.toString()));
+    assertThat(subtitles(chart), contains(london.getDetails()));
+
+    final XYPlot plot = chart.getXYPlot();
+    final DateAxis monthsAxis = (DateAxis) plot.getDomainAxis();
+    assertThat(
+        monthsAxis.getMinimumDate().getTime(),
+        is(
+            LocalDate.of(2025, 1, 1)
+                .atStartOfDay(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli()));
+
+    // Tromso has more bands than London, and the extra bands are cleared
+    final int bands = london2025.getBands().size();
+    assertThat(tromso.getBands().size() > bands, is(true));
+    for (int i = 0; i < bands; i++) {
+      assertThat(plot.getDataset(i).getItemCount(0), is(london2025.getBands().get(i).size()));
+    }
+    for (int i = bands; i < tromso.getBands().size(); i++) {
+      assertThat(plot.getDataset(i), is(nullValue()));
+    }
+  }
+
+  private static List<String> subtitles(final DaylightChart chart) {
+    final List<String> subtitles = new ArrayList<>();
+    for (final Object subtitle : chart.getSubtitles()) {
+      if (subtitle instanceof final TextTitle textTitle) {
+        subtitles.add(textTitle.getText());
+      }
+    }
+    return subtitles;
+  }
+
+  private static RiseSetYearData riseSetYear(final String location) throws ParserException {
+    return RiseSetUtility.createRiseSetYear(
+        LocationsListParser.parseLocation(location), 2024, new Options());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.test.chart.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import daylightchart.chart.data.DaylightBand;
+import daylightchart.chart.data.DaylightBandType;
+import daylightchart.chart.data.RiseSet;
+import daylightchart.chart.data.RiseSetUtility;
+import daylightchart.chart.data.RiseSetYearData;
+import daylightchart.options.Options;
+import java.time.LocalDate;
+import java.util.List;
+import org.geoname.parser.LocationsListParser;
+import org.geoname.parser.ParserException;
+import org.junit.jupiter.api.Test;
+
+public class DaylightBandTest {
+
+  @Test
+  public void bandShouldCoverEveryDayWhereTheSunRisesAndSets() throws ParserException {
+    final DaylightBand band =
+        firstBand(
+            "Boston;US-MA;US;America/New_York;+4232-07104/", DaylightBandType.without_clock_shift);
+
+    assertThat(band.getYear(), is(2024));
+    assertThat(band.getFirstDayIndex(), is(0));
+    assertThat(band.getLastDayIndex(), is(365));
+    assertThat(band.size(), is(366));
+    assertThat(band.hasRiseSet(-1), is(false));
+    assertThat(band.hasRiseSet(366), is(false));
+  }
+
+  @Test
+  public void bandShouldLeaveOutDaysWithoutSunriseOrSunset() throws ParserException {
+    final DaylightBand band =
+        firstBand("Tromso;;NO;Europe/Oslo;+6940+01857/", DaylightBandType.without_clock_shift);
+
+    // Polar night lasts until January 15, and starts again after November 26
+    assertThat(band.getFirstDayIndex(), is(15));
+    assertThat(band.getLastDayIndex(), is(330));
+    assertThat(band.size(), is(316));
+    for (int dayIndex = 0; dayIndex < 366; dayIndex++) {
+      final boolean inBand =
+          dayIndex >= band.getFirstDayIndex() && dayIndex <= band.getLastDayIndex();
+      assertThat("Day " + dayIndex, band.hasRiseSet(dayIndex), is(inBand));
+    }
+
+    final List<RiseSet> riseSets = band.getRiseSets();
+    assertThat(riseSets.size(), is(band.size()));
+    assertThat(riseSets.get(0).getDate(), is(LocalDate.of(2024, 1, 16)));
+    assertThat(riseSets.get(riseSets.size() - 1).getDate(), is(LocalDate.of(2024, 11, 26)));
+  }
+
+  @Test
+  public void polarDayShouldSpanTheWholeDay() throws ParserException {
+    final DaylightBand band =
+        firstBand("Tromso;;NO;Europe/Oslo;+6940+01857/", DaylightBandType.with_clock_shift);
+    final int midsummer = LocalDate.of(2024, 6, 21).getDayOfYear() - 1;
+
+    assertThat(band.hasRiseSet(midsummer), is(true));
+    assertThat(band.getSunriseSecondOfDay(midsummer), is(0));
+    assertThat(band.getSunsetSecondOfDay(midsummer), is(24 * 60 * 60 - 1));
+  }
+
+  private static DaylightBand firstBand(final String location, final DaylightBandType bandType)
+      throws ParserException {
+    final RiseSetYearData riseSetYear =
+        RiseSetUtility.createRiseSetYear(
+            LocationsListParser.parseLocation(location), 2024, new Options());
+    for (final DaylightBand band : riseSetYear.getBands()) {
+      if (band.getDaylightBandType() == bandType) {
+        return band;
+      }
+    }
+    throw new AssertionError("No " + bandType + " band for " + location);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.test.chart.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import daylightchart.chart.data.RiseSet;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.geoname.data.Location;
+import org.geoname.parser.LocationsListParser;
+import org.geoname.parser.ParserException;
+import org.junit.jupiter.api.Test;
+
+public class RiseSetTest {
+
+  private static final LocalDate DATE = LocalDate.of(2024, 5, 20);
+
+  @Test
+  public void sunsetOnlyDayShouldKeepSunset() throws ParserException {
+    final RiseSet riseSet =
+        new RiseSet(location(), DATE, false, RiseSet.ALL_DAYLIGHT, secondOfDay(1, 15));
+
+    assertThat(riseSet.getSunrise(), is(DATE.atTime(LocalTime.MIDNIGHT.plusNanos(1))));
+    assertThat(riseSet.getSunset(), is(DATE.atTime(1, 15)));
+  }
+
+  @Test
+  public void sunriseOnlyDayShouldKeepSunrise() throws ParserException {
+    final RiseSet riseSet =
+        new RiseSet(location(), DATE, false, secondOfDay(23, 30), RiseSet.ALL_DAYLIGHT);
+
+    assertThat(riseSet.getSunrise(), is(DATE.atTime(23, 30)));
+    assertThat(riseSet.getSunset(), is(DATE.atTime(LocalTime.MIDNIGHT.minusNanos(1))));
+  }
+
+  @Test
+  public void polarDayShouldSpanTheWholeDay() throws ParserException {
+    final RiseSet riseSet =
+        new RiseSet(location(), DATE, false, RiseSet.ALL_DAYLIGHT, RiseSet.ALL_DAYLIGHT);
+
+    assertThat(riseSet.getSunrise(), is(DATE.atTime(LocalTime.MIDNIGHT.plusNanos(1))));
+    assertThat(riseSet.getSunset(), is(DATE.atTime(LocalTime.MIDNIGHT.minusNanos(1))));
+  }
+
+  private static Location location() throws ParserException {
+    return LocationsListParser.parseLocation("Tromso;;NO;Europe/Oslo;+6940+01857/");
+  }
+
+  private static int secondOfDay(final int hour, final int minute) {
+    return LocalTime.of(hour, minute).toSecondOfDay();
+  }
+}
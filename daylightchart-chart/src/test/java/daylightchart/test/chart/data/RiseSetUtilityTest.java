@@ -17,10 +17,13 @@ import daylightchart.chart.data.RiseSetData;
 import daylightchart.chart.data.RiseSetUtility;
 import daylightchart.chart.data.RiseSetYearData;
 import daylightchart.options.Options;
+import daylightchart.options.TimeZoneOption;
+import daylightchart.options.TwilightType;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.geoname.data.Location;
 import org.geoname.parser.LocationsListParser;
 import org.geoname.parser.ParserException;
@@ -113,6 +116,60 @@ public class RiseSetUtilityTest {
         LocalTime.of(15, 29, 58));
   }
 
+  @Test
+  public void parallelCalculationShouldMatchSequential() throws ParserException {
+    final Options options = new Options();
+    options.setTimeZoneOption(TimeZoneOption.USE_TIME_ZONE);
+
+    for (final String locationString :
+        new String[] {
+          "Boston;US-MA;US;America/New_York;+4232-07104/",
+          "Sydney;;AU;Australia/Sydney;-3352+15113/",
+          "Reykjavik;;IS;Atlantic/Reykjavik;+6409-02158/"
+        }) {
+      final Location location = LocationsListParser.parseLocation(locationString);
+      final RiseSetYearData sequential = RiseSetUtility.createRiseSetYear(location, 2024, options);
+      final RiseSetYearData parallel =
+          RiseSetUtility.createRiseSetYear(location, 2024, options, ForkJoinPool.commonPool());
+
+      assertThat(parallel.getDstStartDate(), is(sequential.getDstStartDate()));
+      assertThat(parallel.getDstEndDate(), is(sequential.getDstEndDate()));
+      assertThat(parallel.getBands().size(), is(sequential.getBands().size()));
+      final List<RiseSetData> expected = sequential.getRiseSetData();
+      final List<RiseSetData> actual = parallel.getRiseSetData();
+      assertThat(actual.size(), is(expected.size()));
+      for (int i = 0; i < expected.size(); i++) {
+        assertThat(actual.get(i).getSunrise(), is(expected.get(i).getSunrise()));
+        assertThat(actual.get(i).getSunset(), is(expected.get(i).getSunset()));
+      }
+    }
+  }
+
+  @Test
+  public void switchingTwilightShouldMatchRecalculation() throws ParserException {
+    final Location location =
+        LocationsListParser.parseLocation("Reykjavik;;IS;Atlantic/Reykjavik;+6409-02158/");
+    final RiseSetYearData civil = RiseSetUtility.createRiseSetYear(location, 2024, new Options());
+
+    for (final TwilightType twilight : TwilightType.values()) {
+      final Options options = new Options();
+      options.setTwilightType(twilight);
+      final RiseSetYearData expected = RiseSetUtility.createRiseSetYear(location, 2024, options);
+      final RiseSetYearData actual = civil.withTwilight(twilight);
+
+      assertThat(actual.getTwilight(), is(twilight));
+      assertThat(actual.getBands().size(), is(expected.getBands().size()));
+      for (int i = 0; i < expected.getRiseSetData().size(); i++) {
+        final RiseSetData expectedData = expected.getRiseSetData().get(i);
+        final RiseSetData actualData = actual.getRiseSetData().get(i);
+        assertThat(actualData.getSunrise(), is(expectedData.getSunrise()));
+        assertThat(actualData.getSunset(), is(expectedData.getSunset()));
+        assertThat(actualData.getTwilightRise(), is(expectedData.getTwilightRise()));
+        assertThat(actualData.getTwilightSet(), is(expectedData.getTwilightSet()));
+      }
+    }
+  }
+
   private void assertRiseAndSet(
       final String locationString,
       final LocalDate date,
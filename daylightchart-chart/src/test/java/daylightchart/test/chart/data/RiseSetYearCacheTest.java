@@ -0,0 +1,96 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.test.chart.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import daylightchart.chart.data.RiseSetYearCache;
+import daylightchart.chart.data.RiseSetYearData;
+import daylightchart.options.Options;
+import daylightchart.options.TwilightType;
+import org.geoname.data.Location;
+import org.geoname.parser.LocationsListParser;
+import org.geoname.parser.ParserException;
+import org.junit.jupiter.api.Test;
+
+public class RiseSetYearCacheTest {
+
+  @Test
+  public void shouldCacheYears() throws ParserException {
+    final RiseSetYearCache cache = new RiseSetYearCache(10, Long.MAX_VALUE);
+    final Location location =
+        LocationsListParser.parseLocation("Boston;US-MA;US;America/New_York;+4232-07104/");
+
+    final RiseSetYearData first = cache.get(location, 2024, new Options());
+    final RiseSetYearData second = cache.get(location, 2024, new Options());
+    final RiseSetYearData otherYear = cache.get(location, 2025, new Options());
+
+    assertThat(second, is(sameInstance(first)));
+    assertThat(otherYear, is(not(sameInstance(first))));
+    final RiseSetYearCache.Statistics statistics = cache.getStatistics();
+    assertThat(statistics.hits(), is(1L));
+    assertThat(statistics.misses(), is(2L));
+    assertThat(statistics.size(), is(2));
+  }
+
+  @Test
+  public void shouldKeepYearsWhileTzdbVersionIsUnchanged() throws ParserException {
+    final RiseSetYearCache cache = new RiseSetYearCache(10, Long.MAX_VALUE);
+    final Location location =
+        LocationsListParser.parseLocation("Boston;US-MA;US;America/New_York;+4232-07104/");
+
+    final RiseSetYearData first = cache.get(location, 2024, new Options());
+
+    assertThat(cache.checkTzdbVersion(), is(false));
+    assertThat(cache.get(location, 2024, new Options()), is(sameInstance(first)));
+  }
+
+  @Test
+  public void shouldSwitchTwilightWithoutRecalculation() throws ParserException {
+    final RiseSetYearCache cache = new RiseSetYearCache(10, Long.MAX_VALUE);
+    final Location location =
+        LocationsListParser.parseLocation("London;;GB;Europe/London;+5130-00010/");
+
+    cache.get(location, 2024, new Options());
+    final Options options = new Options();
+    options.setTwilightType(TwilightType.ASTRONOMICAL);
+    final RiseSetYearData astronomical = cache.get(location, 2024, options);
+
+    assertThat(astronomical.getTwilight(), is(TwilightType.ASTRONOMICAL));
+    final RiseSetYearCache.Statistics statistics = cache.getStatistics();
+    assertThat(statistics.hits(), is(1L));
+    assertThat(statistics.misses(), is(1L));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() throws ParserException {
+    final RiseSetYearCache cache = new RiseSetYearCache(2, Long.MAX_VALUE);
+    final Location location =
+        LocationsListParser.parseLocation("Sydney;;AU;Australia/Sydney;-3352+15113/");
+
+    final RiseSetYearData year2023 = cache.get(location, 2023, new Options());
+    cache.get(location, 2024, new Options());
+    cache.get(location, 2023, new Options());
+    cache.get(location, 2025, new Options());
+
+    assertThat(cache.get(location, 2023, new Options()), is(sameInstance(year2023)));
+    final RiseSetYearCache.Statistics statistics = cache.getStatistics();
+    assertThat(statistics.size(), is(2));
+    assertThat(statistics.evictions(), is(1L));
+    assertThat(statistics.misses(), is(3L));
+
+    final RiseSetYearCache light = new RiseSetYearCache(10, 2_000);
+    light.get(location, 2023, new Options());
+    light.get(location, 2024, new Options());
+    assertThat(light.getStatistics().size(), is(1));
+  }
+}
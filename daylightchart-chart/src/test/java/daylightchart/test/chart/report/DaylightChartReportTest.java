@@ -13,16 +13,25 @@ import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import daylightchart.chart.options.ChartOptionsService;
 import daylightchart.chart.report.ChartFileType;
+import daylightchart.chart.report.ChartRendererType;
 import daylightchart.chart.report.DaylightChartReport;
 import daylightchart.options.Options;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
 import org.geoname.data.Location;
 import org.geoname.parser.LocationsListParser;
 import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
 
 class DaylightChartReportTest {
 
@@ -44,4 +53,86 @@ class DaylightChartReportTest {
     assertThat(Files.exists(imageFile), is(true));
     assertThat(Files.size(imageFile), is(greaterThan(0L)));
   }
+
+  @Test
+  void shouldWriteImageWithFastRenderer() throws Exception {
+    final Location location =
+        LocationsListParser.parseLocation("Boston;US-MA;US;America/New_York;+4232-07104/");
+    final DaylightChartReport report =
+        new DaylightChartReport(
+            location, new Options(), new ChartOptionsService().createDefaultChartOptions());
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    report.writeChartAsPNG(out, 640, 360, ChartRendererType.fast);
+
+    final BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    assertThat(image.getWidth(), is(640));
+    assertThat(image.getHeight(), is(360));
+  }
+
+  @Test
+  void shouldWritePosterSizeImageInStrips() throws Exception {
+    final Location location =
+        LocationsListParser.parseLocation("Boston;US-MA;US;America/New_York;+4232-07104/");
+    final DaylightChartReport report =
+        new DaylightChartReport(
+            location, new Options(), new ChartOptionsService().createDefaultChartOptions());
+    final Path pngFile = Files.createTempFile("daylight-report", ".png");
+
+    report.write(pngFile, ChartFileType.png, ChartRendererType.fast, 3000, 2000);
+
+    final BufferedImage image = ImageIO.read(pngFile.toFile());
+    assertThat(image.getWidth(), is(3000));
+    assertThat(image.getHeight(), is(2000));
+    assertThat(image.getRGB(0, 0), is(Color.white.getRGB()));
+    assertThat(image.getRGB(2999, 1999), is(Color.white.getRGB()));
+    Files.delete(pngFile);
+  }
+
+  @Test
+  void shouldDrawPosterSizeStripsWithFastRenderer() throws Exception {
+    final Location location =
+        LocationsListParser.parseLocation("Boston;US-MA;US;America/New_York;+4232-07104/");
+    final DaylightChartReport report =
+        new DaylightChartReport(
+            location, new Options(), new ChartOptionsService().createDefaultChartOptions());
+    final ByteArrayOutputStream jfreechart = new ByteArrayOutputStream();
+    final ByteArrayOutputStream fast = new ByteArrayOutputStream();
+
+    report.writeChartAsPNG(jfreechart, 2400, 1800, ChartRendererType.jfreechart);
+    report.writeChartAsPNG(fast, 2400, 1800, ChartRendererType.fast);
+
+    assertThat(jfreechart.toByteArray(), is(fast.toByteArray()));
+  }
+
+  @Test
+  void shouldRejectEmptyImageSizeForStrips() {
+    assertThat(DaylightChartReport.isDrawnInStrips(2400, 1800), is(true));
+    assertThat(DaylightChartReport.isDrawnInStrips(800, 450), is(false));
+    assertThrows(IllegalArgumentException.class, () -> DaylightChartReport.isDrawnInStrips(0, 450));
+    assertThrows(IllegalArgumentException.class, () -> DaylightChartReport.isDrawnInStrips(800, 0));
+  }
+
+  @Test
+  void shouldWriteWellFormedSvg() throws Exception {
+    final Location location =
+        LocationsListParser.parseLocation("Boston;US-MA;US;America/New_York;+4232-07104/");
+    final DaylightChartReport report =
+        new DaylightChartReport(
+            location, new Options(), new ChartOptionsService().createDefaultChartOptions());
+    final Path svgFile = Files.createTempFile("daylight-report", ".svg");
+
+    assertThat(report.getReportFileName(ChartFileType.svg), endsWith(".svg"));
+
+    report.write(svgFile, ChartFileType.svg);
+
+    final Element svg =
+        DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder()
+            .parse(svgFile.toFile())
+            .getDocumentElement();
+    assertThat(svg.getTagName(), is("svg"));
+    assertThat(svg.getAttribute("viewBox"), is("0 0 842 595"));
+    assertThat(svg.getElementsByTagName("path").getLength(), is(greaterThan(0)));
+  }
 }
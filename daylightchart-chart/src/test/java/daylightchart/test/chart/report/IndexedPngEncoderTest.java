@@ -0,0 +1,106 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package daylightchart.test.chart.report;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import daylightchart.chart.ChartConfiguration;
+import daylightchart.chart.report.ColorPalette;
+import daylightchart.chart.report.IndexedPngEncoder;
+import daylightchart.chart.report.PngFilterType;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class IndexedPngEncoderTest {
+
+  private static BufferedImage encodeAndRead(
+      final BufferedImage image, final IndexedPngEncoder encoder) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(image, out);
+    return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private static BufferedImage flatColorImage() {
+    final BufferedImage image = new BufferedImage(97, 41, BufferedImage.TYPE_INT_ARGB);
+    final Graphics2D g2 = image.createGraphics();
+    g2.setColor(Color.white);
+    g2.fillRect(0, 0, 97, 41);
+    g2.setColor(ChartConfiguration.nightColor);
+    g2.fillRect(0, 0, 60, 20);
+    g2.setColor(ChartConfiguration.daylightColor);
+    g2.fillRect(30, 10, 60, 25);
+    g2.dispose();
+    return image;
+  }
+
+  @Test
+  void shouldRoundTripFlatColorsWithEveryFilter() throws Exception {
+    final BufferedImage image = flatColorImage();
+    for (final PngFilterType filterType : PngFilterType.values()) {
+      final BufferedImage decoded = encodeAndRead(image, new IndexedPngEncoder(filterType, 6));
+
+      assertThat(decoded.getWidth(), is(image.getWidth()));
+      assertThat(decoded.getHeight(), is(image.getHeight()));
+      for (int y = 0; y < image.getHeight(); y++) {
+        for (int x = 0; x < image.getWidth(); x++) {
+          assertThat(filterType.name(), decoded.getRGB(x, y), is(image.getRGB(x, y)));
+        }
+      }
+    }
+  }
+
+  @Test
+  void shouldQuantizeImagesWithManyColors() throws Exception {
+    final BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB);
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        image.setRGB(x, y, y < 100 ? Color.white.getRGB() : 0xFF000000 | x << 8 | y);
+      }
+    }
+
+    final ColorPalette palette = ColorPalette.quantize(image);
+    assertThat(palette.size(), is(lessThanOrEqualTo(ColorPalette.MAXIMUM_SIZE)));
+    assertThat(palette.getColor(palette.indexOf(Color.white.getRGB())), is(Color.white.getRGB()));
+
+    final BufferedImage decoded = encodeAndRead(image, IndexedPngEncoder.DEFAULT);
+    assertThat(decoded.getWidth(), is(300));
+    assertThat(decoded.getHeight(), is(200));
+    assertThat(decoded.getRGB(10, 10), is(Color.white.getRGB()));
+  }
+
+  @Test
+  void shouldKeepOpaqueAndWhiteWhenCountingColorsInBuckets() throws Exception {
+    // More distinct colors than can be counted exactly
+    final BufferedImage image = new BufferedImage(512, 320, BufferedImage.TYPE_INT_ARGB);
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        final int gradient = 0xFF000000 | (x & 0xFF) << 16 | (y - 64) << 8 | (x >> 8) * 0xFF;
+        image.setRGB(x, y, y < 64 ? Color.white.getRGB() : gradient);
+      }
+    }
+
+    final ColorPalette palette = ColorPalette.quantize(image);
+    assertThat(palette.getTranslucentSize(), is(0));
+    for (int i = 0; i < palette.size(); i++) {
+      assertThat(palette.getColor(i) >>> 24, is(0xFF));
+    }
+    assertThat(palette.getColor(palette.indexOf(Color.white.getRGB())), is(Color.white.getRGB()));
+
+    final BufferedImage decoded = encodeAndRead(image, IndexedPngEncoder.DEFAULT);
+    assertThat(decoded.getRGB(10, 10), is(Color.white.getRGB()));
+    assertThat(decoded.getRGB(300, 200) >>> 24, is(0xFF));
+  }
+}
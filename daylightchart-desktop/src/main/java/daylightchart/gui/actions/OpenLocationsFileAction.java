@@ -56,6 +56,7 @@ public final class OpenLocationsFileAction extends GuiAction {
       fileFilters.add(new ExtensionFileFilter<LocationFileType>(LocationFileType.gnis_state_file));
       fileFilters.add(
           new ExtensionFileFilter<LocationFileType>(LocationFileType.gnis_state_file_zipped));
+      fileFilters.add(new ExtensionFileFilter<LocationFileType>(LocationFileType.snapshot));
       final Path locationsFile =
           Path.of(
               UserPreferencesService.preferences().getWorkingDirectory().toString(),
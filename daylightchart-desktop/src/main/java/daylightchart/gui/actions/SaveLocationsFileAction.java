@@ -47,6 +47,7 @@ public final class SaveLocationsFileAction extends GuiAction {
       final List<ExtensionFileFilter<LocationFileType>> fileFilters =
           new ArrayList<ExtensionFileFilter<LocationFileType>>();
       fileFilters.add(new ExtensionFileFilter<LocationFileType>(LocationFileType.data));
+      fileFilters.add(new ExtensionFileFilter<LocationFileType>(LocationFileType.snapshot));
       final SelectedFile<LocationFileType> selectedFile =
           Actions.showSaveDialog(
               mainWindow,
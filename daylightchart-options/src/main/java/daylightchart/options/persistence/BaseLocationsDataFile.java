@@ -18,12 +18,15 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoname.data.Location;
 import org.geoname.parser.GNISFileParser;
 import org.geoname.parser.GNSCountryFileParser;
 import org.geoname.parser.LocationFormatter;
+import org.geoname.parser.LocationSnapshotFormatter;
+import org.geoname.parser.LocationSnapshotParser;
 import org.geoname.parser.LocationsListParser;
 import org.geoname.parser.LocationsParser;
 import org.geoname.parser.resources.ResourceRef;
@@ -72,6 +75,7 @@ abstract class BaseLocationsDataFile extends BaseDataFile<LocationFileType, Coll
         case data:
         case gns_country_file:
         case gnis_state_file:
+        case snapshot:
           refs.add(ResourceRefs.ofFile(file));
           break;
         case gns_country_file_zipped:
@@ -112,10 +116,21 @@ abstract class BaseLocationsDataFile extends BaseDataFile<LocationFileType, Coll
               case data -> new LocationsListParser(ref);
               case gns_country_file, gns_country_file_zipped -> new GNSCountryFileParser(ref);
               case gnis_state_file, gnis_state_file_zipped -> new GNISFileParser(ref);
+              case snapshot -> new LocationSnapshotParser(ref);
               default -> null;
             };
         if (locationsFileParser != null) {
-          data.addAll(locationsFileParser.parseLocations());
+          // Locations are consumed in batches as they are parsed, keeping the first location with
+          // each key in each file
+          final Set<String> seen = new HashSet<>();
+          locationsFileParser.parseLocations(
+              batch -> {
+                for (final Location location : batch) {
+                  if (seen.add(location.deduplicationKey())) {
+                    data.add(location);
+                  }
+                }
+              });
         }
       }
     } catch (final Exception e) {
@@ -138,6 +153,12 @@ abstract class BaseLocationsDataFile extends BaseDataFile<LocationFileType, Coll
     }
 
     try {
+      if (getFileType() == LocationFileType.snapshot) {
+        // Snapshots replace the file once they are completely written
+        LocationSnapshotFormatter.formatLocations(data, List.of(), file);
+        return;
+      }
+
       Files.deleteIfExists(file);
 
       final Writer writer = getFileWriter(file);
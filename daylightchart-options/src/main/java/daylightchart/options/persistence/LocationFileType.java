@@ -21,6 +21,8 @@ public enum LocationFileType implements FileType {
   gnis_state_file("GNIS states file", ".txt"),
   /** GNIS states file, zipped */
   gnis_state_file_zipped("GNIS states file, zipped", ".zip"),
+  /** Daylight Chart locations snapshot, a binary file that loads quickly */
+  snapshot("Daylight Chart locations snapshot", ".snapshot"),
   ;
 
   private final String description;
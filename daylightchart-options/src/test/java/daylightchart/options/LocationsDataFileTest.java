@@ -13,6 +13,7 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 
+import daylightchart.options.persistence.LocationFileType;
 import daylightchart.options.persistence.LocationsDataFile;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -28,4 +29,19 @@ class LocationsDataFileTest {
     assertThat(locationsDataFile.getData(), is(notNullValue()));
     assertThat(locationsDataFile.getData().size(), is(greaterThan(0)));
   }
+
+  @Test
+  void shouldSaveAndLoadSnapshot() throws Exception {
+    final Path settingsDirectory = Files.createTempDirectory("daylight-persistence-snapshot");
+    final LocationsDataFile locationsDataFile = new LocationsDataFile(settingsDirectory);
+    final Path snapshotFile = settingsDirectory.resolve("locations.snapshot");
+
+    new LocationsDataFile(snapshotFile, LocationFileType.snapshot)
+        .save(locationsDataFile.getData());
+    final LocationsDataFile snapshotDataFile =
+        new LocationsDataFile(snapshotFile, LocationFileType.snapshot);
+    snapshotDataFile.loadData();
+
+    assertThat(snapshotDataFile.getData(), is(locationsDataFile.getData()));
+  }
 }
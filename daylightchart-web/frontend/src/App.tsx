@@ -14,6 +14,22 @@ const MAX_CHART_WIDTH = 1920
 const CURRENT_YEAR = new Date().getFullYear()
 // Screens narrower than this get the hamburger menu instead of a fixed sidebar.
 const MOBILE_BREAKPOINT = 768
+// Locations requested from the server at a time.
+const LOCATIONS_PAGE_SIZE = 1000
+
+async function fetchAllLocations(): Promise<LocationDto[]> {
+  const locations: LocationDto[] = []
+  let cursor: string | null = null
+  do {
+    const params = new URLSearchParams({ limit: String(LOCATIONS_PAGE_SIZE) })
+    if (cursor) params.set('cursor', cursor)
+    const res = await fetch(`/api/locations?${params}`, { cache: 'no-store' })
+    if (!res.ok) throw new Error(`HTTP ${res.status}`)
+    locations.push(...(await res.json() as LocationDto[]))
+    cursor = res.headers.get('X-Next-Cursor')
+  } while (cursor)
+  return locations
+}
 
 function toChartSize(containerWidth: number): { w: number; h: number } {
   const w = Math.max(MIN_CHART_WIDTH, Math.min(MAX_CHART_WIDTH, Math.floor(containerWidth)))
@@ -37,14 +53,11 @@ export default function App() {
     if (!isSmall) setNavOpen(false)
   }, [isSmall])
 
-  // Load (or reload) the location list from the server.
+  // Load (or reload) the location list from the server, one page at a time,
+  // following the cursor in the X-Next-Cursor header until there are no more pages.
   // resetSelection=true picks the first location in the new list.
   const fetchLocations = useCallback((resetSelection = false) => {
-    fetch('/api/locations', { cache: 'no-store' })
-      .then((res) => {
-        if (!res.ok) throw new Error(`HTTP ${res.status}`)
-        return res.json() as Promise<LocationDto[]>
-      })
+    fetchAllLocations()
       .then((locs) => {
         setLocations(locs)
         setSelectedKey((prev) => {
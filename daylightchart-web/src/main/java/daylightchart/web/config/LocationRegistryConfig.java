@@ -1,41 +1,164 @@
 package daylightchart.web.config;
 
 import daylightchart.web.service.LocationFileLoaderService;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoname.data.LocationRegistry;
+import org.geoname.parser.FormatterException;
+import org.geoname.parser.LocationSnapshotFormatter;
+import org.geoname.parser.LocationSnapshotParser;
 import org.geoname.parser.LocationsListParser;
 import org.geoname.parser.ParserException;
+import org.geoname.parser.resources.ResourceFingerprint;
+import org.geoname.parser.resources.ResourceRef;
 import org.geoname.parser.resources.ResourceRefs;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.EventListener;
 
+/**
+ * Loads the location registry at startup, from the bundled locations and the GNS/GNIS zip files in
+ * the data directory. When a snapshot file is configured, the registry is written to it after
+ * startup and at shutdown, with fingerprints of the bundled locations and zip files. At the next
+ * startup, the registry is loaded from the snapshot instead, if none of those files have changed,
+ * so that locations added through uploads and edits are kept.
+ *
+ * <p>Uploaded and edited locations are only kept in the snapshot. Whenever the bundled locations or
+ * any zip file in the data directory is changed, added or removed, the snapshot is rejected, and
+ * the registry is rebuilt from those files alone, so all uploaded and edited locations are dropped.
+ */
 @Configuration
 public class LocationRegistryConfig {
 
   private static final Logger LOGGER = Logger.getLogger(LocationRegistryConfig.class.getName());
 
+  private static final ResourceRef BUNDLED_LOCATIONS = ResourceRefs.ofClasspath("locations.data");
+
   @Value("${geoname.data-dir:}")
   private String dataDir;
 
+  @Value("${geoname.snapshot-file:}")
+  private String snapshotFile;
+
+  /** Fingerprints of the files that the registry was loaded from, or null if they are unknown. */
+  private List<ResourceFingerprint> sources;
+
+  private boolean loadedFromSnapshot;
+
   @Bean
   public LocationRegistry locationRegistry() throws ParserException {
-    final var parser = new LocationsListParser(ResourceRefs.ofClasspath("locations.data"));
-    return new LocationRegistry(parser.parseLocations());
+    final LocationRegistry locationRegistry = new LocationRegistry();
+    sources = sourceFingerprints();
+    if (loadSnapshot(locationRegistry)) {
+      loadedFromSnapshot = true;
+      return locationRegistry;
+    }
+
+    final var parser = new LocationsListParser(BUNDLED_LOCATIONS);
+    final LocationRegistry.Loader loader = locationRegistry.replacementLoader();
+    parser.parseLocations(loader::add);
+    loader.commit();
+    return locationRegistry;
   }
 
   @EventListener(ApplicationReadyEvent.class)
   public void preloadDataDirectory(final ApplicationReadyEvent event) {
-    if (dataDir == null || dataDir.isBlank()) {
+    if (loadedFromSnapshot) {
+      return;
+    }
+    if (dataDir != null && !dataDir.isBlank()) {
+      final Path dir = Path.of(dataDir);
+      LOGGER.info("Pre-loading GNS/GNIS files from: " + dir);
+      final LocationFileLoaderService loader =
+          event.getApplicationContext().getBean(LocationFileLoaderService.class);
+      loader.loadDirectory(dir);
+    }
+    saveSnapshot(event.getApplicationContext().getBean(LocationRegistry.class));
+  }
+
+  @EventListener(ContextClosedEvent.class)
+  public void saveSnapshotOnShutdown(final ContextClosedEvent event) {
+    saveSnapshot(event.getApplicationContext().getBean(LocationRegistry.class));
+  }
+
+  /**
+   * Writes the registry to the snapshot file, if one is configured, with the fingerprints of the
+   * files that the registry was loaded from at startup.
+   *
+   * @param locationRegistry registry to write
+   */
+  public void saveSnapshot(final LocationRegistry locationRegistry) {
+    if (snapshotFile == null || snapshotFile.isBlank() || sources == null) {
       return;
     }
-    final Path dir = Path.of(dataDir);
-    LOGGER.info("Pre-loading GNS/GNIS files from: " + dir);
-    final LocationFileLoaderService loader =
-        event.getApplicationContext().getBean(LocationFileLoaderService.class);
-    loader.loadDirectory(dir);
+    final Path file = Path.of(snapshotFile);
+    try {
+      LocationSnapshotFormatter.formatLocations(locationRegistry.getAllLocations(), sources, file);
+      LOGGER.log(
+          Level.INFO,
+          "Saved {0} locations to snapshot {1}",
+          new Object[] {locationRegistry.size(), file});
+    } catch (final FormatterException e) {
+      LOGGER.log(Level.WARNING, "Could not save location snapshot: " + file, e);
+    }
+  }
+
+  /**
+   * Loads the registry from the snapshot file, if it was written from the same files that the
+   * registry would be loaded from now.
+   *
+   * @return true if the registry was loaded from the snapshot
+   */
+  private boolean loadSnapshot(final LocationRegistry locationRegistry) {
+    if (snapshotFile == null || snapshotFile.isBlank() || sources == null) {
+      return false;
+    }
+    final Path file = Path.of(snapshotFile);
+    if (!Files.isRegularFile(file)) {
+      return false;
+    }
+    try {
+      final LocationSnapshotParser parser = new LocationSnapshotParser(ResourceRefs.ofFile(file));
+      final LocationRegistry.Loader loader = locationRegistry.replacementLoader();
+      if (!parser.parseLocations(sources, loader::add)) {
+        LOGGER.info("Location snapshot is out of date, reloading locations: " + file);
+        return false;
+      }
+      loader.commit();
+      LOGGER.info("Loaded locations from snapshot: " + file);
+      return true;
+    } catch (final ParserException e) {
+      LOGGER.log(Level.WARNING, "Could not load location snapshot: " + file, e);
+      return false;
+    }
+  }
+
+  /**
+   * Fingerprints the bundled locations and the zip files in the data directory.
+   *
+   * @return fingerprints, or null if the files cannot be read
+   */
+  private List<ResourceFingerprint> sourceFingerprints() {
+    try {
+      final List<ResourceFingerprint> fingerprints = new ArrayList<>();
+      fingerprints.add(ResourceFingerprint.of(BUNDLED_LOCATIONS));
+      if (dataDir != null && !dataDir.isBlank()) {
+        for (final Path zipFile : LocationFileLoaderService.listZipFiles(Path.of(dataDir))) {
+          fingerprints.add(ResourceFingerprint.of(ResourceRefs.ofFile(zipFile)));
+        }
+      }
+      return fingerprints;
+    } catch (final IOException e) {
+      LOGGER.log(Level.WARNING, "Could not read location files", e);
+      return null;
+    }
   }
 }
@@ -2,26 +2,39 @@ package daylightchart.web.controller;
 
 import daylightchart.chart.options.ChartOptions;
 import daylightchart.chart.options.ChartOptionsService;
+import daylightchart.chart.report.ChartFileType;
+import daylightchart.chart.report.ChartRendererType;
 import daylightchart.chart.report.DaylightChartReport;
 import daylightchart.chart.report.DaylightChartReportService;
+import daylightchart.chart.report.IndexedPngEncoder;
+import daylightchart.chart.report.PngFilterType;
 import daylightchart.options.ChartOrientation;
 import daylightchart.options.Options;
 import daylightchart.options.TwilightType;
 import daylightchart.web.dto.LocationDto;
-import java.io.BufferedOutputStream;
+import daylightchart.web.service.ChartImageCache;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Year;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import org.geoname.data.Countries;
 import org.geoname.data.Location;
 import org.geoname.data.LocationRegistry;
-import org.jfree.chart.ChartUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import us.fatehi.pointlocation6709.Angle;
 import us.fatehi.pointlocation6709.Latitude;
 import us.fatehi.pointlocation6709.Longitude;
@@ -30,8 +43,6 @@ import us.fatehi.pointlocation6709.PointLocation;
 @RestController
 public class ChartRestController {
 
-  private static final Logger LOGGER = Logger.getLogger(ChartRestController.class.getName());
-
   static final Location BOSTON =
       new Location(
           "Boston",
@@ -40,33 +51,92 @@ public class ChartRestController {
           new PointLocation(
               new Latitude(Angle.fromDegrees(42.36)), new Longitude(Angle.fromDegrees(-71.06))));
 
+  /**
+   * Everything that affects a rendered chart image. The string form of the key is used for the
+   * entity tag of the image. The renderer is null for SVG images, which are always drawn by the
+   * fast painter.
+   */
+  private record ChartImageKey(
+      String renderVersion,
+      String locationKey,
+      String description,
+      double latitude,
+      double longitude,
+      String timeZoneId,
+      int year,
+      int width,
+      int height,
+      TwilightType twilightType,
+      ChartOrientation orientation,
+      boolean showLegend,
+      ChartRendererType renderer,
+      ChartFileType format,
+      int chartOptionsFingerprint) {}
+
+  private static final MediaType IMAGE_SVG = MediaType.parseMediaType("image/svg+xml");
+
+  /** Version of chart rendering, which is changed whenever rendered images change. */
+  private static final int RENDER_VERSION = 1;
+
+  private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1));
+
   private final LocationRegistry locationRegistry;
+  private final ChartImageCache chartImageCache;
   private final ChartOptions defaultChartOptions =
       ChartOptionsService.chartOptions().createDefaultChartOptions();
+  private final int defaultChartOptionsFingerprint = defaultChartOptions.hashCode();
+
+  private final Executor calculationExecutor;
+  private final ChartRendererType defaultRenderer;
+  private final IndexedPngEncoder pngEncoder;
+  private final String renderVersion;
+  private final int maxWidth;
+  private final int maxHeight;
 
-  public ChartRestController(final LocationRegistry locationRegistry) {
+  public ChartRestController(
+      final LocationRegistry locationRegistry,
+      final ChartImageCache chartImageCache,
+      @Value("${daylightchart.parallel-calculation:false}") final boolean parallelCalculation,
+      @Value("${daylightchart.chart-renderer:jfreechart}") final ChartRendererType defaultRenderer,
+      @Value("${daylightchart.png.filter:none}") final PngFilterType pngFilter,
+      @Value("${daylightchart.png.compression-level:9}") final int pngCompressionLevel,
+      @Value("${daylightchart.chart-size.max-width:1920}") final int maxWidth,
+      @Value("${daylightchart.chart-size.max-height:1080}") final int maxHeight) {
     this.locationRegistry = locationRegistry;
+    this.chartImageCache = chartImageCache;
+    calculationExecutor = parallelCalculation ? ForkJoinPool.commonPool() : null;
+    this.defaultRenderer = defaultRenderer;
+    pngEncoder = new IndexedPngEncoder(pngFilter, pngCompressionLevel);
+    renderVersion = RENDER_VERSION + "/" + pngFilter + "/" + pngCompressionLevel;
+    this.maxWidth = Math.max(MIN_WIDTH, maxWidth);
+    this.maxHeight = Math.max(MIN_HEIGHT, maxHeight);
   }
 
   private static final int MIN_WIDTH = 640;
-  private static final int MAX_WIDTH = 1920;
+  private static final int MIN_HEIGHT = MIN_WIDTH * 9 / 16;
   private static final int DEFAULT_WIDTH = 1024;
 
-  @GetMapping(value = "/api/chart", produces = MediaType.IMAGE_PNG_VALUE)
-  public ResponseEntity<StreamingResponseBody> chart(
+  @GetMapping(
+      value = "/api/chart",
+      produces = {MediaType.IMAGE_PNG_VALUE, "image/svg+xml"})
+  public ResponseEntity<?> chart(
       @RequestParam(name = "locationKey", required = false) final String locationKey,
       @RequestParam(name = "width", required = false) final Integer requestedWidth,
       @RequestParam(name = "height", required = false) final Integer requestedHeight,
       @RequestParam(name = "twilightType", required = false) final String twilightTypeName,
       @RequestParam(name = "orientation", required = false) final String orientationName,
-      @RequestParam(name = "showLegend", required = false) final Boolean showLegend)
+      @RequestParam(name = "showLegend", required = false) final Boolean showLegend,
+      @RequestParam(name = "renderer", required = false) final String rendererName,
+      @RequestParam(name = "format", required = false) final String formatName,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+      final HttpServletResponse response)
       throws IOException {
     final Location location = resolveLocation(locationKey);
-    final int width = clamp(requestedWidth, MIN_WIDTH, MAX_WIDTH, DEFAULT_WIDTH);
+    final int width = clamp(requestedWidth, MIN_WIDTH, maxWidth, DEFAULT_WIDTH);
     final int height =
         requestedHeight != null
-            ? clamp(requestedHeight, MIN_WIDTH * 9 / 16, MAX_WIDTH * 9 / 16, DEFAULT_WIDTH * 9 / 16)
-            : Math.round(width * 9f / 16f);
+            ? clamp(requestedHeight, MIN_HEIGHT, maxHeight, DEFAULT_WIDTH * 9 / 16)
+            : Math.min(maxHeight, Math.round(width * 9f / 16f));
 
     final Options options = new Options();
     if (twilightTypeName != null) {
@@ -86,21 +156,72 @@ public class ChartRestController {
     if (showLegend != null) {
       options.setShowChartLegend(showLegend);
     }
+    ChartRendererType renderer = defaultRenderer;
+    if (rendererName != null) {
+      try {
+        renderer = ChartRendererType.valueOf(rendererName.toLowerCase());
+      } catch (final IllegalArgumentException ignored) {
+        /* keep the configured renderer */
+      }
+    }
+    final ChartFileType format =
+        "svg".equalsIgnoreCase(formatName) ? ChartFileType.svg : ChartFileType.png;
+    // SVG images are always drawn by the fast painter, whatever the renderer, so the renderer is
+    // left out of their key; poster-size PNG images are always drawn by the fast renderer
+    final boolean poster =
+        format == ChartFileType.png && DaylightChartReport.isDrawnInStrips(width, height);
+    final ChartRendererType chartRenderer;
+    if (format == ChartFileType.svg) {
+      chartRenderer = null;
+    } else if (poster) {
+      chartRenderer = ChartRendererType.fast;
+    } else {
+      chartRenderer = renderer;
+    }
 
-    final DaylightChartReport report =
-        DaylightChartReportService.reports().createReport(location, options, defaultChartOptions);
-
-    final StreamingResponseBody body =
-        outputStream -> {
-          try (final BufferedOutputStream bufferedOut = new BufferedOutputStream(outputStream)) {
-            ChartUtils.writeChartAsPNG(bufferedOut, report.getChart(), width, height);
-            bufferedOut.flush();
-          } catch (final IOException e) {
-            LOGGER.log(Level.WARNING, "Could not stream chart image");
-          }
-        };
-
-    return ResponseEntity.ok().contentType(MediaType.IMAGE_PNG).body(body);
+    final ChartImageKey key =
+        new ChartImageKey(
+            renderVersion,
+            location.deduplicationKey(),
+            location.getDescription(),
+            location.getPointLocation().getLatitude().getDegrees(),
+            location.getPointLocation().getLongitude().getDegrees(),
+            location.getTimeZoneId(),
+            Year.now().getValue(),
+            width,
+            height,
+            options.getTwilightType(),
+            options.getChartOrientation(),
+            options.isShowChartLegend(),
+            chartRenderer,
+            format,
+            defaultChartOptionsFingerprint);
+    final String eTag = ChartImageCache.eTag(key);
+    if (matches(ifNoneMatch, eTag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(eTag)
+          .cacheControl(CACHE_CONTROL)
+          .build();
+    }
+    if (poster) {
+      // Poster-size images are streamed as they are drawn, and are not cached
+      response.setContentType(MediaType.IMAGE_PNG_VALUE);
+      response.setHeader(HttpHeaders.ETAG, eTag);
+      response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+      writeChart(
+          response.getOutputStream(), location, options, width, height, chartRenderer, format);
+      return null;
+    }
+    final ChartImageCache.CachedImage image =
+        chartImageCache.get(
+            key, () -> renderChart(location, options, width, height, chartRenderer, format));
+
+    return ResponseEntity.ok()
+        .contentType(format == ChartFileType.svg ? IMAGE_SVG : MediaType.IMAGE_PNG)
+        .contentLength(image.bytes().length)
+        .eTag(image.eTag())
+        .cacheControl(CACHE_CONTROL)
+        .body(image.bytes());
   }
 
   @GetMapping(value = "/api/locations/default", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -108,14 +229,57 @@ public class ChartRestController {
     return LocationDto.from(BOSTON);
   }
 
+  private byte[] renderChart(
+      final Location location,
+      final Options options,
+      final int width,
+      final int height,
+      final ChartRendererType renderer,
+      final ChartFileType format)
+      throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeChart(out, location, options, width, height, renderer, format);
+    return out.toByteArray();
+  }
+
+  private void writeChart(
+      final OutputStream out,
+      final Location location,
+      final Options options,
+      final int width,
+      final int height,
+      final ChartRendererType renderer,
+      final ChartFileType format)
+      throws IOException {
+    final DaylightChartReport report =
+        DaylightChartReportService.reports()
+            .createReport(location, options, defaultChartOptions, calculationExecutor);
+    if (format == ChartFileType.svg) {
+      report.writeChartAsSVG(out, width, height);
+    } else {
+      report.writeChartAsPNG(out, width, height, renderer, pngEncoder);
+    }
+  }
+
   private Location resolveLocation(final String locationKey) {
     if (locationKey == null || locationKey.isBlank()) {
       return BOSTON;
     }
-    return locationRegistry.getAllLocations().stream()
-        .filter(loc -> loc.deduplicationKey().equals(locationKey))
-        .findFirst()
-        .orElse(BOSTON);
+    return locationRegistry.findByKey(locationKey).orElse(BOSTON);
+  }
+
+  /** Whether an If-None-Match header matches an entity tag, comparing tags weakly. */
+  private static boolean matches(final String ifNoneMatch, final String eTag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    final ETag current = ETag.create(eTag);
+    for (final ETag candidate : ETag.parse(ifNoneMatch)) {
+      if (candidate.isWildcard() || candidate.compare(current, false)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   private static int clamp(final Integer value, final int min, final int max, final int fallback) {
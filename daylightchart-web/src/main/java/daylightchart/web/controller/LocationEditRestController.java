@@ -58,7 +58,8 @@ public class LocationEditRestController {
 
   /**
    * Replace an existing location identified by {@code key}. Returns 200 OK with the updated {@link
-   * LocationDto}, or 404 if the key is not found.
+   * LocationDto}, 404 if the key is not found, or 409 if the updated location has the key of
+   * another location.
    */
   @PutMapping(
       value = "/api/locations",
@@ -71,8 +72,13 @@ public class LocationEditRestController {
     }
     try {
       final Location newLocation = buildLocation(input);
-      locationRegistry.removeLocation(key);
-      locationRegistry.addLocations(List.of(newLocation));
+      if (!locationRegistry.replaceLocation(key, newLocation)) {
+        if (locationRegistry.findByKey(key).isEmpty()) {
+          return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(Map.of("error", "Location already exists: " + newLocation.deduplicationKey()));
+      }
       return ResponseEntity.ok(LocationDto.from(newLocation));
     } catch (final IllegalArgumentException e) {
       return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
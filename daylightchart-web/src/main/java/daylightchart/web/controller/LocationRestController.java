@@ -1,33 +1,144 @@
 package daylightchart.web.controller;
 
+import daylightchart.web.dto.LocationClusterDto;
 import daylightchart.web.dto.LocationDto;
+import daylightchart.web.dto.NearestLocationDto;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import org.geoname.data.Location;
 import org.geoname.data.LocationRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import us.fatehi.pointlocation6709.Angle;
+import us.fatehi.pointlocation6709.Latitude;
+import us.fatehi.pointlocation6709.Longitude;
+import us.fatehi.pointlocation6709.PointLocation;
 
 @RestController
 public class LocationRestController {
 
   private final LocationRegistry locationRegistry;
+  private final int defaultPageSize;
 
-  public LocationRestController(final LocationRegistry locationRegistry) {
+  public LocationRestController(
+      final LocationRegistry locationRegistry,
+      @Value("${daylightchart.locations.page-size:1000}") final int defaultPageSize) {
     this.locationRegistry = locationRegistry;
+    this.defaultPageSize = Math.max(1, Math.min(MAX_LIMIT, defaultPageSize));
   }
 
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int MAX_LIMIT = 10_000;
+  private static final int DEFAULT_SEARCH_LIMIT = 100;
+  private static final int DEFAULT_NEAREST = 10;
+  private static final int MAX_NEAREST = 1_000;
+
+  /**
+   * Returns one page of locations in sort order, of the given {@code limit}, or of the configured
+   * page size if no limit is given. If there are more locations, the cursor for the next page is
+   * returned in the {@code X-Next-Cursor} header. If a query is given, locations that match it are
+   * returned in rank order from the search index instead, up to the limit, or 100 locations if no
+   * limit is given, and without a cursor.
+   */
   @GetMapping(value = "/api/locations", produces = MediaType.APPLICATION_JSON_VALUE)
-  public List<LocationDto> allLocations(
-      @RequestParam(name = "q", required = false) final String query) {
-    final var all = locationRegistry.getAllLocations();
-    if (query == null || query.isBlank()) {
-      return all.stream().map(LocationDto::from).toList();
+  public ResponseEntity<List<LocationDto>> allLocations(
+      @RequestParam(name = "q", required = false) final String query,
+      @RequestParam(name = "limit", required = false) final Integer limit,
+      @RequestParam(name = "cursor", required = false) final String cursor) {
+    if (query != null && !query.isBlank()) {
+      final int searchLimit =
+          limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(MAX_LIMIT, limit));
+      return ResponseEntity.ok(toDtos(locationRegistry.search(query, searchLimit)));
+    }
+
+    final String after;
+    try {
+      after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    // Fetch one extra location, to know whether there is a next page
+    final int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(MAX_LIMIT, limit));
+    final List<Location> locations = locationRegistry.getLocations(after, pageSize + 1);
+    final List<Location> page = locations.subList(0, Math.min(pageSize, locations.size()));
+    final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (locations.size() > pageSize) {
+      response.header(
+          NEXT_CURSOR_HEADER, encodeCursor(LocationRegistry.sortKey(page.get(pageSize - 1))));
     }
-    final String lower = query.strip().toLowerCase();
-    return all.stream()
-        .filter(loc -> loc.getDescription().toLowerCase().contains(lower))
-        .map(LocationDto::from)
-        .toList();
+    return response.body(toDtos(page));
+  }
+
+  /**
+   * Returns the locations nearest to a point, nearest first, by great-circle distance. Returns 400
+   * if the latitude or longitude is out of range.
+   */
+  @GetMapping(value = "/api/locations/nearest", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<NearestLocationDto>> nearestLocations(
+      @RequestParam(name = "lat") final double latitude,
+      @RequestParam(name = "lon") final double longitude,
+      @RequestParam(name = "k", required = false) final Integer k) {
+    if (!(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+      return ResponseEntity.badRequest().build();
+    }
+    final PointLocation point =
+        new PointLocation(
+            new Latitude(Angle.fromDegrees(latitude)), new Longitude(Angle.fromDegrees(longitude)));
+    final int count = k == null ? DEFAULT_NEAREST : Math.max(1, Math.min(MAX_NEAREST, k));
+    return ResponseEntity.ok(
+        locationRegistry.nearest(point, count).stream()
+            .map(location -> NearestLocationDto.from(location, point))
+            .toList());
+  }
+
+  /**
+   * Returns clustered locations in a Web Mercator map tile, with a count, mean position, and
+   * representative location for each cell of an 8 by 8 grid over the tile. Returns 400 if the tile
+   * is out of range.
+   */
+  @GetMapping(
+      value = "/api/locations/tiles/{z}/{x}/{y}",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<LocationClusterDto>> locationTile(
+      @PathVariable("z") final int zoom,
+      @PathVariable("x") final int x,
+      @PathVariable("y") final int y) {
+    try {
+      return ResponseEntity.ok(
+          locationRegistry.clusters(zoom, x, y).stream().map(LocationClusterDto::from).toList());
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Returns the location with the given key, which is looked up directly in the registry. The key
+   * is a request parameter rather than a path segment, since city names may contain slashes.
+   * Returns 404 if the key is not found.
+   */
+  @GetMapping(value = "/api/locations", params = "key", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<LocationDto> location(@RequestParam("key") final String key) {
+    return ResponseEntity.of(locationRegistry.findByKey(key).map(LocationDto::from));
+  }
+
+  private static String decodeCursor(final String cursor) {
+    return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+  }
+
+  private static String encodeCursor(final String sortKey) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(sortKey.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static List<LocationDto> toDtos(final List<Location> locations) {
+    return locations.stream().map(LocationDto::from).toList();
   }
 }
@@ -1,7 +1,7 @@
 package daylightchart.web.controller;
 
 import daylightchart.chart.data.RiseSetData;
-import daylightchart.chart.data.RiseSetUtility;
+import daylightchart.chart.data.RiseSetYearCache;
 import daylightchart.chart.data.RiseSetYearData;
 import daylightchart.options.Options;
 import daylightchart.web.dto.RiseSetDayDto;
@@ -13,10 +13,13 @@ import java.time.LocalDateTime;
 import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoname.data.Location;
 import org.geoname.data.LocationRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +34,8 @@ import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBo
  * <ul>
  *   <li>{@code GET /api/riseset?locationKey=&year=} — JSON array of daily records
  *   <li>{@code GET /api/riseset/csv?locationKey=&year=} — same data as a CSV download
+ *   <li>{@code GET /api/riseset/cache} — hit, miss and eviction counts of the cache of calculated
+ *       years
  * </ul>
  */
 @RestController
@@ -51,8 +56,13 @@ public class RiseSetRestController {
 
   private final LocationRegistry locationRegistry;
 
-  public RiseSetRestController(final LocationRegistry locationRegistry) {
+  private final Executor calculationExecutor;
+
+  public RiseSetRestController(
+      final LocationRegistry locationRegistry,
+      @Value("${daylightchart.parallel-calculation:false}") final boolean parallelCalculation) {
     this.locationRegistry = locationRegistry;
+    calculationExecutor = parallelCalculation ? ForkJoinPool.commonPool() : null;
   }
 
   // ── JSON endpoint ────────────────────────────────────────────────────────
@@ -120,26 +130,35 @@ public class RiseSetRestController {
         .body(body);
   }
 
+  // ── Cache statistics endpoint ────────────────────────────────────────────
+
+  /**
+   * Returns statistics of the cache of calculated years, which is shared with the chart endpoints.
+   *
+   * @return Hits, misses, evictions, and the number and total weight of cached years.
+   */
+  @GetMapping(value = "/api/riseset/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+  public RiseSetYearCache.Statistics cacheStatistics() {
+    return RiseSetYearCache.riseSetYears().getStatistics();
+  }
+
   // ── Helpers ──────────────────────────────────────────────────────────────
 
   private Location resolveLocation(final String locationKey) {
     if (locationKey == null || locationKey.isBlank()) {
       return ChartRestController.BOSTON;
     }
-    return locationRegistry.getAllLocations().stream()
-        .filter(loc -> loc.deduplicationKey().equals(locationKey))
-        .findFirst()
-        .orElse(ChartRestController.BOSTON);
+    return locationRegistry.findByKey(locationKey).orElse(ChartRestController.BOSTON);
   }
 
   /**
-   * Builds DTOs by computing a full year of rise/set data and converting each day.
+   * Builds DTOs from a full year of rise/set data, which is cached, by converting each day.
    *
    * <p>Uses default {@link Options} (CIVIL twilight, local timezone), matching the chart defaults.
    */
   private List<RiseSetDayDto> buildDtos(final Location location, final int year) {
     final RiseSetYearData yearData =
-        RiseSetUtility.createRiseSetYear(location, year, new Options());
+        RiseSetYearCache.riseSetYears().get(location, year, new Options(), calculationExecutor);
     return yearData.getRiseSetData().stream().map(this::toDto).toList();
   }
 
@@ -0,0 +1,16 @@
+package daylightchart.web.dto;
+
+import org.geoname.data.LocationCluster;
+
+public record LocationClusterDto(
+    int count, double latitude, double longitude, String locationKey, String description) {
+
+  public static LocationClusterDto from(final LocationCluster cluster) {
+    return new LocationClusterDto(
+        cluster.count(),
+        cluster.latitude(),
+        cluster.longitude(),
+        cluster.representative().deduplicationKey(),
+        cluster.representative().getDescription());
+  }
+}
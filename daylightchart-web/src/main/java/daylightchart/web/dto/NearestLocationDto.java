@@ -0,0 +1,13 @@
+package daylightchart.web.dto;
+
+import org.geoname.data.Location;
+import org.geoname.data.utility.Utility;
+import us.fatehi.pointlocation6709.PointLocation;
+
+public record NearestLocationDto(LocationDto location, double distanceKilometers) {
+
+  public static NearestLocationDto from(final Location location, final PointLocation from) {
+    return new NearestLocationDto(
+        LocationDto.from(location), Utility.greatCircleDistance(from, location.getPointLocation()));
+  }
+}
@@ -0,0 +1,111 @@
+package daylightchart.web.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Least-recently-used cache of rendered chart images, bounded by the total size of the cached
+ * bytes. Each image carries a strong entity tag computed from its key, so that a tag can be checked
+ * without rendering the image, or even looking it up. Keys must therefore have a string form that
+ * includes everything that affects the rendered bytes, including a version of the renderer.
+ */
+@Service
+public class ChartImageCache {
+
+  /** Renders a chart image. */
+  @FunctionalInterface
+  public interface ImageRenderer {
+
+    byte[] render() throws IOException;
+  }
+
+  /**
+   * A rendered image.
+   *
+   * @param bytes Encoded image bytes
+   * @param eTag Strong entity tag, including quotes
+   */
+  public record CachedImage(byte[] bytes, String eTag) {}
+
+  /**
+   * Computes the strong entity tag of an image from its key.
+   *
+   * @param key Key made up of everything that affects the rendered image
+   * @return Strong entity tag, including quotes
+   */
+  public static String eTag(final Object key) {
+    try {
+      final byte[] digest =
+          MessageDigest.getInstance("SHA-256")
+              .digest(key.toString().getBytes(StandardCharsets.UTF_8));
+      return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private final long maximumBytes;
+  private final LinkedHashMap<Object, CachedImage> cache;
+  private long bytes;
+
+  public ChartImageCache(
+      @Value("${daylightchart.chart-cache.max-bytes:67108864}") final long maximumBytes) {
+    this.maximumBytes = maximumBytes;
+    cache = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Gets a rendered image from the cache, rendering and caching it if it is not present.
+   *
+   * @param key Key made up of everything that affects the rendered image
+   * @param renderer Renderer for the image
+   * @return Rendered image
+   */
+  public CachedImage get(final Object key, final ImageRenderer renderer) {
+    final CachedImage cached = lookup(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    final byte[] rendered;
+    try {
+      rendered = renderer.render();
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Could not render chart image", e);
+    }
+    final CachedImage image = new CachedImage(rendered, eTag(key));
+    put(key, image);
+    return image;
+  }
+
+  private synchronized CachedImage lookup(final Object key) {
+    return cache.get(key);
+  }
+
+  private synchronized void put(final Object key, final CachedImage image) {
+    if (image.bytes().length > maximumBytes) {
+      return;
+    }
+    final CachedImage previous = cache.put(key, image);
+    if (previous != null) {
+      bytes = bytes - previous.bytes().length;
+    }
+    bytes = bytes + image.bytes().length;
+
+    final Iterator<Map.Entry<Object, CachedImage>> iterator = cache.entrySet().iterator();
+    while (bytes > maximumBytes && iterator.hasNext()) {
+      bytes = bytes - iterator.next().getValue().bytes().length;
+      iterator.remove();
+    }
+  }
+}
@@ -5,15 +5,15 @@ import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.geoname.data.Location;
 import org.geoname.data.LocationRegistry;
 import org.geoname.parser.GNISFileParser;
 import org.geoname.parser.GNSCountryFileParser;
 import org.geoname.parser.LocationsListParser;
+import org.geoname.parser.LocationsParser;
 import org.geoname.parser.ParserException;
 import org.geoname.parser.resources.ResourceRefs;
 import org.springframework.stereotype.Service;
@@ -29,6 +29,26 @@ public class LocationFileLoaderService {
     return filename.toLowerCase().contains("_features_");
   }
 
+  /**
+   * Lists the GNS/GNIS zip files in a directory, in order of their names.
+   *
+   * @param directory directory to scan; ignored if null or does not exist
+   * @return zip files in the directory
+   * @throws IOException if the directory cannot be read
+   */
+  public static List<Path> listZipFiles(final Path directory) throws IOException {
+    if (directory == null || !Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (var stream = Files.list(directory)) {
+      return stream
+          .filter(Files::isRegularFile)
+          .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".zip"))
+          .sorted()
+          .toList();
+    }
+  }
+
   private final LocationRegistry locationRegistry;
 
   public LocationFileLoaderService(final LocationRegistry locationRegistry) {
@@ -41,14 +61,8 @@ public class LocationFileLoaderService {
    * @param directory directory to scan; ignored if null or does not exist
    */
   public void loadDirectory(final Path directory) {
-    if (directory == null || !Files.isDirectory(directory)) {
-      return;
-    }
-    try (var stream = Files.list(directory)) {
-      stream
-          .filter(Files::isRegularFile)
-          .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".zip"))
-          .forEach(this::loadZip);
+    try {
+      listZipFiles(directory).forEach(this::loadZip);
     } catch (final IOException e) {
       LOGGER.log(Level.WARNING, "Could not scan data directory: " + directory, e);
     }
@@ -61,12 +75,9 @@ public class LocationFileLoaderService {
    * @return total number of locations now in the registry
    */
   public int replaceWithGnis(final Path filePath) throws IOException, ParserException {
-    final Collection<Location> locations =
-        isZip(filePath)
-            ? parseGnis(filePath)
-            : new GNISFileParser(ResourceRefs.ofFile(filePath)).parseLocations();
-    locationRegistry.replaceLocations(locations);
-    return locationRegistry.size();
+    final LocationsParser parser =
+        isZip(filePath) ? gnisParser(filePath) : new GNISFileParser(ResourceRefs.ofFile(filePath));
+    return load(parser, locationRegistry.replacementLoader());
   }
 
   /**
@@ -76,12 +87,11 @@ public class LocationFileLoaderService {
    * @return total number of locations now in the registry
    */
   public int replaceWithGns(final Path filePath) throws IOException, ParserException {
-    final Collection<Location> locations =
+    final LocationsParser parser =
         isZip(filePath)
-            ? parseGns(filePath)
-            : new GNSCountryFileParser(ResourceRefs.ofFile(filePath)).parseLocations();
-    locationRegistry.replaceLocations(locations);
-    return locationRegistry.size();
+            ? gnsParser(filePath)
+            : new GNSCountryFileParser(ResourceRefs.ofFile(filePath));
+    return load(parser, locationRegistry.replacementLoader());
   }
 
   /**
@@ -91,10 +101,9 @@ public class LocationFileLoaderService {
    * @return total number of locations now in the registry
    */
   public int replaceWithData(final Path filePath) throws ParserException {
-    final Collection<Location> locations =
-        new LocationsListParser(ResourceRefs.ofFile(filePath)).parseLocations();
-    locationRegistry.replaceLocations(locations);
-    return locationRegistry.size();
+    return load(
+        new LocationsListParser(ResourceRefs.ofFile(filePath)),
+        locationRegistry.replacementLoader());
   }
 
   /**
@@ -107,10 +116,9 @@ public class LocationFileLoaderService {
   public int replaceWithZip(final Path zipPath) {
     final String filename = zipPath.getFileName().toString();
     try {
-      final Collection<Location> locations =
-          isGnisFile(filename) ? parseGnis(zipPath) : parseGns(zipPath);
-      locationRegistry.replaceLocations(locations);
-      final int total = locationRegistry.size();
+      final LocationsParser parser =
+          isGnisFile(filename) ? gnisParser(zipPath) : gnsParser(zipPath);
+      final int total = load(parser, locationRegistry.replacementLoader());
       LOGGER.log(
           Level.INFO,
           "Replaced registry with {0} locations from {1}",
@@ -131,11 +139,9 @@ public class LocationFileLoaderService {
   public int loadZip(final Path zipPath) {
     final String filename = zipPath.getFileName().toString();
     try {
-      final Collection<Location> locations =
-          isGnisFile(filename) ? parseGnis(zipPath) : parseGns(zipPath);
-      final int before = locationRegistry.size();
-      locationRegistry.addLocations(locations);
-      final int added = locationRegistry.size() - before;
+      final LocationsParser parser =
+          isGnisFile(filename) ? gnisParser(zipPath) : gnsParser(zipPath);
+      final int added = load(parser, locationRegistry.additionLoader());
       LOGGER.log(Level.INFO, "Loaded {0} new locations from {1}", new Object[] {added, filename});
       return added;
     } catch (final IOException | ParserException e) {
@@ -144,20 +150,32 @@ public class LocationFileLoaderService {
     }
   }
 
-  private Collection<Location> parseGns(final Path zipPath) throws IOException, ParserException {
+  /**
+   * Streams locations from a parser into the registry in batches, so that the parsed locations are
+   * never held in a separate collection, and publishes them in a single write.
+   *
+   * @return number of locations added to the registry
+   */
+  private static int load(final LocationsParser parser, final LocationRegistry.Loader loader)
+      throws ParserException {
+    parser.parseLocations(loader::add);
+    return loader.commit();
+  }
+
+  private LocationsParser gnsParser(final Path zipPath) throws IOException, ParserException {
     final String entry = firstEntry(zipPath);
     if (entry == null) {
-      return java.util.List.of();
+      return batches -> {};
     }
-    return new GNSCountryFileParser(ResourceRefs.ofZipEntry(zipPath, entry)).parseLocations();
+    return new GNSCountryFileParser(ResourceRefs.ofZipEntry(zipPath, entry));
   }
 
-  private Collection<Location> parseGnis(final Path zipPath) throws IOException, ParserException {
+  private LocationsParser gnisParser(final Path zipPath) throws IOException, ParserException {
     final String entry = firstEntry(zipPath);
     if (entry == null) {
-      return java.util.List.of();
+      return batches -> {};
     }
-    return new GNISFileParser(ResourceRefs.ofZipEntry(zipPath, entry)).parseLocations();
+    return new GNISFileParser(ResourceRefs.ofZipEntry(zipPath, entry));
   }
 
   private static boolean isZip(final Path filePath) {
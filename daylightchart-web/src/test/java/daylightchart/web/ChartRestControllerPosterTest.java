@@ -0,0 +1,71 @@
+package daylightchart.web;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(
+    properties = {
+      "daylightchart.chart-size.max-width=2400",
+      "daylightchart.chart-size.max-height=1800"
+    })
+@AutoConfigureMockMvc
+class ChartRestControllerPosterTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void posterSizeChartIsStreamed() throws Exception {
+    final byte[] png =
+        mockMvc
+            .perform(get("/api/chart").param("width", "2400").param("height", "1800"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_PNG))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    final BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+    assertThat(image.getWidth(), is(2400));
+    assertThat(image.getHeight(), is(1800));
+  }
+
+  @Test
+  void posterSizeChartIgnoresRenderer() throws Exception {
+    final String eTag =
+        mockMvc
+            .perform(
+                get("/api/chart")
+                    .param("width", "2400")
+                    .param("height", "1800")
+                    .param("renderer", "jfreechart"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(
+            get("/api/chart")
+                .param("width", "2400")
+                .param("height", "1800")
+                .param("renderer", "fast")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+  }
+}
@@ -1,18 +1,30 @@
 package daylightchart.web;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import javax.imageio.ImageIO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-@SpringBootTest
+@SpringBootTest(
+    properties = {
+      "daylightchart.chart-size.max-width=1600",
+      "daylightchart.chart-size.max-height=1200"
+    })
 @AutoConfigureMockMvc
 class ChartRestControllerTest {
 
@@ -35,21 +47,47 @@ class ChartRestControllerTest {
   }
 
   @Test
-  void chartEndpointAcceptsWidthAndHeight() throws Exception {
+  void chartEndpointAcceptsFastRenderer() throws Exception {
     mockMvc
-        .perform(get("/api/chart").param("width", "1024").param("height", "576"))
+        .perform(get("/api/chart").param("renderer", "fast"))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.IMAGE_PNG));
   }
 
   @Test
-  void chartEndpointClampsOversizedDimensions() throws Exception {
+  void chartEndpointReturnsSvg() throws Exception {
+    mockMvc
+        .perform(get("/api/chart").param("format", "svg").param("width", "800"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("image/svg+xml"))
+        .andExpect(content().string(containsString("<svg")))
+        .andExpect(content().string(containsString("viewBox=\"0 0 800 450\"")));
+  }
+
+  @Test
+  void chartEndpointAcceptsWidthAndHeight() throws Exception {
     mockMvc
-        .perform(get("/api/chart").param("width", "9999").param("height", "9999"))
+        .perform(get("/api/chart").param("width", "1024").param("height", "576"))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.IMAGE_PNG));
   }
 
+  @Test
+  void chartEndpointClampsOversizedDimensions() throws Exception {
+    final byte[] png =
+        mockMvc
+            .perform(get("/api/chart").param("width", "9999").param("height", "9999"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_PNG))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    final BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+    assertThat(image.getWidth(), is(1600));
+    assertThat(image.getHeight(), is(1200));
+  }
+
   @Test
   void chartEndpointFallsBackToBostonForUnknownKey() throws Exception {
     mockMvc
@@ -58,6 +96,54 @@ class ChartRestControllerTest {
         .andExpect(content().contentType(MediaType.IMAGE_PNG));
   }
 
+  @Test
+  void chartEndpointSendsETagAndContentLength() throws Exception {
+    mockMvc
+        .perform(get("/api/chart").param("width", "800"))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
+        .andExpect(header().exists(HttpHeaders.CONTENT_LENGTH))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age")));
+  }
+
+  @Test
+  void chartEndpointAnswersMatchingETagWithNotModified() throws Exception {
+    final String eTag =
+        mockMvc
+            .perform(get("/api/chart").param("width", "800"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/api/chart").param("width", "800").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    mockMvc
+        .perform(get("/api/chart").param("width", "801").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void svgChartIgnoresRenderer() throws Exception {
+    final String eTag =
+        mockMvc
+            .perform(get("/api/chart").param("format", "svg").param("renderer", "fast"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(
+            get("/api/chart")
+                .param("format", "svg")
+                .param("renderer", "jfreechart")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+  }
+
   @Test
   void defaultLocationReturnsBoston() throws Exception {
     mockMvc
@@ -87,6 +87,24 @@ class LocationEditRestControllerTest {
         .andExpect(jsonPath("$.error").isString());
   }
 
+  @Test
+  void addedLocationWithSlashInCityCanBeLookedUpByKey() throws Exception {
+    final String body =
+        """
+        {"city":"Sint-Andries/Brugge","countryCode":"BE","timeZoneId":"Europe/Brussels","latitude":51.2,"longitude":3.2}
+        """;
+
+    mockMvc
+        .perform(post("/api/locations").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.locationKey").value("Sint-Andries/Brugge||BE"));
+
+    mockMvc
+        .perform(get("/api/locations").param("key", "Sint-Andries/Brugge||BE"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.city").value("Sint-Andries/Brugge"));
+  }
+
   // ── Update ───────────────────────────────────────────────────────────────
 
   @Test
@@ -111,6 +129,29 @@ class LocationEditRestControllerTest {
         is(equalTo(registrySizeAtStart)));
   }
 
+  @Test
+  void updateToAnotherLocationsKeyReturns409() throws Exception {
+    final String body =
+        """
+        {"city":"Chicago","countryCode":"US","timeZoneId":"America/Chicago","latitude":41.85,"longitude":-87.65,"adminCode":"US-IL"}
+        """;
+
+    mockMvc
+        .perform(
+            put("/api/locations")
+                .param("key", "Boston|US-MA|US")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.error").isString());
+
+    assertThat(locationRegistry.findByKey("Boston|US-MA|US").isPresent(), is(true));
+    assertThat(
+        "Registry size should be unchanged after a rejected update",
+        locationRegistry.size(),
+        is(equalTo(registrySizeAtStart)));
+  }
+
   @Test
   void updateUnknownKeyReturns404() throws Exception {
     final String body =
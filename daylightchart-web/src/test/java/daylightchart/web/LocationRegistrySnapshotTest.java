@@ -0,0 +1,65 @@
+package daylightchart.web;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import daylightchart.web.config.LocationRegistryConfig;
+import java.nio.file.Path;
+import java.util.List;
+import org.geoname.data.Countries;
+import org.geoname.data.Location;
+import org.geoname.data.LocationRegistry;
+import org.geoname.parser.LocationSnapshotFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import us.fatehi.pointlocation6709.Angle;
+import us.fatehi.pointlocation6709.Latitude;
+import us.fatehi.pointlocation6709.Longitude;
+import us.fatehi.pointlocation6709.PointLocation;
+
+class LocationRegistrySnapshotTest {
+
+  private static final Location ADDED =
+      new Location(
+          "Snapshot Town",
+          Countries.lookupCountry("FR"),
+          "Europe/Paris",
+          new PointLocation(
+              new Latitude(Angle.fromDegrees(48.1)), new Longitude(Angle.fromDegrees(2.1))));
+
+  @TempDir Path tempDir;
+
+  @Test
+  void registryIsLoadedFromSnapshotWhenSourcesAreUnchanged() throws Exception {
+    final Path snapshotFile = tempDir.resolve("locations.snapshot");
+
+    final LocationRegistryConfig config = config(snapshotFile);
+    final LocationRegistry locationRegistry = config.locationRegistry();
+    locationRegistry.addLocations(List.of(ADDED));
+    config.saveSnapshot(locationRegistry);
+
+    final LocationRegistry restarted = config(snapshotFile).locationRegistry();
+    assertThat(restarted.size(), is(locationRegistry.size()));
+    assertThat(restarted.findByKey(ADDED.deduplicationKey()).isPresent(), is(true));
+    assertThat(
+        List.copyOf(restarted.getAllLocations()),
+        is(List.copyOf(locationRegistry.getAllLocations())));
+  }
+
+  @Test
+  void registryIsReloadedWhenSnapshotIsOutOfDate() throws Exception {
+    final Path snapshotFile = tempDir.resolve("locations.snapshot");
+    LocationSnapshotFormatter.formatLocations(List.of(ADDED), List.of(), snapshotFile);
+
+    final LocationRegistry locationRegistry = config(snapshotFile).locationRegistry();
+    assertThat(locationRegistry.findByKey(ADDED.deduplicationKey()).isPresent(), is(false));
+    assertThat(locationRegistry.size() > 1, is(true));
+  }
+
+  private static LocationRegistryConfig config(final Path snapshotFile) {
+    final LocationRegistryConfig config = new LocationRegistryConfig();
+    ReflectionTestUtils.setField(config, "snapshotFile", snapshotFile.toString());
+    return config;
+  }
+}
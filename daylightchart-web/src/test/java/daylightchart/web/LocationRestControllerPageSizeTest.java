@@ -0,0 +1,62 @@
+package daylightchart.web;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import daylightchart.web.dto.LocationDto;
+import java.util.ArrayList;
+import java.util.List;
+import org.geoname.data.LocationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = "daylightchart.locations.page-size=10")
+@AutoConfigureMockMvc
+class LocationRestControllerPageSizeTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private LocationRegistry locationRegistry;
+
+  @Test
+  void locationsWithoutLimitReturnOnePage() throws Exception {
+    mockMvc
+        .perform(get("/api/locations"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(10))
+        .andExpect(header().exists("X-Next-Cursor"));
+  }
+
+  @Test
+  void pagesWithoutLimitCoverAllLocations() throws Exception {
+    final List<LocationDto> paged = new ArrayList<>();
+    String cursor = null;
+    do {
+      final MvcResult result =
+          mockMvc
+              .perform(
+                  cursor == null
+                      ? get("/api/locations")
+                      : get("/api/locations").param("cursor", cursor))
+              .andExpect(status().isOk())
+              .andReturn();
+      paged.addAll(
+          objectMapper.readValue(
+              result.getResponse().getContentAsString(),
+              new TypeReference<List<LocationDto>>() {}));
+      cursor = result.getResponse().getHeader("X-Next-Cursor");
+    } while (cursor != null);
+
+    assertThat(paged.size(), is(locationRegistry.size()));
+  }
+}
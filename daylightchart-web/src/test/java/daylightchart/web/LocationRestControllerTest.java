@@ -1,8 +1,10 @@
 package daylightchart.web;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.empty;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -12,7 +14,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.ObjectMapper;
+import daylightchart.web.dto.LocationClusterDto;
 import daylightchart.web.dto.LocationDto;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -95,6 +99,15 @@ class LocationRestControllerTest {
         .andExpect(jsonPath("$[?(@.city == 'Boston')]").isNotEmpty());
   }
 
+  @Test
+  void queryFilterReturnsLocationsInRankOrder() throws Exception {
+    // A match at the start of a word ranks before a match inside a word, whatever the sort order
+    mockMvc
+        .perform(get("/api/locations").param("q", "ang"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].city", contains("Los Angeles", "Bangkok")));
+  }
+
   @Test
   void queryFilterIsCaseInsensitive() throws Exception {
     final MvcResult lower =
@@ -127,4 +140,97 @@ class LocationRestControllerTest {
         withBlankQ.getResponse().getContentAsString(),
         is(withoutQ.getResponse().getContentAsString()));
   }
+
+  @Test
+  void locationByKeyReturnsLocation() throws Exception {
+    mockMvc
+        .perform(get("/api/locations").param("key", "Paris||FR"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.locationKey").value("Paris||FR"))
+        .andExpect(jsonPath("$.city").value("Paris"));
+  }
+
+  @Test
+  void locationByUnknownKeyReturnsNotFound() throws Exception {
+    mockMvc
+        .perform(get("/api/locations").param("key", "Unknown||XX"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void pagesWithCursorCoverAllLocations() throws Exception {
+    final List<LocationDto> all = readLocations(mockMvc.perform(get("/api/locations")).andReturn());
+
+    final List<LocationDto> paged = new ArrayList<>();
+    String cursor = null;
+    do {
+      final MvcResult result =
+          mockMvc
+              .perform(
+                  cursor == null
+                      ? get("/api/locations").param("limit", "7")
+                      : get("/api/locations").param("limit", "7").param("cursor", cursor))
+              .andExpect(status().isOk())
+              .andReturn();
+      final List<LocationDto> page = readLocations(result);
+      assertThat(page.size(), is(lessThanOrEqualTo(7)));
+      paged.addAll(page);
+      cursor = result.getResponse().getHeader("X-Next-Cursor");
+    } while (cursor != null);
+
+    assertThat(paged, is(all));
+  }
+
+  @Test
+  void invalidCursorReturnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/api/locations").param("limit", "7").param("cursor", "not base64!"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private List<LocationDto> readLocations(final MvcResult result) throws Exception {
+    return objectMapper.readValue(
+        result.getResponse().getContentAsString(), new TypeReference<>() {});
+  }
+
+  @Test
+  void nearestLocationsAreOrderedByDistance() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/locations/nearest").param("lat", "48.85").param("lon", "2.35").param("k", "3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$[0].location.city").value("Paris"))
+        .andExpect(jsonPath("$[0].distanceKilometers").isNumber())
+        .andExpect(jsonPath("$[1].location.city").value("London"));
+  }
+
+  @Test
+  void nearestLocationsRejectsInvalidLatitude() throws Exception {
+    mockMvc
+        .perform(get("/api/locations/nearest").param("lat", "91").param("lon", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void worldTileClustersAllLocations() throws Exception {
+    final int total = readLocations(mockMvc.perform(get("/api/locations")).andReturn()).size();
+    final MvcResult result =
+        mockMvc
+            .perform(get("/api/locations/tiles/0/0/0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].count").isNumber())
+            .andExpect(jsonPath("$[0].locationKey").isString())
+            .andReturn();
+    final List<LocationClusterDto> clusters =
+        objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+    assertThat(clusters.stream().mapToInt(LocationClusterDto::count).sum(), is(total));
+  }
+
+  @Test
+  void tileOutOfRangeReturnsBadRequest() throws Exception {
+    mockMvc.perform(get("/api/locations/tiles/2/4/0")).andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/locations/tiles/25/0/0")).andExpect(status().isBadRequest());
+  }
 }
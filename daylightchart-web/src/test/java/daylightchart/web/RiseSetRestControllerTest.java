@@ -111,4 +111,22 @@ class RiseSetRestControllerTest {
         .andExpect(content().contentTypeCompatibleWith("text/csv"))
         .andExpect(header().string("Content-Disposition", containsString("attachment")));
   }
+
+  // ── Cache statistics endpoint ────────────────────────────────────────────
+
+  @Test
+  void cacheStatisticsCountRepeatedYearAsHit() throws Exception {
+    mockMvc.perform(get("/api/riseset").param("year", "2031")).andExpect(status().isOk());
+    mockMvc.perform(get("/api/riseset").param("year", "2031")).andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/riseset/cache"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.hits").value(greaterThan(0)))
+        .andExpect(jsonPath("$.misses").value(greaterThan(0)))
+        .andExpect(jsonPath("$.size").value(greaterThan(0)))
+        .andExpect(jsonPath("$.evictions").exists())
+        .andExpect(jsonPath("$.weight").value(greaterThan(0)));
+  }
 }
@@ -98,6 +98,21 @@ public final class Countries {
     return iso3166_alpha3Map.get(iso3166CountryCode3);
   }
 
+  /**
+   * Looks up the shared instance of a country, so that locations in the same country share one
+   * country object.
+   *
+   * @param country Country
+   * @return Shared country object, or the country itself if it is not in the internal database
+   */
+  static Country canonical(final Country country) {
+    if (Country.UNKNOWN.equals(country)) {
+      return Country.UNKNOWN;
+    }
+    final Country knownCountry = iso3166_alpha2Map.get(country.alpha2Code());
+    return country.equals(knownCountry) ? knownCountry : country;
+  }
+
   private static void loadISO3166_1() {
     final String dataResource = "iso3166-1.data";
     final CSVFormat format =
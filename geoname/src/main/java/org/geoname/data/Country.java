@@ -10,6 +10,7 @@ package org.geoname.data;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.Serial;
 import java.io.Serializable;
 
 /** Country, with ISO 3166 country code, and FIPS 10 country code. */
@@ -51,4 +52,9 @@ public record Country(String name, String alpha2Code, String alpha3Code)
   public String toString() {
     return name;
   }
+
+  @Serial
+  private Object readResolve() {
+    return Countries.canonical(this);
+  }
 }
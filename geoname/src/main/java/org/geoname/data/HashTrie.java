@@ -0,0 +1,304 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Immutable hash array mapped trie of elements by a string key. Each level of the trie is indexed
+ * by five bits of the hash of the key, and holds only the slots that are used, so a lookup reads a
+ * few small arrays. New versions of the trie copy only the path from the root to each changed slot,
+ * so that adding or removing an element does not copy the trie, and readers of an older version are
+ * not affected. A batch of elements copies each node at most once.
+ *
+ * @param <E> Type of elements
+ */
+final class HashTrie<E> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  /** Elements with hashes that are equal in every bit are kept in a list below the last level. */
+  private static final int MAXIMUM_SHIFT = 30;
+
+  private static final Node EMPTY_ROOT = new Node(null, 0, new Object[0]);
+
+  /**
+   * Creates an empty trie.
+   *
+   * @param key Key of an element
+   * @return Empty trie
+   */
+  static <E> HashTrie<E> empty(final Function<? super E, String> key) {
+    return new HashTrie<>(key, EMPTY_ROOT, 0);
+  }
+
+  private static int hash(final String elementKey) {
+    final int hash = elementKey.hashCode();
+    return hash ^ hash >>> 16;
+  }
+
+  private final Function<? super E, String> key;
+  private final Node root;
+  private final int size;
+
+  private HashTrie(final Function<? super E, String> key, final Node root, final int size) {
+    this.key = key;
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Element with a key.
+   *
+   * @param elementKey Key
+   * @return Element, or {@code null} if there is none with the key
+   */
+  E get(final String elementKey) {
+    return get(root, elementKey);
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Builds a new trie with an element, which replaces any element with the same key.
+   *
+   * @param element Element to add
+   * @return New trie
+   */
+  HashTrie<E> with(final E element) {
+    return withAll(List.of(element));
+  }
+
+  /**
+   * Builds a new trie with elements, which replace any elements with the same key.
+   *
+   * @param elements Elements to add
+   * @return New trie
+   */
+  HashTrie<E> withAll(final Collection<? extends E> elements) {
+    if (elements.isEmpty()) {
+      return this;
+    }
+    final Object owner = new Object();
+    Node next = root;
+    int nextSize = size;
+    for (final E element : elements) {
+      final String elementKey = key.apply(element);
+      if (get(next, elementKey) == null) {
+        nextSize++;
+      }
+      next = insert(next, 0, hash(elementKey), elementKey, element, owner);
+    }
+    return new HashTrie<>(key, next, nextSize);
+  }
+
+  private E get(final Node root, final String elementKey) {
+    final int hash = hash(elementKey);
+    Node node = root;
+    for (int shift = 0; !node.isCollision(); shift += BITS) {
+      final int bit = 1 << (hash >>> shift & MASK);
+      if ((node.bitmap & bit) == 0) {
+        return null;
+      }
+      final Object slot = node.slots[Integer.bitCount(node.bitmap & bit - 1)];
+      if (!(slot instanceof final Node child)) {
+        return key.apply(element(slot)).equals(elementKey) ? element(slot) : null;
+      }
+      node = child;
+    }
+    final int index = node.indexOf(elementKey, this);
+    return index >= 0 ? element(node.slots[index]) : null;
+  }
+
+  /**
+   * Builds a new trie without the element with a key.
+   *
+   * @param elementKey Key of the element to remove
+   * @return New trie, or this trie if there is no element with the key
+   */
+  HashTrie<E> without(final String elementKey) {
+    if (get(elementKey) == null) {
+      return this;
+    }
+    final Object next = remove(root, 0, hash(elementKey), elementKey);
+    final Node nextRoot;
+    if (next instanceof final Node node) {
+      nextRoot = node;
+    } else if (next == null) {
+      nextRoot = EMPTY_ROOT;
+    } else {
+      // The root keeps its last element in a slot, rather than in place of the root
+      final E last = element(next);
+      nextRoot = insert(EMPTY_ROOT, 0, hash(key.apply(last)), key.apply(last), last, null);
+    }
+    return new HashTrie<>(key, nextRoot, size - 1);
+  }
+
+  @SuppressWarnings("unchecked")
+  private E element(final Object slot) {
+    return (E) slot;
+  }
+
+  /** Inserts an element under a node, and returns the new node, which belongs to a batch. */
+  private Node insert(
+      final Node node,
+      final int shift,
+      final int hash,
+      final String elementKey,
+      final E element,
+      final Object owner) {
+    final Node editable = node.editable(owner);
+    if (editable.isCollision()) {
+      final int index = editable.indexOf(elementKey, this);
+      if (index >= 0) {
+        editable.slots[index] = element;
+      } else {
+        editable.slots = Arrays.copyOf(editable.slots, editable.slots.length + 1);
+        editable.slots[editable.slots.length - 1] = element;
+      }
+      return editable;
+    }
+
+    final int bit = 1 << (hash >>> shift & MASK);
+    final int index = Integer.bitCount(editable.bitmap & bit - 1);
+    if ((editable.bitmap & bit) == 0) {
+      final Object[] slots = new Object[editable.slots.length + 1];
+      System.arraycopy(editable.slots, 0, slots, 0, index);
+      slots[index] = element;
+      System.arraycopy(editable.slots, index, slots, index + 1, editable.slots.length - index);
+      editable.slots = slots;
+      editable.bitmap |= bit;
+      return editable;
+    }
+    final Object slot = editable.slots[index];
+    if (slot instanceof final Node child) {
+      editable.slots[index] = insert(child, shift + BITS, hash, elementKey, element, owner);
+      return editable;
+    }
+    final String slotKey = key.apply(element(slot));
+    if (slotKey.equals(elementKey)) {
+      editable.slots[index] = element;
+    } else {
+      editable.slots[index] =
+          pair(shift + BITS, element(slot), hash(slotKey), element, hash, owner);
+    }
+    return editable;
+  }
+
+  /** Node for two elements with different keys, with hashes that are equal below a shift. */
+  private Node pair(
+      final int shift,
+      final E first,
+      final int firstHash,
+      final E second,
+      final int secondHash,
+      final Object owner) {
+    if (shift > MAXIMUM_SHIFT) {
+      return new Node(owner, 0, new Object[] {first, second});
+    }
+    final int firstIndex = firstHash >>> shift & MASK;
+    final int secondIndex = secondHash >>> shift & MASK;
+    if (firstIndex == secondIndex) {
+      return new Node(
+          owner,
+          1 << firstIndex,
+          new Object[] {pair(shift + BITS, first, firstHash, second, secondHash, owner)});
+    }
+    final Object[] slots =
+        firstIndex < secondIndex ? new Object[] {first, second} : new Object[] {second, first};
+    return new Node(owner, 1 << firstIndex | 1 << secondIndex, slots);
+  }
+
+  /**
+   * Removes an element with a key that is in the trie, and returns the new node, the last element
+   * of the node if only one is left, or {@code null} if the node is empty.
+   */
+  private Object remove(final Node node, final int shift, final int hash, final String elementKey) {
+    if (node.isCollision()) {
+      final Object[] slots = node.slotsWithout(node.indexOf(elementKey, this));
+      return slots.length == 1 ? slots[0] : new Node(null, node.bitmap, slots);
+    }
+
+    final int bit = 1 << (hash >>> shift & MASK);
+    final int index = Integer.bitCount(node.bitmap & bit - 1);
+    final Object slot = node.slots[index];
+    final Object next =
+        slot instanceof final Node child ? remove(child, shift + BITS, hash, elementKey) : null;
+    if (next == null) {
+      if (node.slots.length == 1) {
+        return null;
+      }
+      final Object[] slots = node.slotsWithout(index);
+      if (slots.length == 1 && !(slots[0] instanceof Node)) {
+        return slots[0];
+      }
+      return new Node(null, node.bitmap & ~bit, slots);
+    }
+    if (node.slots.length == 1 && !(next instanceof Node)) {
+      return next;
+    }
+    return new Node(null, node.bitmap, node.slotsWith(index, next));
+  }
+
+  /**
+   * Node of the trie, with a slot for each bit that is set in the bitmap, in bit order. A slot
+   * holds an element, or a child node for elements with hashes that are equal up to that level. A
+   * collision node, with an empty bitmap, holds elements with equal hashes, in any order. Nodes are
+   * only changed by the batch that created them, which is identified by its owner, and are
+   * immutable once they are published.
+   */
+  private static final class Node {
+
+    private final Object owner;
+    private int bitmap;
+    private Object[] slots;
+
+    Node(final Object owner, final int bitmap, final Object[] slots) {
+      this.owner = owner;
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    Node editable(final Object owner) {
+      return owner != null && this.owner == owner ? this : new Node(owner, bitmap, slots.clone());
+    }
+
+    <E> int indexOf(final String elementKey, final HashTrie<E> trie) {
+      for (int i = 0; i < slots.length; i++) {
+        if (trie.key.apply(trie.element(slots[i])).equals(elementKey)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    boolean isCollision() {
+      return bitmap == 0 && slots.length > 0;
+    }
+
+    Object[] slotsWith(final int index, final Object slot) {
+      final Object[] next = slots.clone();
+      next[index] = slot;
+      return next;
+    }
+
+    Object[] slotsWithout(final int index) {
+      final Object[] next = new Object[slots.length - 1];
+      System.arraycopy(slots, 0, next, 0, index);
+      System.arraycopy(slots, index + 1, next, index, slots.length - index - 1);
+      return next;
+    }
+  }
+}
@@ -8,14 +8,14 @@
 
 package org.geoname.data;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.ZoneId;
 import java.time.format.TextStyle;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoname.timezones.DefaultTimezones;
@@ -29,7 +29,9 @@ import us.fatehi.pointlocation6709.format.PointLocationFormatter;
 
 /**
  * A location object has all the information required to define a location, such as the name of the
- * city and the country, the point location, and the time zone.
+ * city and the country, the point location, and the time zone. Locations share their country,
+ * subdivision and time zone id objects with other locations, and compute their description,
+ * details, deduplication key and hash code when they are first needed.
  */
 public final class Location implements Serializable, Comparable<Location> {
 
@@ -37,6 +39,9 @@ public final class Location implements Serializable, Comparable<Location> {
 
   private static final Logger LOGGER = Logger.getLogger(Location.class.getName());
 
+  /** Shared time zone id strings, since there are only a few hundred time zones. */
+  private static final Map<String, String> timeZoneIds = new ConcurrentHashMap<>();
+
   /** UNKNOWN, setting all fields to blank. */
   public static final Location UNKNOWN =
       new Location(
@@ -53,8 +58,9 @@ public final class Location implements Serializable, Comparable<Location> {
 
   private final String timeZoneId;
   private transient String description;
-
   private transient String details;
+  private transient String deduplicationKey;
+  private transient int hashCode;
 
   /**
    * Copy constructor. Copies the value of a provided location.
@@ -107,26 +113,23 @@ public final class Location implements Serializable, Comparable<Location> {
     }
     this.city = city.trim();
 
-    this.subdivision = subdivision;
+    this.subdivision = Subdivisions.canonical(subdivision);
 
     if (country == null) {
       throw new IllegalArgumentException("Country needs to be specified");
     }
-    this.country = country;
+    this.country = Countries.canonical(country);
 
     if (timeZoneId == null) {
       throw new IllegalArgumentException("Time zone needs to be specified");
     }
-    this.timeZoneId = timeZoneId;
+    this.timeZoneId = shareTimeZoneId(timeZoneId);
 
     if (pointLocation == null) {
       throw new IllegalArgumentException("Both latitude and longitude need to be specified");
     }
     this.pointLocation = pointLocation;
 
-    // Set transient fields
-    setTransientFields();
-
     // Now that all fields are set, validate
     validateTimeZone();
   }
@@ -195,8 +198,13 @@ public final class Location implements Serializable, Comparable<Location> {
    * @return a stable string key
    */
   public String deduplicationKey() {
-    final String admCode = subdivision != null ? subdivision.code() : "";
-    return city + "|" + admCode + "|" + country.alpha2Code();
+    String key = deduplicationKey;
+    if (key == null) {
+      final String admCode = subdivision != null ? subdivision.code() : "";
+      key = city + "|" + admCode + "|" + country.alpha2Code();
+      deduplicationKey = key;
+    }
+    return key;
   }
 
   /**
@@ -232,6 +240,11 @@ public final class Location implements Serializable, Comparable<Location> {
    * @return Description.
    */
   public String getDescription() {
+    String description = this.description;
+    if (description == null) {
+      description = buildDescription();
+      this.description = description;
+    }
     return description;
   }
 
@@ -241,6 +254,11 @@ public final class Location implements Serializable, Comparable<Location> {
    * @return Details for this location.
    */
   public String getDetails() {
+    String details = this.details;
+    if (details == null) {
+      details = buildDetails();
+      this.details = details;
+    }
     return details;
   }
 
@@ -264,7 +282,12 @@ public final class Location implements Serializable, Comparable<Location> {
 
   @Override
   public int hashCode() {
-    return Objects.hash(city, subdivision, country, pointLocation, timeZoneId);
+    int hash = hashCode;
+    if (hash == 0) {
+      hash = Objects.hash(city, subdivision, country, pointLocation, timeZoneId);
+      hashCode = hash;
+    }
+    return hash;
   }
 
   /**
@@ -277,22 +300,21 @@ public final class Location implements Serializable, Comparable<Location> {
    */
   @Override
   public String toString() {
-    return description;
+    return getDescription();
   }
 
-  private void readObject(final ObjectInputStream objectInputStream)
-      throws ClassNotFoundException, IOException {
-    // Perform the default deserialization first
-    objectInputStream.defaultReadObject();
-
-    // Set transient fields
-    setTransientFields();
-
-    // Now that all fields are set, validate
-    validateTimeZone();
+  private static String shareTimeZoneId(final String timeZoneId) {
+    final String sharedTimeZoneId = timeZoneIds.get(timeZoneId);
+    if (sharedTimeZoneId != null) {
+      return sharedTimeZoneId;
+    }
+    // Only share time zone ids that are valid
+    ZoneId.of(timeZoneId);
+    final String previousTimeZoneId = timeZoneIds.putIfAbsent(timeZoneId, timeZoneId);
+    return previousTimeZoneId != null ? previousTimeZoneId : timeZoneId;
   }
 
-  private void setTransientFields() {
+  private String buildDescription() {
     final StringBuilder descriptionBuilder = new StringBuilder();
     if (city.length() > 0) {
       descriptionBuilder.append(city);
@@ -312,22 +334,33 @@ public final class Location implements Serializable, Comparable<Location> {
       }
       descriptionBuilder.append(country);
     }
-    description = descriptionBuilder.toString();
+    return descriptionBuilder.toString();
+  }
 
+  private String buildDetails() {
     final ZoneId zoneId = ZoneId.of(timeZoneId);
     try {
-      details =
-          PointLocationFormatter.formatPointLocation(
-                  getPointLocation(), PointLocationFormatType.HUMAN_MEDIUM)
-              + ", "
-              + zoneId.getDisplayName(TextStyle.FULL, Locale.getDefault());
+      return PointLocationFormatter.formatPointLocation(
+              getPointLocation(), PointLocationFormatType.HUMAN_MEDIUM)
+          + ", "
+          + zoneId.getDisplayName(TextStyle.FULL, Locale.getDefault());
     } catch (final FormatterException e) {
       LOGGER.log(Level.FINE, e.getMessage(), e);
-      details = "";
+      return "";
     }
   }
 
+  /** Validates, and shares the country, subdivision and time zone id of deserialized locations. */
+  @Serial
+  private Object readResolve() {
+    return new Location(city, subdivision, country, timeZoneId, pointLocation);
+  }
+
   private void validateTimeZone() {
+    // The check only logs, so skip it unless it would be logged
+    if (!LOGGER.isLoggable(Level.FINE)) {
+      return;
+    }
     final Longitude longitude = getPointLocation().getLongitude();
 
     final double tzOffsetHours = DefaultTimezones.getStandardTimeZoneOffsetHours(timeZoneId);
@@ -339,14 +372,15 @@ public final class Location implements Serializable, Comparable<Location> {
     if ((hoursDifference > toleranceBand)) {
       LOGGER.log(
           Level.FINE,
-          toString()
-              + ": Longitude ("
-              + longitude
-              + ") and timezone ("
-              + timeZoneId
-              + ") do not match (difference "
-              + hoursDifference
-              + " hours)");
+          () ->
+              toString()
+                  + ": Longitude ("
+                  + longitude
+                  + ") and timezone ("
+                  + timeZoneId
+                  + ") do not match (difference "
+                  + hoursDifference
+                  + " hours)");
     }
   }
 }
@@ -0,0 +1,35 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.data;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cluster of locations in a cell of a map tile.
+ *
+ * @param count Number of locations in the cluster
+ * @param latitude Average latitude of the locations, in degrees
+ * @param longitude Average longitude of the locations, in degrees
+ * @param representative Location that represents the cluster, from its most populated part
+ */
+public record LocationCluster(
+    int count, double latitude, double longitude, Location representative) {
+
+  /**
+   * Constructor.
+   *
+   * @param count Number of locations in the cluster
+   * @param latitude Average latitude of the locations, in degrees
+   * @param longitude Average longitude of the locations, in degrees
+   * @param representative Location that represents the cluster
+   */
+  public LocationCluster {
+    requireNonNull(representative);
+  }
+}
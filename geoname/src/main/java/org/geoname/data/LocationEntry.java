@@ -0,0 +1,31 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.data;
+
+/**
+ * Location in the indexes of the registry, with its sort key, which is computed once when the
+ * location is added and shared by the indexes.
+ */
+record LocationEntry(String sortKey, Location location) {
+
+  /**
+   * Creates the entry for a location.
+   *
+   * @param location Location
+   * @return Entry
+   */
+  static LocationEntry of(final Location location) {
+    return new LocationEntry(SortedLocationIndex.sortKey(location), location);
+  }
+
+  /** Deduplication key of the location, which the registry is indexed by. */
+  String key() {
+    return location.deduplicationKey();
+  }
+}
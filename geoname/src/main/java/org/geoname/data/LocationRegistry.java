@@ -11,20 +11,67 @@ package org.geoname.data;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import us.fatehi.pointlocation6709.PointLocation;
 
 /**
- * Thread-safe in-memory registry of locations. Locations are stored in insertion order and
- * deduplicated by {@link Location#deduplicationKey()}. Intended to be used as a single
- * application-scoped source of truth for all known locations; the web layer can wrap this as a
- * singleton bean and add locations at startup (from the bundled list or from GNS/GNIS zip files) as
- * well as during runtime via user uploads.
+ * Thread-safe in-memory registry of locations. Locations are deduplicated by {@link
+ * Location#deduplicationKey()}, first-one-wins. Intended to be used as a single application-scoped
+ * source of truth for all known locations; the web layer can wrap this as a singleton bean and add
+ * locations at startup (from the bundled list or from GNS/GNIS zip files) as well as during runtime
+ * via user uploads.
+ *
+ * <p>Reads never lock. Readers see an immutable snapshot through an atomic reference, while
+ * writers, one at a time, build the next version off to the side and publish it atomically, so that
+ * searches and lookups are not blocked by a bulk load. The indexes of a snapshot are persistent:
+ * the next version shares all but the changed nodes with the current one, so adding or removing a
+ * location does not copy the registry. Large sources should still be loaded with a {@link Loader},
+ * which collects the locations and builds the indexes once.
+ *
+ * <p>Locations are indexed by key in a hash trie, so {@link #findByKey(String)} takes constant
+ * time, and never copies or sorts the registry. Callers that resolve a single location should use
+ * it rather than scanning {@link #getAllLocations()}. Each snapshot also keeps the locations in
+ * sort order, by trigram for search, by position for nearest neighbor search, and in a hierarchical
+ * grid of map tiles for clustering, and writers update these indexes incrementally.
  */
 public final class LocationRegistry {
 
-  private final Map<String, Location> registry = new LinkedHashMap<>();
+  /**
+   * Immutable version of the registry, with locations by key, in sort order, by trigram, by
+   * position, and by map tile.
+   */
+  private record Snapshot(
+      HashTrie<LocationEntry> locations,
+      SortedLocationIndex sorted,
+      LocationSearchIndex search,
+      SpatialLocationIndex spatial,
+      TileLocationIndex tiles) {}
+
+  private static final Snapshot EMPTY =
+      new Snapshot(
+          HashTrie.empty(LocationEntry::key),
+          SortedLocationIndex.EMPTY,
+          LocationSearchIndex.EMPTY,
+          SpatialLocationIndex.EMPTY,
+          TileLocationIndex.EMPTY);
+
+  /**
+   * Position of a location in the sort order of the registry, which can be used as a cursor to page
+   * through locations. Locations are sorted by description, and then by key.
+   *
+   * @param location Location
+   * @return Sort key
+   */
+  public static String sortKey(final Location location) {
+    return SortedLocationIndex.sortKey(location);
+  }
+
+  private final AtomicReference<Snapshot> registry = new AtomicReference<>(EMPTY);
 
   /** Creates an empty registry. */
   public LocationRegistry() {}
@@ -48,8 +95,7 @@ public final class LocationRegistry {
    *     registry)
    */
   public synchronized void replaceLocations(final Collection<Location> locations) {
-    registry.clear();
-    addLocations(locations);
+    publish(EMPTY, null, newEntries(EMPTY, locations));
   }
 
   /**
@@ -59,24 +105,51 @@ public final class LocationRegistry {
    * @param locations locations to add; may be {@code null} (treated as empty)
    */
   public synchronized void addLocations(final Collection<Location> locations) {
-    if (locations == null) {
+    if (locations == null || locations.isEmpty()) {
       return;
     }
-    for (final Location location : locations) {
-      if (location != null) {
-        registry.putIfAbsent(location.deduplicationKey(), location);
-      }
+    final Snapshot current = registry.get();
+    final List<LocationEntry> added = newEntries(current, locations);
+    if (!added.isEmpty()) {
+      publish(current, null, added);
     }
   }
 
   /**
-   * Returns the location with the given deduplication key.
+   * Starts a bulk load that adds locations to the registry when it is committed, as for {@link
+   * #addLocations(Collection)}. Locations are collected in batches, for example as they are parsed,
+   * and the indexes are built once at the end, so that the locations are not held in a separate
+   * collection before they are added.
    *
-   * @param key deduplication key (see {@link Location#deduplicationKey()})
+   * @return loader, which is not thread-safe
+   */
+  public Loader additionLoader() {
+    return new Loader(false);
+  }
+
+  /**
+   * Starts a bulk load that replaces all locations in the registry when it is committed, as for
+   * {@link #replaceLocations(Collection)}. Readers see the current locations until then.
+   *
+   * @return loader, which is not thread-safe
+   */
+  public Loader replacementLoader() {
+    return new Loader(true);
+  }
+
+  /**
+   * Returns the location with the given deduplication key, with a hashed lookup that does not copy
+   * the registry.
+   *
+   * @param key deduplication key (see {@link Location#deduplicationKey()}); may be {@code null}
    * @return the location, or empty if not found
    */
-  public synchronized java.util.Optional<Location> findByKey(final String key) {
-    return java.util.Optional.ofNullable(registry.get(key));
+  public Optional<Location> findByKey(final String key) {
+    if (key == null) {
+      return Optional.empty();
+    }
+    final LocationEntry entry = registry.get().locations().get(key);
+    return entry == null ? Optional.empty() : Optional.of(entry.location());
   }
 
   /**
@@ -86,41 +159,133 @@ public final class LocationRegistry {
    * @return {@code true} if a location was removed; {@code false} if not found
    */
   public synchronized boolean removeLocation(final String key) {
-    return registry.remove(key) != null;
+    final Snapshot current = registry.get();
+    final LocationEntry removed = key == null ? null : current.locations().get(key);
+    if (removed == null) {
+      return false;
+    }
+    publish(current, removed, List.of());
+    return true;
+  }
+
+  /**
+   * Replaces the location with the given deduplication key with another location, in a single
+   * write, so that readers never see the registry without either location. The registry is left
+   * unchanged if the key of the new location belongs to another existing location.
+   *
+   * @param key deduplication key of the location to replace
+   * @param location new location
+   * @return {@code true} if a location was replaced; {@code false} if the key was not found, or the
+   *     new location would replace another location as well
+   */
+  public synchronized boolean replaceLocation(final String key, final Location location) {
+    final Snapshot current = registry.get();
+    final LocationEntry removed = key == null ? null : current.locations().get(key);
+    if (removed == null || location == null) {
+      return false;
+    }
+    final String newKey = location.deduplicationKey();
+    if (!newKey.equals(key) && current.locations().get(newKey) != null) {
+      return false;
+    }
+    publish(current, removed, List.of(LocationEntry.of(location)));
+    return true;
   }
 
   /**
-   * Returns all locations in insertion order as an unmodifiable collection.
+   * Returns all locations in sort order as an unmodifiable collection. The collection is a view of
+   * the current snapshot, and is not copied.
    *
    * @return all locations; never {@code null}
    */
-  public synchronized Collection<Location> getAllLocations() {
-    final List<Location> sorted = new ArrayList<>(registry.values());
-    Collections.sort(sorted);
-    return Collections.unmodifiableList(sorted);
+  public Collection<Location> getAllLocations() {
+    return registry.get().sorted().asList();
   }
 
   /**
-   * Searches locations by a query string. Matching is case-insensitive substring search across city
-   * name, country name, and administrative area name. A {@code null} or blank query returns all
-   * locations.
+   * Returns a page of locations in sort order, starting after a cursor. Only the locations in the
+   * page are visited.
+   *
+   * @param after sort key of the last location of the previous page (see {@link
+   *     #sortKey(Location)}), or {@code null} for the first page
+   * @param limit maximum number of locations in the page
+   * @return locations in the page; never {@code null}
+   */
+  public List<Location> getLocations(final String after, final int limit) {
+    final SortedLocationIndex sorted = registry.get().sorted();
+    final List<Location> page = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+    final Iterator<Location> locations = sorted.iterator(sorted.indexAfter(after));
+    while (locations.hasNext() && page.size() < limit) {
+      page.add(locations.next());
+    }
+    return Collections.unmodifiableList(page);
+  }
+
+  /**
+   * Returns clusters of the locations in a Web Mercator map tile, from a precomputed hierarchical
+   * grid. The tile is divided into 8 by 8 cells, and there is a cluster for each cell that has
+   * locations, with the number of locations, their mean position, and a representative location.
+   *
+   * @param zoom zoom level of the tile, from 0 to 24
+   * @param x tile x coordinate, from 0 at the antimeridian eastwards
+   * @param y tile y coordinate, from 0 at the north edge of the map southwards
+   * @return clusters in the tile; never {@code null}
+   * @throws IllegalArgumentException if the zoom level or tile coordinates are out of range
+   */
+  public List<LocationCluster> clusters(final int zoom, final int x, final int y) {
+    if (zoom < 0 || zoom > TileLocationIndex.MAXIMUM_ZOOM) {
+      throw new IllegalArgumentException("Zoom level out of range: " + zoom);
+    }
+    final int size = 1 << zoom;
+    if (x < 0 || x >= size || y < 0 || y >= size) {
+      throw new IllegalArgumentException("Tile out of range: " + zoom + "/" + x + "/" + y);
+    }
+    return registry.get().tiles().clusters(zoom, x, y);
+  }
+
+  /**
+   * Returns the locations nearest to a point, by great-circle distance, using a spatial index.
+   *
+   * @param pointLocation point to search from
+   * @param k maximum number of locations to return
+   * @return nearest locations, nearest first; never {@code null}
+   */
+  public List<Location> nearest(final PointLocation pointLocation, final int k) {
+    if (pointLocation == null) {
+      return List.of();
+    }
+    return registry.get().spatial().nearest(pointLocation, k);
+  }
+
+  /**
+   * Searches locations by a query string. Matching is case and accent-insensitive substring search
+   * of location descriptions, which include the city name, country name, and administrative area
+   * name, using a trigram index. Queries of one or two letters match the start of words. A {@code
+   * null} or blank query returns all locations.
    *
    * @param query search query; {@code null} or blank returns all locations
-   * @return matching locations in insertion order; never {@code null}
+   * @return matching locations in rank order; never {@code null}
    */
-  public synchronized Collection<Location> search(final String query) {
+  public Collection<Location> search(final String query) {
+    return search(query, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Searches locations by a query string, as for {@link #search(String)}, and returns only the best
+   * matches. Matches at the start of the city name rank first, then matches at the start of other
+   * words, and then other matches, with locations of the same rank in sort order.
+   *
+   * @param query search query; {@code null} or blank returns the first locations in sort order
+   * @param limit maximum number of locations to return
+   * @return best matching locations in rank order; never {@code null}
+   */
+  public List<Location> search(final String query, final int limit) {
+    final Snapshot snapshot = registry.get();
     if (query == null || query.isBlank()) {
-      return getAllLocations();
-    }
-    final String lowerQuery = query.strip().toLowerCase();
-    final List<Location> results = new ArrayList<>();
-    for (final Location location : registry.values()) {
-      if (matches(location, lowerQuery)) {
-        results.add(location);
-      }
+      final List<Location> all = snapshot.sorted().asList();
+      return all.subList(0, Math.max(0, Math.min(limit, all.size())));
     }
-    Collections.sort(results);
-    return Collections.unmodifiableList(results);
+    return snapshot.search().search(query, limit);
   }
 
   /**
@@ -128,20 +293,110 @@ public final class LocationRegistry {
    *
    * @return location count
    */
-  public synchronized int size() {
-    return registry.size();
+  public int size() {
+    return registry.get().locations().size();
   }
 
-  private boolean matches(final Location location, final String lowerQuery) {
-    if (location.getCity().toLowerCase().contains(lowerQuery)
-        || (location.getCountry() != null
-            && location.getCountry().name().toLowerCase().contains(lowerQuery))) {
-      return true;
+  /**
+   * Bulk load of locations, which are collected in batches and then published in a single write.
+   * Duplicates are handled first-one-wins, and {@code null} elements are skipped.
+   */
+  public final class Loader {
+
+    private final boolean replace;
+    private Map<String, Location> locations = new LinkedHashMap<>();
+
+    private Loader(final boolean replace) {
+      this.replace = replace;
     }
-    if (location.getSubdivision() != null
-        && location.getSubdivision().name().toLowerCase().contains(lowerQuery)) {
-      return true;
+
+    /**
+     * Adds a batch of locations to the load.
+     *
+     * @param batch locations to add; may be {@code null} (treated as empty)
+     * @throws IllegalStateException if the load has been committed
+     */
+    public void add(final Collection<Location> batch) {
+      if (locations == null) {
+        throw new IllegalStateException("Locations have already been loaded");
+      }
+      if (batch == null) {
+        return;
+      }
+      for (final Location location : batch) {
+        if (location != null) {
+          locations.putIfAbsent(location.deduplicationKey(), location);
+        }
+      }
+    }
+
+    /**
+     * Publishes the loaded locations to the registry.
+     *
+     * @return number of locations that were added to the registry
+     * @throws IllegalStateException if the load has already been committed
+     */
+    public int commit() {
+      if (locations == null) {
+        throw new IllegalStateException("Locations have already been loaded");
+      }
+      final Map<String, Location> loaded = locations;
+      locations = null;
+      synchronized (LocationRegistry.this) {
+        final Snapshot current = replace ? EMPTY : registry.get();
+        final List<LocationEntry> added = newEntries(current, loaded.values());
+        if (replace || !added.isEmpty()) {
+          publish(current, null, added);
+        }
+        return added.size();
+      }
+    }
+  }
+
+  /**
+   * Entries for the locations that are not in a snapshot, first-one-wins, in iteration order.
+   * {@code null} elements are skipped.
+   */
+  private static List<LocationEntry> newEntries(
+      final Snapshot current, final Collection<Location> locations) {
+    if (locations == null) {
+      return List.of();
+    }
+    final Map<String, LocationEntry> added = new LinkedHashMap<>();
+    for (final Location location : locations) {
+      if (location == null) {
+        continue;
+      }
+      final String key = location.deduplicationKey();
+      if (!added.containsKey(key) && current.locations().get(key) == null) {
+        added.put(key, LocationEntry.of(location));
+      }
+    }
+    return new ArrayList<>(added.values());
+  }
+
+  /** Publishes the next snapshot, with indexes updated from the current ones. */
+  private void publish(
+      final Snapshot current, final LocationEntry removed, final List<LocationEntry> added) {
+    HashTrie<LocationEntry> locations = current.locations();
+    SortedLocationIndex sorted = current.sorted();
+    LocationSearchIndex search = current.search();
+    SpatialLocationIndex spatial = current.spatial();
+    TileLocationIndex tiles = current.tiles();
+    if (removed != null) {
+      locations = locations.without(removed.key());
+      sorted = sorted.without(removed);
+      search = search.without(removed);
+      spatial = spatial.without(removed.location());
+      tiles = tiles.without(removed.location());
     }
-    return false;
+    final List<Location> addedLocations = added.stream().map(LocationEntry::location).toList();
+    registry.set(
+        new Snapshot(
+            locations.withAll(added),
+            sorted.withAdded(added),
+            search.withAdded(added),
+            spatial.withAdded(addedLocations),
+            tiles.withAdded(addedLocations)));
   }
 }
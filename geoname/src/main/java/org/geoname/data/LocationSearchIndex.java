@@ -0,0 +1,245 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.data;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable inverted index of location descriptions by trigram, for substring search. Descriptions
+ * are normalized to lower case letters and digits without accents, so that search is case and
+ * accent-insensitive. Word prefixes are also indexed by their first one or two characters, so that
+ * short queries match the start of words. Posting lists are B-trees in sort order, in a hash trie
+ * by trigram, so new versions of the index copy only the paths to the entries of added or removed
+ * locations.
+ */
+final class LocationSearchIndex {
+
+  static final LocationSearchIndex EMPTY = new LocationSearchIndex(HashTrie.empty(Posting::gram));
+
+  private static final int GRAM_LENGTH = 3;
+  private static final SortedTree<Entry> NO_ENTRIES = SortedTree.empty(Entry::sortKey);
+
+  /**
+   * Normalizes text for search, by removing accents, lower-casing, and replacing punctuation and
+   * runs of white space with a single space.
+   *
+   * @param text Text to normalize
+   * @return Normalized text
+   */
+  static String normalize(final String text) {
+    final String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+    final StringBuilder normalized = new StringBuilder(decomposed.length());
+    boolean space = true;
+    for (int i = 0; i < decomposed.length(); i++) {
+      final char c = decomposed.charAt(i);
+      if (Character.getType(c) == Character.NON_SPACING_MARK) {
+        continue;
+      }
+      if (Character.isLetterOrDigit(c)) {
+        normalized.append(Character.toLowerCase(c));
+        space = false;
+      } else if (!space) {
+        normalized.append(' ');
+        space = true;
+      }
+    }
+    if (space && normalized.length() > 0) {
+      normalized.setLength(normalized.length() - 1);
+    }
+    return normalized.toString();
+  }
+
+  /** Grams of indexed text, which starts with a space to mark the start of the first word. */
+  private static Set<String> grams(final String text) {
+    final Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+      grams.add(text.substring(i, i + GRAM_LENGTH));
+    }
+    for (int i = 0; i + 2 <= text.length(); i++) {
+      if (text.charAt(i) == ' ') {
+        grams.add(text.substring(i, i + 2));
+      }
+    }
+    return grams;
+  }
+
+  /** Indexed text of a location. */
+  private static String indexedText(final Location location) {
+    return ' ' + normalize(location.getDescription());
+  }
+
+  /**
+   * Rank of a match, higher for matches at the start of the description, which is the city name,
+   * then at the start of other words, and then for matches that end at the end of a word.
+   */
+  private static int score(final String text, final String query, final int index) {
+    final int start;
+    if (index == 1) {
+      start = 4;
+    } else if (text.charAt(index - 1) == ' ') {
+      start = 2;
+    } else {
+      start = 0;
+    }
+    final int end = index + query.length();
+    return start + (end == text.length() || text.charAt(end) == ' ' ? 1 : 0);
+  }
+
+  private final HashTrie<Posting> postings;
+
+  private LocationSearchIndex(final HashTrie<Posting> postings) {
+    this.postings = postings;
+  }
+
+  /**
+   * Searches for locations with a description that contains a query. Queries of one or two
+   * characters only match the start of words.
+   *
+   * @param query Search query, which does not need to be normalized
+   * @param limit Maximum number of results
+   * @return Best matches, best first, and then in sort order
+   */
+  List<Location> search(final String query, final int limit) {
+    final String normalizedQuery = normalize(query);
+    if (normalizedQuery.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    // Short queries match word prefixes, which are indexed with a leading space. Candidates for
+    // longer queries come from the rarest trigram of the query, and are checked against the whole
+    // query.
+    final String match;
+    SortedTree<Entry> candidates = null;
+    if (normalizedQuery.length() < GRAM_LENGTH) {
+      match = ' ' + normalizedQuery;
+      candidates = entries(match);
+    } else {
+      match = normalizedQuery;
+      for (int i = 0; i + GRAM_LENGTH <= match.length(); i++) {
+        final SortedTree<Entry> entries = entries(match.substring(i, i + GRAM_LENGTH));
+        if (candidates == null || entries.size() < candidates.size()) {
+          candidates = entries;
+        }
+      }
+    }
+
+    // Matches of the same rank are in sort order, by the sort keys that were computed when the
+    // locations were added. Candidates are taken in sort order, so once there are enough matches,
+    // a candidate that does not rank higher than the worst of them is skipped without comparing
+    // keys.
+    final Comparator<Match> ranking =
+        Comparator.comparingInt(Match::score)
+            .reversed()
+            .thenComparing(candidate -> candidate.entry().sortKey());
+    final PriorityQueue<Match> best = new PriorityQueue<>(ranking.reversed());
+    for (final Entry entry : candidates.asList()) {
+      final int index = entry.text().indexOf(match);
+      if (index < 0) {
+        continue;
+      }
+      final int matchIndex = match.charAt(0) == ' ' ? index + 1 : index;
+      final int score = score(entry.text(), normalizedQuery, matchIndex);
+      if (best.size() == limit) {
+        final Match worst = best.peek();
+        if (score <= worst.score()) {
+          continue;
+        }
+      }
+      best.add(new Match(score, entry));
+      if (best.size() > limit) {
+        best.poll();
+      }
+    }
+
+    final List<Match> matches = new ArrayList<>(best);
+    matches.sort(ranking);
+    final List<Location> results = new ArrayList<>(matches.size());
+    for (final Match m : matches) {
+      results.add(m.entry().location());
+    }
+    return Collections.unmodifiableList(results);
+  }
+
+  /**
+   * Builds a new index with additional locations, which must not already be in the index.
+   *
+   * @param added Entries of the locations to add
+   * @return New index
+   */
+  LocationSearchIndex withAdded(final Collection<LocationEntry> added) {
+    if (added.isEmpty()) {
+      return this;
+    }
+
+    // Locations are taken in sort order, so that each posting list is added already sorted
+    final List<LocationEntry> sorted = new ArrayList<>(added);
+    sorted.sort(Comparator.comparing(LocationEntry::sortKey));
+    final Map<String, List<Entry>> additions = new HashMap<>();
+    for (final LocationEntry location : sorted) {
+      final Entry entry =
+          new Entry(indexedText(location.location()), location.sortKey(), location.location());
+      for (final String gram : grams(entry.text())) {
+        additions.computeIfAbsent(gram, g -> new ArrayList<>()).add(entry);
+      }
+    }
+
+    final List<Posting> next = new ArrayList<>(additions.size());
+    for (final Map.Entry<String, List<Entry>> addition : additions.entrySet()) {
+      final String gram = addition.getKey();
+      next.add(new Posting(gram, entries(gram).withAll(addition.getValue())));
+    }
+    return new LocationSearchIndex(postings.withAll(next));
+  }
+
+  /**
+   * Builds a new index without a location.
+   *
+   * @param removed Entry of the location to remove
+   * @return New index
+   */
+  LocationSearchIndex without(final LocationEntry removed) {
+    HashTrie<Posting> next = postings;
+    for (final String gram : grams(indexedText(removed.location()))) {
+      final SortedTree<Entry> remaining = entries(gram).without(removed.sortKey());
+      if (remaining.size() == 0) {
+        next = next.without(gram);
+      } else {
+        next = next.with(new Posting(gram, remaining));
+      }
+    }
+    return new LocationSearchIndex(next);
+  }
+
+  /** Posting list of a gram, in sort order. */
+  private SortedTree<Entry> entries(final String gram) {
+    final Posting posting = postings.get(gram);
+    return posting == null ? NO_ENTRIES : posting.entries();
+  }
+
+  /**
+   * Indexed location, with its normalized description, which starts with a space, and its sort key
+   * from the registry.
+   */
+  private record Entry(String text, String sortKey, Location location) {}
+
+  private record Match(int score, Entry entry) {}
+
+  /** Locations with a gram in their indexed text. */
+  private record Posting(String gram, SortedTree<Entry> entries) {}
+}
@@ -0,0 +1,123 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.data;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Immutable index of locations in sort order, with a precomputed sort key for each location. The
+ * locations are kept in a B-tree by sort key, so adding or removing a location copies only the path
+ * to one leaf, and the whole registry is never copied or re-sorted.
+ */
+final class SortedLocationIndex {
+
+  static final SortedLocationIndex EMPTY =
+      new SortedLocationIndex(SortedTree.empty(LocationEntry::sortKey));
+
+  /**
+   * Sort key of a location, which orders locations by description, and then by key so that the
+   * order is total.
+   */
+  static String sortKey(final Location location) {
+    return location.getDescription() + '\u0000' + location.deduplicationKey();
+  }
+
+  private final SortedTree<LocationEntry> entries;
+
+  private SortedLocationIndex(final SortedTree<LocationEntry> entries) {
+    this.entries = entries;
+  }
+
+  /** Locations in sort order, as an unmodifiable list that is not copied. */
+  List<Location> asList() {
+    return new AbstractList<>() {
+
+      @Override
+      public Location get(final int index) {
+        return entries.get(index).location();
+      }
+
+      @Override
+      public Iterator<Location> iterator() {
+        return SortedLocationIndex.this.iterator(0);
+      }
+
+      @Override
+      public int size() {
+        return entries.size();
+      }
+    };
+  }
+
+  /**
+   * Position of the first location that sorts after a sort key.
+   *
+   * @param sortKey Sort key, or {@code null} for the start of the index
+   * @return Index of the first location after the sort key
+   */
+  int indexAfter(final String sortKey) {
+    if (sortKey == null) {
+      return 0;
+    }
+    return entries.indexAfter(sortKey);
+  }
+
+  /**
+   * Locations in sort order, starting at a position.
+   *
+   * @param from Position of the first location
+   * @return Iterator
+   */
+  Iterator<Location> iterator(final int from) {
+    final Iterator<LocationEntry> iterator = entries.iterator(from);
+    return new Iterator<>() {
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Location next() {
+        return iterator.next().location();
+      }
+    };
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  /**
+   * Builds a new index with additional locations, which must not already be in the index.
+   *
+   * @param added Entries of the locations to add
+   * @return New index
+   */
+  SortedLocationIndex withAdded(final Collection<LocationEntry> added) {
+    if (added.isEmpty()) {
+      return this;
+    }
+    return new SortedLocationIndex(entries.withAll(added));
+  }
+
+  /**
+   * Builds a new index without a location.
+   *
+   * @param removed Entry of the location to remove
+   * @return New index, or this index if the location is not found
+   */
+  SortedLocationIndex without(final LocationEntry removed) {
+    final SortedTree<LocationEntry> next = entries.without(removed.sortKey());
+    return next == entries ? this : new SortedLocationIndex(next);
+  }
+}
@@ -0,0 +1,457 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.data;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable B-tree of elements in the order of a string key, with the number of elements under each
+ * child of a node, so that elements can be found by key or by position. New versions of the tree
+ * copy only the path from the root to the changed leaf, so that adding or removing an element takes
+ * logarithmic time, and readers of an older version are not affected. Large batches are merged in,
+ * and the tree is rebuilt.
+ *
+ * @param <E> Type of elements
+ */
+final class SortedTree<E> {
+
+  /** Largest number of elements in a leaf, or of children of a branch. */
+  private static final int MAXIMUM_NODE_SIZE = 64;
+
+  /** Nodes that become smaller than this are merged with a neighbor. */
+  private static final int MINIMUM_NODE_SIZE = MAXIMUM_NODE_SIZE / 4;
+
+  /** Size of nodes built from a sorted list, which leaves room to add elements. */
+  private static final int BUILT_NODE_SIZE = MAXIMUM_NODE_SIZE * 3 / 4;
+
+  private static final Node EMPTY_LEAF = new Node(new Object[0], null, null, 0);
+
+  /**
+   * Creates an empty tree.
+   *
+   * @param key Key of an element, which orders the tree
+   * @return Empty tree
+   */
+  static <E> SortedTree<E> empty(final Function<? super E, String> key) {
+    return new SortedTree<>(key, EMPTY_LEAF);
+  }
+
+  private final Function<? super E, String> key;
+  private final Node root;
+
+  private SortedTree(final Function<? super E, String> key, final Node root) {
+    this.key = key;
+    this.root = root;
+  }
+
+  /** Elements in order, as an unmodifiable list that is not copied. */
+  List<E> asList() {
+    return new AbstractList<>() {
+
+      @Override
+      public E get(final int index) {
+        return SortedTree.this.get(index);
+      }
+
+      @Override
+      public Iterator<E> iterator() {
+        return SortedTree.this.iterator(0);
+      }
+
+      @Override
+      public int size() {
+        return root.size;
+      }
+    };
+  }
+
+  /**
+   * Element at a position in the tree.
+   *
+   * @param index Position
+   * @return Element
+   * @throws IndexOutOfBoundsException If the position is out of range
+   */
+  E get(final int index) {
+    Objects.checkIndex(index, root.size);
+    Node node = root;
+    int position = index;
+    while (node.isBranch()) {
+      int child = 0;
+      while (position >= node.sizes[child]) {
+        position -= node.sizes[child];
+        child++;
+      }
+      node = node.child(child);
+    }
+    return element(node, position);
+  }
+
+  /**
+   * Element with a key.
+   *
+   * @param elementKey Key
+   * @return Element, or {@code null} if there is none with the key
+   */
+  E get(final String elementKey) {
+    Node node = root;
+    while (node.isBranch()) {
+      node = node.child(childIndex(node, elementKey));
+    }
+    final int index = indexOf(node, elementKey);
+    return index >= 0 ? element(node, index) : null;
+  }
+
+  /**
+   * Position of the first element with a key after a key.
+   *
+   * @param elementKey Key, which need not be in the tree
+   * @return Number of elements with a key up to and including the key
+   */
+  int indexAfter(final String elementKey) {
+    Node node = root;
+    int index = 0;
+    while (node.isBranch()) {
+      final int child = childIndex(node, elementKey);
+      for (int i = 0; i < child; i++) {
+        index += node.sizes[i];
+      }
+      node = node.child(child);
+    }
+    final int position = indexOf(node, elementKey);
+    return index + (position >= 0 ? position + 1 : -position - 1);
+  }
+
+  /**
+   * Elements in order, starting at a position. Leaves are found once each, rather than once for
+   * each element.
+   *
+   * @param from Position of the first element
+   * @return Iterator
+   */
+  Iterator<E> iterator(final int from) {
+    return new Cursor(from);
+  }
+
+  int size() {
+    return root.size;
+  }
+
+  /**
+   * Builds a new tree with an element, which replaces any element with the same key.
+   *
+   * @param element Element to add
+   * @return New tree
+   */
+  SortedTree<E> with(final E element) {
+    final Node[] nodes = insert(root, key.apply(element), element);
+    return new SortedTree<>(key, nodes.length == 1 ? nodes[0] : branch(nodes));
+  }
+
+  /**
+   * Builds a new tree with elements, which replace any elements with the same key. Small batches
+   * are added one at a time, and large batches are sorted and merged with the tree, which is then
+   * rebuilt.
+   *
+   * @param elements Elements to add
+   * @return New tree
+   */
+  SortedTree<E> withAll(final Collection<? extends E> elements) {
+    if (elements.size() <= root.size / 16) {
+      SortedTree<E> tree = this;
+      for (final E element : elements) {
+        tree = tree.with(element);
+      }
+      return tree;
+    }
+
+    final List<E> added = new ArrayList<>(elements);
+    added.sort(Comparator.comparing(key));
+    final List<E> merged = new ArrayList<>(root.size + added.size());
+    final Iterator<E> existing = iterator(0);
+    E next = existing.hasNext() ? existing.next() : null;
+    for (final E element : added) {
+      final String elementKey = key.apply(element);
+      while (next != null && key.apply(next).compareTo(elementKey) < 0) {
+        merged.add(next);
+        next = existing.hasNext() ? existing.next() : null;
+      }
+      if (next != null && key.apply(next).equals(elementKey)) {
+        next = existing.hasNext() ? existing.next() : null;
+      }
+      final int last = merged.size() - 1;
+      if (last >= 0 && key.apply(merged.get(last)).equals(elementKey)) {
+        merged.set(last, element);
+      } else {
+        merged.add(element);
+      }
+    }
+    while (next != null) {
+      merged.add(next);
+      next = existing.hasNext() ? existing.next() : null;
+    }
+    return new SortedTree<>(key, build(merged));
+  }
+
+  /**
+   * Builds a new tree without the element with a key.
+   *
+   * @param elementKey Key of the element to remove
+   * @return New tree, or this tree if there is no element with the key
+   */
+  SortedTree<E> without(final String elementKey) {
+    Node next = remove(root, elementKey);
+    if (next == root) {
+      return this;
+    }
+    if (next.size == 0) {
+      next = EMPTY_LEAF;
+    }
+    while (next.isBranch() && next.items.length == 1) {
+      next = next.child(0);
+    }
+    return new SortedTree<>(key, next);
+  }
+
+  /** Builds a tree bottom up, from elements in key order. */
+  private Node build(final List<E> elements) {
+    if (elements.isEmpty()) {
+      return EMPTY_LEAF;
+    }
+    List<Node> level = new ArrayList<>();
+    for (int from = 0; from < elements.size(); from += BUILT_NODE_SIZE) {
+      final int to = Math.min(elements.size(), from + BUILT_NODE_SIZE);
+      level.add(leaf(elements.subList(from, to).toArray()));
+    }
+    while (level.size() > 1) {
+      final List<Node> parents = new ArrayList<>();
+      for (int from = 0; from < level.size(); from += BUILT_NODE_SIZE) {
+        final int to = Math.min(level.size(), from + BUILT_NODE_SIZE);
+        parents.add(branch(level.subList(from, to).toArray()));
+      }
+      level = parents;
+    }
+    return level.get(0);
+  }
+
+  private Node branch(final Object[] children) {
+    final String[] keys = new String[children.length];
+    final int[] sizes = new int[children.length];
+    int size = 0;
+    for (int i = 0; i < children.length; i++) {
+      final Node child = (Node) children[i];
+      keys[i] = firstKey(child);
+      sizes[i] = child.size;
+      size += child.size;
+    }
+    return new Node(children, keys, sizes, size);
+  }
+
+  /** Position of the child of a branch that holds a key, or would hold it. */
+  private int childIndex(final Node branch, final String elementKey) {
+    final int index = Arrays.binarySearch(branch.keys, elementKey);
+    return index >= 0 ? index : Math.max(0, -index - 2);
+  }
+
+  /** Joins two nodes at the same level. */
+  private Node concat(final Node first, final Node second) {
+    final Object[] items = Arrays.copyOf(first.items, first.items.length + second.items.length);
+    System.arraycopy(second.items, 0, items, first.items.length, second.items.length);
+    return first.isBranch() ? branch(items) : leaf(items);
+  }
+
+  @SuppressWarnings("unchecked")
+  private E element(final Node leaf, final int index) {
+    return (E) leaf.items[index];
+  }
+
+  private String firstKey(final Node node) {
+    return node.isBranch() ? node.keys[0] : key.apply(element(node, 0));
+  }
+
+  /** Binary search for a key in a leaf, with the same result as {@link Arrays#binarySearch}. */
+  private int indexOf(final Node leaf, final String elementKey) {
+    int low = 0;
+    int high = leaf.items.length - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int comparison = key.apply(element(leaf, middle)).compareTo(elementKey);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /** Inserts an element under a node, and returns the new node, or two nodes if it was split. */
+  private Node[] insert(final Node node, final String elementKey, final E element) {
+    if (node.isBranch()) {
+      final int child = childIndex(node, elementKey);
+      return split(replace(node, child, 1, insert(node.child(child), elementKey, element)));
+    }
+    final int index = indexOf(node, elementKey);
+    final Object[] items;
+    if (index >= 0) {
+      items = node.items.clone();
+      items[index] = element;
+    } else {
+      final int at = -index - 1;
+      items = new Object[node.items.length + 1];
+      System.arraycopy(node.items, 0, items, 0, at);
+      items[at] = element;
+      System.arraycopy(node.items, at, items, at + 1, node.items.length - at);
+    }
+    return split(leaf(items));
+  }
+
+  private Node leaf(final Object[] elements) {
+    return new Node(elements, null, null, elements.length);
+  }
+
+  /**
+   * Removes an element under a node, and returns the new node, or the same node if the key is not
+   * found. A child that becomes too small is merged with a neighbor.
+   */
+  private Node remove(final Node node, final String elementKey) {
+    if (!node.isBranch()) {
+      final int index = indexOf(node, elementKey);
+      if (index < 0) {
+        return node;
+      }
+      final Object[] items = new Object[node.items.length - 1];
+      System.arraycopy(node.items, 0, items, 0, index);
+      System.arraycopy(node.items, index + 1, items, index, node.items.length - index - 1);
+      return leaf(items);
+    }
+
+    final int child = childIndex(node, elementKey);
+    final Node before = node.child(child);
+    final Node after = remove(before, elementKey);
+    if (after == before) {
+      return node;
+    }
+    if (after.items.length == 0) {
+      return replace(node, child, 1);
+    }
+    if (after.items.length >= MINIMUM_NODE_SIZE || node.items.length == 1) {
+      return replace(node, child, 1, after);
+    }
+    if (child > 0) {
+      return replace(node, child - 1, 2, split(concat(node.child(child - 1), after)));
+    }
+    return replace(node, child, 2, split(concat(after, node.child(child + 1))));
+  }
+
+  /** Replaces a range of the children of a branch. */
+  private Node replace(
+      final Node branch, final int from, final int count, final Node... replacements) {
+    final Object[] children = new Object[branch.items.length - count + replacements.length];
+    System.arraycopy(branch.items, 0, children, 0, from);
+    System.arraycopy(replacements, 0, children, from, replacements.length);
+    System.arraycopy(
+        branch.items,
+        from + count,
+        children,
+        from + replacements.length,
+        branch.items.length - from - count);
+    return branch(children);
+  }
+
+  /** Splits a node that is too large into two halves. */
+  private Node[] split(final Node node) {
+    final int length = node.items.length;
+    if (length <= MAXIMUM_NODE_SIZE) {
+      return new Node[] {node};
+    }
+    final Object[] first = Arrays.copyOfRange(node.items, 0, length / 2);
+    final Object[] second = Arrays.copyOfRange(node.items, length / 2, length);
+    return node.isBranch()
+        ? new Node[] {branch(first), branch(second)}
+        : new Node[] {leaf(first), leaf(second)};
+  }
+
+  /** Iterator over the elements of the tree, which reads one leaf at a time. */
+  private final class Cursor implements Iterator<E> {
+
+    private int index;
+    private Node leaf;
+    private int position;
+
+    Cursor(final int from) {
+      index = from;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < root.size;
+    }
+
+    @Override
+    public E next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (leaf == null || position == leaf.items.length) {
+        Node node = root;
+        position = index;
+        while (node.isBranch()) {
+          int child = 0;
+          while (position >= node.sizes[child]) {
+            position -= node.sizes[child];
+            child++;
+          }
+          node = node.child(child);
+        }
+        leaf = node;
+      }
+      index++;
+      return element(leaf, position++);
+    }
+  }
+
+  /**
+   * Node of the tree. A leaf holds elements, and a branch holds child nodes, with the first key and
+   * the number of elements under each child.
+   */
+  private static final class Node {
+
+    private final Object[] items;
+    private final String[] keys;
+    private final int[] sizes;
+    private final int size;
+
+    Node(final Object[] items, final String[] keys, final int[] sizes, final int size) {
+      this.items = items;
+      this.keys = keys;
+      this.sizes = sizes;
+      this.size = size;
+    }
+
+    Node child(final int index) {
+      return (Node) items[index];
+    }
+
+    boolean isBranch() {
+      return keys != null;
+    }
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import us.fatehi.pointlocation6709.PointLocation;
+
+/**
+ * Immutable spatial index of locations, for nearest neighbor search. Locations are indexed as unit
+ * vectors in a three-dimensional k-d tree, where straight-line distance increases with great-circle
+ * distance, so there are no special cases at the poles or the antimeridian. Locations added or
+ * removed after the tree is built are kept in a short list and a set, until there are enough of
+ * them to rebuild the tree.
+ */
+final class SpatialLocationIndex {
+
+  static final SpatialLocationIndex EMPTY =
+      new SpatialLocationIndex(new Location[0], new double[0], new Location[0], Set.of());
+
+  private static final int MINIMUM_REBUILD_THRESHOLD = 1024;
+
+  private static SpatialLocationIndex build(final List<Location> locations) {
+    final Location[] tree = locations.toArray(new Location[0]);
+    final double[] coordinates = new double[tree.length * 3];
+    for (int i = 0; i < tree.length; i++) {
+      toUnitVector(tree[i].getPointLocation(), coordinates, i * 3);
+    }
+    new TreeBuilder(tree, coordinates).build(0, tree.length, 0);
+    return new SpatialLocationIndex(tree, coordinates, new Location[0], Set.of());
+  }
+
+  private static void toUnitVector(
+      final PointLocation pointLocation, final double[] vector, final int offset) {
+    final double latitude = pointLocation.getLatitude().getRadians();
+    final double longitude = pointLocation.getLongitude().getRadians();
+    vector[offset] = Math.cos(latitude) * Math.cos(longitude);
+    vector[offset + 1] = Math.cos(latitude) * Math.sin(longitude);
+    vector[offset + 2] = Math.sin(latitude);
+  }
+
+  private final Location[] tree;
+  private final double[] coordinates;
+  private final Location[] pending;
+  private final Set<Location> removed;
+
+  /**
+   * Index with a tree of locations, in which the median of each range is at the middle of the
+   * range, split on the axis for its depth. Removed locations are compared by identity.
+   */
+  private SpatialLocationIndex(
+      final Location[] tree,
+      final double[] coordinates,
+      final Location[] pending,
+      final Set<Location> removed) {
+    this.tree = tree;
+    this.coordinates = coordinates;
+    this.pending = pending;
+    this.removed = removed;
+  }
+
+  /**
+   * Finds the locations nearest to a point, by great-circle distance.
+   *
+   * @param pointLocation Point to search from
+   * @param k Maximum number of locations
+   * @return Nearest locations, nearest first
+   */
+  List<Location> nearest(final PointLocation pointLocation, final int k) {
+    if (k <= 0) {
+      return List.of();
+    }
+    final Search search = new Search(pointLocation, k);
+    search.searchTree(0, tree.length, 0);
+    for (final Location location : pending) {
+      search.offer(location);
+    }
+    return search.results();
+  }
+
+  /**
+   * Builds a new index with additional locations, which must not already be in the index.
+   *
+   * @param added Locations to add
+   * @return New index
+   */
+  SpatialLocationIndex withAdded(final Collection<Location> added) {
+    if (added.isEmpty()) {
+      return this;
+    }
+    if (pending.length + added.size() > rebuildThreshold()) {
+      final List<Location> locations = liveLocations();
+      locations.addAll(added);
+      return build(locations);
+    }
+    final Location[] nextPending = Arrays.copyOf(pending, pending.length + added.size());
+    int i = pending.length;
+    for (final Location location : added) {
+      nextPending[i++] = location;
+    }
+    return new SpatialLocationIndex(tree, coordinates, nextPending, removed);
+  }
+
+  /**
+   * Builds a new index without a location.
+   *
+   * @param location Location to remove
+   * @return New index
+   */
+  SpatialLocationIndex without(final Location location) {
+    for (int i = 0; i < pending.length; i++) {
+      if (pending[i] == location) {
+        final Location[] nextPending = new Location[pending.length - 1];
+        System.arraycopy(pending, 0, nextPending, 0, i);
+        System.arraycopy(pending, i + 1, nextPending, i, pending.length - i - 1);
+        return new SpatialLocationIndex(tree, coordinates, nextPending, removed);
+      }
+    }
+    if (removed.size() + 1 > rebuildThreshold()) {
+      final List<Location> locations = liveLocations();
+      locations.removeIf(live -> live == location);
+      return build(locations);
+    }
+    final Set<Location> nextRemoved = Collections.newSetFromMap(new IdentityHashMap<>());
+    nextRemoved.addAll(removed);
+    nextRemoved.add(location);
+    return new SpatialLocationIndex(tree, coordinates, pending, nextRemoved);
+  }
+
+  private List<Location> liveLocations() {
+    final List<Location> locations = new ArrayList<>(tree.length + pending.length);
+    for (final Location location : tree) {
+      if (!removed.contains(location)) {
+        locations.add(location);
+      }
+    }
+    locations.addAll(Arrays.asList(pending));
+    return locations;
+  }
+
+  private int rebuildThreshold() {
+    return Math.max(MINIMUM_REBUILD_THRESHOLD, tree.length / 8);
+  }
+
+  private record Neighbor(double distanceSquared, Location location) {}
+
+  /** Arranges a tree, by placing the median of each range at its middle. */
+  private static final class TreeBuilder {
+
+    private final Location[] tree;
+    private final double[] coordinates;
+
+    TreeBuilder(final Location[] tree, final double[] coordinates) {
+      this.tree = tree;
+      this.coordinates = coordinates;
+    }
+
+    void build(final int from, final int to, final int depth) {
+      if (to - from <= 1) {
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      select(from, to - 1, middle, depth % 3);
+      build(from, middle, depth + 1);
+      build(middle + 1, to, depth + 1);
+    }
+
+    private double coordinate(final int index, final int axis) {
+      return coordinates[index * 3 + axis];
+    }
+
+    /** Quickselect, which places the k-th smallest value on an axis at index k. */
+    private void select(final int from, final int to, final int k, final int axis) {
+      int left = from;
+      int right = to;
+      while (left < right) {
+        final double pivot = coordinate((left + right) >>> 1, axis);
+        int i = left;
+        int j = right;
+        while (i <= j) {
+          while (coordinate(i, axis) < pivot) {
+            i++;
+          }
+          while (coordinate(j, axis) > pivot) {
+            j--;
+          }
+          if (i <= j) {
+            swap(i, j);
+            i++;
+            j--;
+          }
+        }
+        if (k <= j) {
+          right = j;
+        } else if (k >= i) {
+          left = i;
+        } else {
+          return;
+        }
+      }
+    }
+
+    private void swap(final int i, final int j) {
+      final Location location = tree[i];
+      tree[i] = tree[j];
+      tree[j] = location;
+      for (int axis = 0; axis < 3; axis++) {
+        final double coordinate = coordinates[i * 3 + axis];
+        coordinates[i * 3 + axis] = coordinates[j * 3 + axis];
+        coordinates[j * 3 + axis] = coordinate;
+      }
+    }
+  }
+
+  /** Search for the nearest locations, which keeps the best so far in a bounded heap. */
+  private final class Search {
+
+    private final double[] point = new double[3];
+    private final double[] vector = new double[3];
+    private final int k;
+    private final PriorityQueue<Neighbor> best;
+
+    Search(final PointLocation pointLocation, final int k) {
+      toUnitVector(pointLocation, point, 0);
+      this.k = k;
+      best = new PriorityQueue<>(Comparator.comparingDouble(Neighbor::distanceSquared).reversed());
+    }
+
+    void offer(final Location location) {
+      toUnitVector(location.getPointLocation(), vector, 0);
+      offer(distanceSquared(vector, 0), location);
+    }
+
+    List<Location> results() {
+      final List<Neighbor> neighbors = new ArrayList<>(best);
+      neighbors.sort(Comparator.comparingDouble(Neighbor::distanceSquared));
+      final List<Location> locations = new ArrayList<>(neighbors.size());
+      for (final Neighbor neighbor : neighbors) {
+        locations.add(neighbor.location());
+      }
+      return Collections.unmodifiableList(locations);
+    }
+
+    void searchTree(final int from, final int to, final int depth) {
+      if (from >= to) {
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      final Location location = tree[middle];
+      if (!removed.contains(location)) {
+        offer(distanceSquared(coordinates, middle * 3), location);
+      }
+
+      final int axis = depth % 3;
+      final double difference = point[axis] - coordinates[middle * 3 + axis];
+      if (difference < 0) {
+        searchTree(from, middle, depth + 1);
+        if (isCloser(difference * difference)) {
+          searchTree(middle + 1, to, depth + 1);
+        }
+      } else {
+        searchTree(middle + 1, to, depth + 1);
+        if (isCloser(difference * difference)) {
+          searchTree(from, middle, depth + 1);
+        }
+      }
+    }
+
+    private double distanceSquared(final double[] other, final int offset) {
+      final double dx = point[0] - other[offset];
+      final double dy = point[1] - other[offset + 1];
+      final double dz = point[2] - other[offset + 2];
+      return dx * dx + dy * dy + dz * dz;
+    }
+
+    private boolean isCloser(final double distanceSquared) {
+      return best.size() < k || distanceSquared < best.peek().distanceSquared();
+    }
+
+    private void offer(final double distanceSquared, final Location location) {
+      if (isCloser(distanceSquared)) {
+        best.add(new Neighbor(distanceSquared, location));
+        if (best.size() > k) {
+          best.poll();
+        }
+      }
+    }
+  }
+}
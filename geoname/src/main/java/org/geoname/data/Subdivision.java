@@ -52,4 +52,9 @@ public record Subdivision(String code, String name, String type) implements Seri
   public String toString() {
     return code + " (" + name + ")";
   }
+
+  @Serial
+  private Object readResolve() {
+    return Subdivisions.canonical(this);
+  }
 }
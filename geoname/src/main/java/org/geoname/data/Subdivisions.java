@@ -63,6 +63,27 @@ public final class Subdivisions {
     return subdivisionMap.get(name.trim());
   }
 
+  /**
+   * Looks up the shared instance of a subdivision, so that locations in the same subdivision share
+   * one subdivision object.
+   *
+   * @param subdivision Subdivision, which may be null
+   * @return Shared subdivision object, or the subdivision itself if it is not in the internal
+   *     database with the same name and type
+   */
+  static Subdivision canonical(final Subdivision subdivision) {
+    if (subdivision == null) {
+      return null;
+    }
+    final Subdivision knownSubdivision = subdivisionMap.get(subdivision.code());
+    if (knownSubdivision != null
+        && knownSubdivision.name().equals(subdivision.name())
+        && knownSubdivision.type().equals(subdivision.type())) {
+      return knownSubdivision;
+    }
+    return subdivision;
+  }
+
   private static void loadISO3166_2() {
     final String dataResource = "iso3166-2.data";
     final CSVFormat format =
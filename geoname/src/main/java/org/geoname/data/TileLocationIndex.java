@@ -0,0 +1,335 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable hierarchical grid of locations, for clustered map tiles. The grid is a quadtree over
+ * Web Mercator tiles, down to tiles at the leaf level, which hold their locations. Each node keeps
+ * the count and coordinate sums of the locations under it, and a representative location, so that a
+ * tile is clustered by reading the nodes a few levels below it. New versions of the grid copy only
+ * the path from the root to each changed leaf, and a batch of locations copies each node at most
+ * once.
+ */
+final class TileLocationIndex {
+
+  static final TileLocationIndex EMPTY = new TileLocationIndex(null);
+
+  /** Largest supported zoom level. */
+  static final int MAXIMUM_ZOOM = 24;
+
+  /** Level of the leaves of the grid, which have tiles about 40 km wide at the equator. */
+  private static final int LEAF_LEVEL = 10;
+
+  /** Tiles are clustered into cells this many levels below the tile, so 8 by 8 cells. */
+  private static final int CLUSTER_DEPTH = 3;
+
+  /** Latitude limit of the Web Mercator projection. */
+  private static final double MAXIMUM_LATITUDE = 85.05112878;
+
+  /**
+   * Cell that contains a location, on a grid of the given level.
+   *
+   * @return Cell x coordinate in the high 32 bits, and y in the low 32 bits
+   */
+  private static long cell(final Location location, final int level) {
+    final double latitude =
+        Math.max(
+            -MAXIMUM_LATITUDE,
+            Math.min(MAXIMUM_LATITUDE, location.getPointLocation().getLatitude().getDegrees()));
+    final double longitude = location.getPointLocation().getLongitude().getDegrees();
+    final double sinLatitude = Math.sin(Math.toRadians(latitude));
+    final double x = (longitude + 180) / 360;
+    final double y = 0.5 - Math.log((1 + sinLatitude) / (1 - sinLatitude)) / (4 * Math.PI);
+    final int size = 1 << level;
+    final long cellX = Math.max(0, Math.min(size - 1, (int) Math.floor(x * size)));
+    final long cellY = Math.max(0, Math.min(size - 1, (int) Math.floor(y * size)));
+    return cellX << 32 | cellY;
+  }
+
+  private static int cellX(final long cell) {
+    return (int) (cell >>> 32);
+  }
+
+  private static int cellY(final long cell) {
+    return (int) cell;
+  }
+
+  /** Child of a node at a level, towards a leaf cell. */
+  private static int childIndex(final long leafCell, final int level) {
+    final int shift = LEAF_LEVEL - level - 1;
+    return ((cellY(leafCell) >> shift) & 1) << 1 | (cellX(leafCell) >> shift) & 1;
+  }
+
+  private final Node root;
+
+  private TileLocationIndex(final Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Clusters the locations in a map tile, into cells three levels below the tile.
+   *
+   * @param zoom Zoom level of the tile
+   * @param x Tile x coordinate, from west to east
+   * @param y Tile y coordinate, from north to south
+   * @return Clusters, one for each cell that has locations
+   */
+  List<LocationCluster> clusters(final int zoom, final int x, final int y) {
+    final int clusterLevel = zoom + CLUSTER_DEPTH;
+    if (clusterLevel <= LEAF_LEVEL) {
+      final List<LocationCluster> clusters = new ArrayList<>();
+      collectClusters(descend(zoom, x, y), 0, clusters);
+      return Collections.unmodifiableList(clusters);
+    }
+
+    // Below the leaf level, the locations of the tile are clustered as they are read
+    final int level = Math.min(zoom, LEAF_LEVEL);
+    final List<Location> locations = new ArrayList<>();
+    collectLocations(descend(level, x >> (zoom - level), y >> (zoom - level)), locations);
+    final Map<Long, Accumulator> cells = new LinkedHashMap<>();
+    for (final Location location : locations) {
+      final long cell = cell(location, clusterLevel);
+      if (cellX(cell) >> CLUSTER_DEPTH == x && cellY(cell) >> CLUSTER_DEPTH == y) {
+        cells.computeIfAbsent(cell, c -> new Accumulator()).add(location);
+      }
+    }
+    final List<LocationCluster> clusters = new ArrayList<>(cells.size());
+    for (final Accumulator accumulator : cells.values()) {
+      clusters.add(accumulator.toCluster());
+    }
+    return Collections.unmodifiableList(clusters);
+  }
+
+  /**
+   * Builds a new grid with additional locations, which must not already be in the grid.
+   *
+   * @param added Locations to add
+   * @return New grid
+   */
+  TileLocationIndex withAdded(final Collection<Location> added) {
+    if (added.isEmpty()) {
+      return this;
+    }
+    final Object owner = new Object();
+    Node next = root;
+    for (final Location location : added) {
+      next = insert(next, 0, cell(location, LEAF_LEVEL), location, owner);
+    }
+    return new TileLocationIndex(next);
+  }
+
+  /**
+   * Builds a new grid without a location.
+   *
+   * @param removed Location to remove
+   * @return New grid
+   */
+  TileLocationIndex without(final Location removed) {
+    if (root == null) {
+      return this;
+    }
+    return new TileLocationIndex(remove(root, 0, cell(removed, LEAF_LEVEL), removed, new Object()));
+  }
+
+  private void collectClusters(final Node node, final int depth, final List<LocationCluster> out) {
+    if (node == null) {
+      return;
+    }
+    if (depth == CLUSTER_DEPTH) {
+      out.add(node.toCluster());
+      return;
+    }
+    for (final Node child : node.children) {
+      collectClusters(child, depth + 1, out);
+    }
+  }
+
+  private void collectLocations(final Node node, final List<Location> out) {
+    if (node == null) {
+      return;
+    }
+    if (node.locations != null) {
+      out.addAll(node.locations);
+      return;
+    }
+    for (final Node child : node.children) {
+      collectLocations(child, out);
+    }
+  }
+
+  /** Finds the node for a tile, at or above the leaf level. */
+  private Node descend(final int level, final int x, final int y) {
+    final long leafCell = (long) (x << (LEAF_LEVEL - level)) << 32 | y << (LEAF_LEVEL - level);
+    Node node = root;
+    for (int i = 0; i < level && node != null; i++) {
+      node = node.children[childIndex(leafCell, i)];
+    }
+    return node;
+  }
+
+  private Node insert(
+      final Node node,
+      final int level,
+      final long leafCell,
+      final Location location,
+      final Object owner) {
+    final Node editable =
+        node == null ? new Node(owner, level == LEAF_LEVEL) : node.editable(owner);
+    if (editable.locations != null) {
+      editable.locations.add(location);
+      editable.count++;
+      editable.latitudeSum += location.getPointLocation().getLatitude().getDegrees();
+      editable.longitudeSum += location.getPointLocation().getLongitude().getDegrees();
+      editable.representative = editable.locations.get(0);
+    } else {
+      final int child = childIndex(leafCell, level);
+      editable.children[child] =
+          insert(editable.children[child], level + 1, leafCell, location, owner);
+      editable.aggregateChildren();
+    }
+    return editable;
+  }
+
+  private Node remove(
+      final Node node,
+      final int level,
+      final long leafCell,
+      final Location location,
+      final Object owner) {
+    if (node.locations != null) {
+      final int index = indexOf(node.locations, location);
+      if (index < 0) {
+        return node;
+      }
+      if (node.count == 1) {
+        return null;
+      }
+      final Node editable = node.editable(owner);
+      editable.locations.remove(index);
+      editable.count--;
+      editable.latitudeSum -= location.getPointLocation().getLatitude().getDegrees();
+      editable.longitudeSum -= location.getPointLocation().getLongitude().getDegrees();
+      editable.representative = editable.locations.get(0);
+      return editable;
+    }
+
+    final int child = childIndex(leafCell, level);
+    if (node.children[child] == null) {
+      return node;
+    }
+    final Node nextChild = remove(node.children[child], level + 1, leafCell, location, owner);
+    if (nextChild == node.children[child]) {
+      return node;
+    }
+    if (nextChild == null && node.count == node.children[child].count) {
+      return null;
+    }
+    final Node editable = node.editable(owner);
+    editable.children[child] = nextChild;
+    editable.aggregateChildren();
+    return editable;
+  }
+
+  private static int indexOf(final List<Location> locations, final Location location) {
+    for (int i = 0; i < locations.size(); i++) {
+      if (locations.get(i) == location) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Sums of locations in a cell, as they are read. */
+  private static final class Accumulator {
+
+    private int count;
+    private double latitudeSum;
+    private double longitudeSum;
+    private Location representative;
+
+    void add(final Location location) {
+      if (representative == null) {
+        representative = location;
+      }
+      count++;
+      latitudeSum += location.getPointLocation().getLatitude().getDegrees();
+      longitudeSum += location.getPointLocation().getLongitude().getDegrees();
+    }
+
+    LocationCluster toCluster() {
+      return new LocationCluster(count, latitudeSum / count, longitudeSum / count, representative);
+    }
+  }
+
+  /**
+   * Node of the grid. Nodes are only changed by the batch that created them, which is identified by
+   * its owner, and are immutable once they are published.
+   */
+  private static final class Node {
+
+    private final Object owner;
+    private final Node[] children;
+    private final List<Location> locations;
+    private int count;
+    private double latitudeSum;
+    private double longitudeSum;
+    private Location representative;
+
+    Node(final Object owner, final boolean leaf) {
+      this.owner = owner;
+      children = leaf ? null : new Node[4];
+      locations = leaf ? new ArrayList<>() : null;
+    }
+
+    private Node(final Object owner, final Node node) {
+      this.owner = owner;
+      children = node.children == null ? null : node.children.clone();
+      locations = node.locations == null ? null : new ArrayList<>(node.locations);
+      count = node.count;
+      latitudeSum = node.latitudeSum;
+      longitudeSum = node.longitudeSum;
+      representative = node.representative;
+    }
+
+    /** Sums the children, and takes the representative of the most populated child. */
+    void aggregateChildren() {
+      count = 0;
+      latitudeSum = 0;
+      longitudeSum = 0;
+      representative = null;
+      int representativeCount = 0;
+      for (final Node child : children) {
+        if (child != null) {
+          count += child.count;
+          latitudeSum += child.latitudeSum;
+          longitudeSum += child.longitudeSum;
+          if (child.count > representativeCount) {
+            representativeCount = child.count;
+            representative = child.representative;
+          }
+        }
+      }
+    }
+
+    Node editable(final Object owner) {
+      return this.owner == owner ? this : new Node(owner, this);
+    }
+
+    LocationCluster toCluster() {
+      return new LocationCluster(count, latitudeSum / count, longitudeSum / count, representative);
+    }
+  }
+}
@@ -8,9 +8,37 @@
 
 package org.geoname.data.utility;
 
+import us.fatehi.pointlocation6709.PointLocation;
+
 /** General utility methods. */
 public class Utility {
 
+  /** Mean radius of the Earth, in kilometers. */
+  public static final double MEAN_EARTH_RADIUS_KILOMETERS = 6371.0088;
+
+  /**
+   * Great-circle distance between two points, on a spherical Earth.
+   *
+   * @param pointLocation1 First point
+   * @param pointLocation2 Second point
+   * @return Distance in kilometers
+   */
+  public static double greatCircleDistance(
+      final PointLocation pointLocation1, final PointLocation pointLocation2) {
+    final double latitude1 = pointLocation1.getLatitude().getRadians();
+    final double latitude2 = pointLocation2.getLatitude().getRadians();
+    final double sinHalfLatitude = Math.sin((latitude2 - latitude1) / 2);
+    final double sinHalfLongitude =
+        Math.sin(
+            (pointLocation2.getLongitude().getRadians()
+                    - pointLocation1.getLongitude().getRadians())
+                / 2);
+    final double haversine =
+        sinHalfLatitude * sinHalfLatitude
+            + Math.cos(latitude1) * Math.cos(latitude2) * sinHalfLongitude * sinHalfLongitude;
+    return 2 * MEAN_EARTH_RADIUS_KILOMETERS * Math.asin(Math.min(1, Math.sqrt(haversine)));
+  }
+
   /**
    * Splits a double value into it's sexagesimal parts. Each part has the same sign as the provided
    * value.
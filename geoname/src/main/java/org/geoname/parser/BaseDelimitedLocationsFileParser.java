@@ -8,20 +8,27 @@
 
 package org.geoname.parser;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.geoname.data.Country;
 import org.geoname.data.Location;
 import org.geoname.data.Subdivision;
@@ -32,10 +39,35 @@ import us.fatehi.pointlocation6709.Latitude;
 import us.fatehi.pointlocation6709.Longitude;
 import us.fatehi.pointlocation6709.PointLocation;
 
+/**
+ * Parses delimited files that have a header, and no quoting. Columns are found by name in the
+ * header once, and then each line is read by column index, so that lines that are not locations can
+ * be skipped by checking a field or two, without reading the rest of the line. Record parsers do
+ * not keep state between records, so that chunks of a file can be parsed in parallel.
+ */
 abstract class BaseDelimitedLocationsFileParser implements LocationsParser {
   private static final Logger LOGGER =
       Logger.getLogger(BaseDelimitedLocationsFileParser.class.getName());
 
+  /** Parses a location from each record of a file, with columns found from the header. */
+  @FunctionalInterface
+  protected interface RecordParser {
+
+    /**
+     * Parses a location from a record.
+     *
+     * @param record Record, which is only valid until the next record is read
+     * @return Location, or null if the record is not a location
+     */
+    Location parseLocation(DelimitedRecord record);
+  }
+
+  /** Number of locations in each batch that is passed on from a stream. */
+  private static final int BATCH_SIZE = 4096;
+
+  /** Approximate size of the chunks of a file that are parsed in parallel. */
+  private static final int CHUNK_SIZE = 1024 * 1024;
+
   private final ResourceRef resourceRef;
   private final char delimiter;
 
@@ -51,90 +83,70 @@ abstract class BaseDelimitedLocationsFileParser implements LocationsParser {
   /**
    * {@inheritDoc}
    *
-   * @see org.geoname.parser.LocationsParser#parseLocations()
+   * <p>Large files on the file system are memory-mapped, and split into chunks at line boundaries,
+   * which are parsed in parallel, a few at a time, and passed on in file order. Other resources are
+   * read as a stream.
+   *
+   * @see org.geoname.parser.LocationsParser#parseLocations(Consumer)
    */
   @Override
-  public final Collection<Location> parseLocations() throws ParserException {
-    final List<Location> locations = new ArrayList<>();
-    final CSVFormat format =
-        CSVFormat.DEFAULT
-            .builder()
-            .setDelimiter(delimiter)
-            .setQuote(null)
-            .setHeader()
-            .setSkipHeaderRecord(true)
-            .setIgnoreEmptyLines(true)
-            .get();
-    try (InputStream stream = resourceRef.openStream();
-        CSVParser csvParser = format.parse(new InputStreamReader(stream, "UTF-8"))) {
-      final Set<String> seen = new HashSet<>();
-      for (final CSVRecord record : csvParser) {
-        final Map<String, String> locationDataMap = record.toMap();
-        final Location location = parseLocation(locationDataMap);
-        if (location != null) {
-          if (seen.add(location.deduplicationKey())) {
-            locations.add(location);
-          }
-        }
+  public final void parseLocations(final Consumer<List<Location>> batches) throws ParserException {
+    final int[] count = new int[1];
+    final Consumer<List<Location>> counted =
+        batch -> {
+          count[0] += batch.size();
+          batches.accept(batch);
+        };
+    try {
+      final Optional<Path> path = resourceRef.toPath();
+      final long size = path.isPresent() ? Files.size(path.get()) : 0;
+      if (size > 2 * CHUNK_SIZE && size <= Integer.MAX_VALUE) {
+        parseMappedFile(path.get(), (int) size, counted);
+      } else {
+        parseStream(counted);
       }
     } catch (final IOException e) {
       throw new ParserException("Invalid locations", e);
     }
 
-    LOGGER.log(Level.INFO, "Loaded " + locations.size() + " locations");
-    return locations;
+    LOGGER.log(Level.INFO, "Loaded " + count[0] + " locations");
   }
 
   protected final double getDouble(
-      final Map<String, String> locationDataMap, final String key, final double defaultValue) {
+      final DelimitedRecord record, final int column, final double defaultValue) {
     double doubleValue = defaultValue;
     try {
-      doubleValue = getDouble(locationDataMap, key);
+      doubleValue = record.getDouble(column);
     } catch (final ParserException e) {
       doubleValue = defaultValue;
     }
     return doubleValue;
   }
 
-  protected final int getInteger(
-      final Map<String, String> locationDataMap, final String key, final int defaultValue) {
-    int integerValue = defaultValue;
-    if (locationDataMap != null && locationDataMap.containsKey(key)) {
-      try {
-        integerValue = Integer.parseInt(locationDataMap.get(key));
-      } catch (final NumberFormatException e) {
-        integerValue = defaultValue;
-      }
-    }
-    return integerValue;
-  }
-
   protected final Location getLocation(
-      final Map<String, String> locationDataMap,
+      final DelimitedRecord record,
       final String city,
       final Country country,
-      final String latitudeKey,
-      final String longitudeKey,
-      final String altitudeKey)
+      final int latitudeColumn,
+      final int longitudeColumn,
+      final int altitudeColumn)
       throws ParserException {
     return getLocation(
-        locationDataMap, city, null, country, latitudeKey, longitudeKey, altitudeKey);
+        record, city, null, country, latitudeColumn, longitudeColumn, altitudeColumn);
   }
 
   protected final Location getLocation(
-      final Map<String, String> locationDataMap,
+      final DelimitedRecord record,
       final String city,
       final Subdivision subdivision,
       final Country country,
-      final String latitudeKey,
-      final String longitudeKey,
-      final String altitudeKey)
+      final int latitudeColumn,
+      final int longitudeColumn,
+      final int altitudeColumn)
       throws ParserException {
-    final Latitude latitude =
-        new Latitude(Angle.fromDegrees(getDouble(locationDataMap, latitudeKey)));
-    final Longitude longitude =
-        new Longitude(Angle.fromDegrees(getDouble(locationDataMap, longitudeKey)));
-    final double altitude = getDouble(locationDataMap, altitudeKey, 0D);
+    final Latitude latitude = new Latitude(Angle.fromDegrees(record.getDouble(latitudeColumn)));
+    final Longitude longitude = new Longitude(Angle.fromDegrees(record.getDouble(longitudeColumn)));
+    final double altitude = getDouble(record, altitudeColumn, 0D);
 
     final PointLocation pointLocation = new PointLocation(latitude, longitude, altitude, "");
 
@@ -148,18 +160,180 @@ abstract class BaseDelimitedLocationsFileParser implements LocationsParser {
     }
   }
 
-  protected abstract Location parseLocation(final Map<String, String> locationDataMap);
+  /**
+   * Creates a parser for the records of a file, which finds the columns that it reads by name in
+   * the header of the file. Columns that are not in the header have an index of -1.
+   *
+   * @param header Column names, in order
+   * @return Parser for the records of the file
+   */
+  protected abstract RecordParser newRecordParser(final List<String> header);
 
-  private final double getDouble(final Map<String, String> locationDataMap, final String key)
-      throws ParserException {
-    if (locationDataMap == null || !locationDataMap.containsKey(key)) {
-      throw new ParserException("No value for key " + key);
+  /**
+   * Parses a memory-mapped file, in chunks that start and end at line boundaries, on the common
+   * fork-join pool. Only a few chunks are parsed ahead of the chunk that is passed on next, so that
+   * memory use does not grow with the size of the file.
+   */
+  private void parseMappedFile(
+      final Path path, final int size, final Consumer<List<Location>> batches)
+      throws IOException, ParserException {
+    final ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    final MappedLines headerLines = new MappedLines(buffer, 0, size);
+    final String headerLine = nextLine(headerLines::readLine);
+    if (headerLine == null) {
+      return;
     }
+    final List<String> header = DelimitedRecord.split(headerLine, delimiter);
+    final RecordParser recordParser = newRecordParser(header);
 
+    final int dataStart = headerLines.position();
+    final int chunkCount = Math.max(1, (size - dataStart) / CHUNK_SIZE);
+    final int chunksAhead = 2 * ForkJoinPool.getCommonPoolParallelism();
+    final Deque<Future<List<Location>>> pending = new ArrayDeque<>();
     try {
-      return Double.parseDouble(locationDataMap.get(key));
-    } catch (final NumberFormatException e) {
-      throw new ParserException("Bad value for key " + key, e);
+      int chunkStart = dataStart;
+      for (int i = 1; i <= chunkCount; i++) {
+        // Move the end of the chunk to the next line boundary, past any long line in the previous
+        // chunk
+        int chunkEnd =
+            Math.max(chunkStart, dataStart + (int) ((long) (size - dataStart) * i / chunkCount));
+        while (chunkEnd < size && buffer.get(chunkEnd - 1) != '\n') {
+          chunkEnd++;
+        }
+        if (chunkEnd > chunkStart) {
+          final MappedLines lines = new MappedLines(buffer, chunkStart, chunkEnd);
+          pending.add(
+              ForkJoinPool.commonPool()
+                  .submit(
+                      () -> {
+                        final List<Location> chunk = new ArrayList<>();
+                        parseLines(lines::readLine, recordParser, header.size(), chunk::addAll);
+                        return chunk;
+                      }));
+        }
+        chunkStart = chunkEnd;
+        if (pending.size() > chunksAhead) {
+          batches.accept(pending.removeFirst().get());
+        }
+      }
+      while (!pending.isEmpty()) {
+        batches.accept(pending.removeFirst().get());
+      }
+    } catch (final ExecutionException e) {
+      throw new ParserException("Invalid locations", e.getCause());
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ParserException("Interrupted while reading locations", e);
+    } finally {
+      pending.forEach(future -> future.cancel(true));
+    }
+  }
+
+  /** Parses a stream, on the calling thread. */
+  private void parseStream(final Consumer<List<Location>> batches) throws IOException {
+    try (InputStream stream = resourceRef.openStream();
+        BufferedReader reader =
+            new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      final String headerLine = nextLine(reader::readLine);
+      if (headerLine == null) {
+        return;
+      }
+      final List<String> header = DelimitedRecord.split(headerLine, delimiter);
+      parseLines(reader::readLine, newRecordParser(header), header.size(), batches);
+    }
+  }
+
+  /** Parses the locations in lines, which may contain duplicates, and passes them on in batches. */
+  private void parseLines(
+      final LineSource lines,
+      final RecordParser recordParser,
+      final int columnCount,
+      final Consumer<List<Location>> batches)
+      throws IOException {
+    List<Location> batch = new ArrayList<>();
+    final DelimitedRecord record = new DelimitedRecord(delimiter, columnCount);
+    String line;
+    while ((line = nextLine(lines)) != null) {
+      record.read(line);
+      final Location location = recordParser.parseLocation(record);
+      if (location != null) {
+        batch.add(location);
+        if (batch.size() == BATCH_SIZE) {
+          batches.accept(batch);
+          batch = new ArrayList<>();
+        }
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.accept(batch);
+    }
+  }
+
+  /** Reads the next line that is not empty. */
+  private static String nextLine(final LineSource lines) throws IOException {
+    String line;
+    do {
+      line = lines.readLine();
+    } while (line != null && line.isEmpty());
+    return line;
+  }
+
+  /** Source of lines, without line terminators. */
+  @FunctionalInterface
+  private interface LineSource {
+
+    /**
+     * Reads the next line.
+     *
+     * @return Line, or null at the end
+     */
+    String readLine() throws IOException;
+  }
+
+  /**
+   * Lines of UTF-8 text in part of a buffer, which are read with absolute positions, so that
+   * several threads can read different parts of the same buffer.
+   */
+  private static final class MappedLines {
+
+    private final ByteBuffer buffer;
+    private final int end;
+    private int position;
+    private byte[] bytes = new byte[1024];
+
+    MappedLines(final ByteBuffer buffer, final int start, final int end) {
+      this.buffer = buffer;
+      this.end = end;
+      position = start;
+    }
+
+    int position() {
+      return position;
+    }
+
+    String readLine() {
+      if (position >= end) {
+        return null;
+      }
+      int lineEnd = position;
+      while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+        lineEnd++;
+      }
+      final int next = lineEnd + 1;
+      if (lineEnd > position && buffer.get(lineEnd - 1) == '\r') {
+        lineEnd--;
+      }
+      final int length = lineEnd - position;
+      if (bytes.length < length) {
+        bytes = new byte[Math.max(length, bytes.length * 2)];
+      }
+      buffer.get(position, bytes, 0, length);
+      position = next;
+      return new String(bytes, 0, length, StandardCharsets.UTF_8);
     }
   }
 }
@@ -0,0 +1,182 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record of a delimited file without quoting, with fields that are read by column index. The record
+ * only marks where each field starts and ends in the line, so fields are not copied unless they are
+ * read as strings, and one record is reused for every line of a file.
+ */
+final class DelimitedRecord {
+
+  /** Powers of ten that are exact as doubles. */
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  /** Largest number of significant digits that are exact in a double. */
+  private static final int MAXIMUM_EXACT_DIGITS = 15;
+
+  /**
+   * Splits a line into all of its fields.
+   *
+   * @param line Line to split
+   * @param delimiter Field delimiter
+   * @return Fields
+   */
+  static List<String> split(final String line, final char delimiter) {
+    final List<String> fields = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i <= line.length(); i++) {
+      if (i == line.length() || line.charAt(i) == delimiter) {
+        fields.add(line.substring(start, i));
+        start = i + 1;
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * Parses a decimal number from part of a string, without copying it. Plain decimal numbers with
+   * up to 15 significant digits and 22 decimal places are computed exactly from their digits, and
+   * anything else is left to {@link Double#parseDouble(String)}.
+   */
+  static double parseDouble(final String text, final int start, final int end) {
+    int i = start;
+    final boolean negative = i < end && text.charAt(i) == '-';
+    if (i < end && (negative || text.charAt(i) == '+')) {
+      i++;
+    }
+    long mantissa = 0;
+    int significantDigits = 0;
+    int scale = 0;
+    boolean hasDigits = false;
+    boolean hasPoint = false;
+    for (; i < end; i++) {
+      final char c = text.charAt(i);
+      if (c >= '0' && c <= '9') {
+        hasDigits = true;
+        mantissa = mantissa * 10 + (c - '0');
+        if (mantissa != 0) {
+          significantDigits++;
+        }
+        if (hasPoint) {
+          scale++;
+        }
+        if (significantDigits > MAXIMUM_EXACT_DIGITS || scale >= POWERS_OF_TEN.length) {
+          return Double.parseDouble(text.substring(start, end));
+        }
+      } else if (c == '.' && !hasPoint) {
+        hasPoint = true;
+      } else {
+        return Double.parseDouble(text.substring(start, end));
+      }
+    }
+    if (!hasDigits) {
+      return Double.parseDouble(text.substring(start, end));
+    }
+    final double value = mantissa / POWERS_OF_TEN[scale];
+    return negative ? -value : value;
+  }
+
+  private final char delimiter;
+  private final int[] starts;
+  private final int[] ends;
+  private String line;
+  private int fieldCount;
+
+  /**
+   * Record that reads up to a number of fields from each line.
+   *
+   * @param delimiter Field delimiter
+   * @param columnCount Number of columns in the header
+   */
+  DelimitedRecord(final char delimiter, final int columnCount) {
+    this.delimiter = delimiter;
+    starts = new int[columnCount];
+    ends = new int[columnCount];
+  }
+
+  /**
+   * Reads the fields of a line into this record, replacing the previous line.
+   *
+   * @param line Line of the file
+   */
+  void read(final String line) {
+    this.line = line;
+    fieldCount = 0;
+    int start = 0;
+    for (int i = 0; i <= line.length() && fieldCount < starts.length; i++) {
+      if (i == line.length() || line.charAt(i) == delimiter) {
+        starts[fieldCount] = start;
+        ends[fieldCount] = i;
+        fieldCount++;
+        start = i + 1;
+      }
+    }
+  }
+
+  /**
+   * Reads a field as a string.
+   *
+   * @param column Column index, or -1 for a column that is not in the file
+   * @return Field value, or null if the line does not have the column
+   */
+  String get(final int column) {
+    if (!has(column)) {
+      return null;
+    }
+    return line.substring(starts[column], ends[column]);
+  }
+
+  /**
+   * Reads a field as a number.
+   *
+   * @param column Column index, or -1 for a column that is not in the file
+   * @return Field value
+   * @throws ParserException If the line does not have the column, or the field is not a number
+   */
+  double getDouble(final int column) throws ParserException {
+    if (!has(column)) {
+      throw new ParserException("No value for column " + column);
+    }
+    try {
+      return parseDouble(line, starts[column], ends[column]);
+    } catch (final NumberFormatException e) {
+      throw new ParserException("Bad value for column " + column, e);
+    }
+  }
+
+  /**
+   * Checks whether the line has a column.
+   *
+   * @param column Column index, or -1 for a column that is not in the file
+   * @return Whether the line has the column
+   */
+  boolean has(final int column) {
+    return column >= 0 && column < fieldCount;
+  }
+
+  /**
+   * Compares a field to a value, without copying the field.
+   *
+   * @param column Column index, or -1 for a column that is not in the file
+   * @param value Value to compare to
+   * @return Whether the line has the column, and the field is equal to the value
+   */
+  boolean is(final int column, final String value) {
+    return has(column)
+        && ends[column] - starts[column] == value.length()
+        && line.startsWith(value, starts[column]);
+  }
+}
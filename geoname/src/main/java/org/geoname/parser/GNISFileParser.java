@@ -8,7 +8,7 @@
 
 package org.geoname.parser;
 
-import java.util.Map;
+import java.util.List;
 import org.geoname.data.Countries;
 import org.geoname.data.Country;
 import org.geoname.data.Location;
@@ -26,26 +26,30 @@ public final class GNISFileParser extends BaseDelimitedLocationsFileParser {
   }
 
   @Override
-  protected Location parseLocation(final Map<String, String> locationDataMap) {
-    if (locationDataMap == null) {
-      return null;
-    }
-
-    final String featureClass = locationDataMap.get("Class");
-    if (featureClass == null || !"Populated Place".equals(featureClass)) {
-      return null;
-    }
-    try {
-      final String city = locationDataMap.get("Feature Name");
-      final String stateCode = locationDataMap.get("State");
-      final Subdivision subdivision = Subdivisions.lookupSubdivisionName(stateCode);
-
-      final Location location =
-          getLocation(
-              locationDataMap, city, subdivision, USA, "Latitude", "Longitude", "Elevation");
-      return location;
-    } catch (final ParserException e) {
-      return null;
-    }
+  protected RecordParser newRecordParser(final List<String> header) {
+    final int featureClassColumn = header.indexOf("Class");
+    final int cityColumn = header.indexOf("Feature Name");
+    final int stateColumn = header.indexOf("State");
+    final int latitudeColumn = header.indexOf("Latitude");
+    final int longitudeColumn = header.indexOf("Longitude");
+    final int elevationColumn = header.indexOf("Elevation");
+
+    return record -> {
+      if (!record.is(featureClassColumn, "Populated Place")) {
+        return null;
+      }
+      try {
+        final String city = record.get(cityColumn);
+        final String stateCode = record.get(stateColumn);
+        final Subdivision subdivision = Subdivisions.lookupSubdivisionName(stateCode);
+
+        final Location location =
+            getLocation(
+                record, city, subdivision, USA, latitudeColumn, longitudeColumn, elevationColumn);
+        return location;
+      } catch (final ParserException e) {
+        return null;
+      }
+    };
   }
 }
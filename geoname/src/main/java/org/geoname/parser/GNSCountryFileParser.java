@@ -8,10 +8,9 @@
 
 package org.geoname.parser;
 
-import java.util.Map;
+import java.util.List;
 import org.geoname.data.Countries;
 import org.geoname.data.Country;
-import org.geoname.data.Location;
 import org.geoname.data.Subdivision;
 import org.geoname.data.Subdivisions;
 import org.geoname.parser.resources.ResourceRef;
@@ -26,46 +25,46 @@ public final class GNSCountryFileParser extends BaseDelimitedLocationsFileParser
   private static final String COUNTRY_CODE = "cc_ft";
   private static final String NAME_TYPE = "nt";
   private static final String FEATURE_CLASSIFICATION_CODE = "fc";
+  private static final String ELEVATION = "elev";
 
   public GNSCountryFileParser(final ResourceRef resourceRef) throws ParserException {
     super(resourceRef, '\t');
   }
 
   @Override
-  protected Location parseLocation(final Map<String, String> locationDataMap) {
-    if (locationDataMap == null) {
-      return null;
-    }
+  protected RecordParser newRecordParser(final List<String> header) {
+    final int featureClassificationColumn = header.indexOf(FEATURE_CLASSIFICATION_CODE);
+    final int nameTypeColumn = header.indexOf(NAME_TYPE);
+    final int countryCodeColumn = header.indexOf(COUNTRY_CODE);
+    final int adminDivisionCodeColumn = header.indexOf(FIRST_ORDER_ADMINISTRATIVE_SUBDIVISION_CODE);
+    final int fullNameColumn = header.indexOf(FULL_NAME);
+    final int latitudeColumn = header.indexOf(LATITUDE_DECIMAL_DEGREES);
+    final int longitudeColumn = header.indexOf(LONGITUDE_DECIMAL_DEGREES);
+    final int elevationColumn = header.indexOf(ELEVATION);
 
-    final String featureClassification = locationDataMap.get(FEATURE_CLASSIFICATION_CODE);
-    final String nameType = locationDataMap.get(NAME_TYPE);
-    if (!"P".equals(featureClassification) || !"C".equals(nameType) && !"N".equals(nameType)) {
-      // Skip populated places that have conventional or native names
-      return null;
-    }
-    try {
-      final String alpha3CountryCode = locationDataMap.get(COUNTRY_CODE);
-      final Country country = Countries.lookupIso3166CountryCode3(alpha3CountryCode);
+    return record -> {
+      if (!record.is(featureClassificationColumn, "P")
+          || !record.is(nameTypeColumn, "C") && !record.is(nameTypeColumn, "N")) {
+        // Skip populated places that have conventional or native names
+        return null;
+      }
+      if (!record.has(fullNameColumn)) {
+        return null;
+      }
+      try {
+        final String alpha3CountryCode = record.get(countryCodeColumn);
+        final Country country = Countries.lookupIso3166CountryCode3(alpha3CountryCode);
+
+        final String adminDivisionCode = record.get(adminDivisionCodeColumn);
+        final Subdivision subdivision = Subdivisions.lookupSubdivision(adminDivisionCode);
 
-      final String adminDivisionCode =
-          locationDataMap.get(FIRST_ORDER_ADMINISTRATIVE_SUBDIVISION_CODE);
-      final Subdivision subdivision = Subdivisions.lookupSubdivision(adminDivisionCode);
+        final String city = record.get(fullNameColumn);
 
-      if (!locationDataMap.containsKey(FULL_NAME)) {
+        return getLocation(
+            record, city, subdivision, country, latitudeColumn, longitudeColumn, elevationColumn);
+      } catch (final ParserException e) {
         return null;
       }
-      final String city = locationDataMap.get(FULL_NAME);
-
-      return getLocation(
-          locationDataMap,
-          city,
-          subdivision,
-          country,
-          LATITUDE_DECIMAL_DEGREES,
-          LONGITUDE_DECIMAL_DEGREES,
-          "elev");
-    } catch (final ParserException e) {
-      return null;
-    }
+    };
   }
 }
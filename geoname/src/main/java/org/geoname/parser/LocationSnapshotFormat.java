@@ -0,0 +1,42 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.parser;
+
+/**
+ * Binary format of location snapshots. All numbers are big-endian, and strings are written as an
+ * int byte count followed by UTF-8 bytes.
+ *
+ * <ol>
+ *   <li>Magic number and format version, as ints
+ *   <li>Source fingerprints: a count, then the location, size and version of each source
+ *   <li>Countries: a count, then the name, ISO 3166 alpha-2 and alpha-3 codes of each country
+ *   <li>Subdivisions: a count, then the code, name and type of each subdivision
+ *   <li>Time zone ids: a count, then each id
+ *   <li>Locations: a count, then for each location, the city, the index of the country, of the
+ *       subdivision or -1, and of the time zone, the latitude and longitude in radians and the
+ *       altitude as doubles, and the coordinate reference system identifier
+ *   <li>CRC-32 checksum of all of the bytes before it, as a long
+ * </ol>
+ *
+ * Coordinates are kept in radians, as they are held by angles, so that locations read from a
+ * snapshot are equal to the locations that were written.
+ */
+final class LocationSnapshotFormat {
+
+  /** "DCLS", for Daylight Chart location snapshot. */
+  static final int MAGIC = 0x44434C53;
+
+  /** Version of the format, which is changed whenever the format changes. */
+  static final int VERSION = 1;
+
+  /** Size of the checksum at the end of a snapshot. */
+  static final int CHECKSUM_SIZE = Long.BYTES;
+
+  private LocationSnapshotFormat() {}
+}
@@ -0,0 +1,183 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.parser;
+
+import static org.geoname.parser.LocationSnapshotFormat.MAGIC;
+import static org.geoname.parser.LocationSnapshotFormat.VERSION;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import org.geoname.data.Country;
+import org.geoname.data.Location;
+import org.geoname.data.Subdivision;
+import org.geoname.parser.resources.ResourceFingerprint;
+import us.fatehi.pointlocation6709.PointLocation;
+
+/**
+ * Writes locations to a binary snapshot, which can be read back much faster than the files that the
+ * locations were parsed from. See {@link LocationSnapshotParser}.
+ */
+public final class LocationSnapshotFormatter {
+
+  /**
+   * Writes locations to a snapshot file. The snapshot is written to a temporary file next to the
+   * snapshot file, which then replaces it, so that a snapshot that is being read, or a write that
+   * fails, does not leave a partly written snapshot.
+   *
+   * @param locations Locations to write
+   * @param sources Fingerprints of the sources of the locations, which may be empty
+   * @param file Snapshot file
+   * @throws org.geoname.parser.FormatterException On an exception
+   */
+  public static void formatLocations(
+      final Collection<Location> locations,
+      final List<ResourceFingerprint> sources,
+      final Path file)
+      throws FormatterException {
+    if (locations == null || sources == null || file == null) {
+      throw new FormatterException("Cannot write location snapshot");
+    }
+
+    final Path directory = file.toAbsolutePath().getParent();
+    Path temporaryFile = null;
+    try {
+      Files.createDirectories(directory);
+      temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      writeSnapshot(locations, sources, temporaryFile);
+      Files.move(
+          temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      throw new FormatterException("Cannot write location snapshot to " + file, e);
+    } finally {
+      if (temporaryFile != null) {
+        try {
+          Files.deleteIfExists(temporaryFile);
+        } catch (final IOException e) {
+          // Leave the temporary file behind
+        }
+      }
+    }
+  }
+
+  private static void writeSnapshot(
+      final Collection<Location> locations,
+      final List<ResourceFingerprint> sources,
+      final Path file)
+      throws IOException {
+    final Dictionary<Country> countries = new Dictionary<>(country -> country);
+    // Subdivisions are equal by code, but are written with their names
+    final Dictionary<Subdivision> subdivisions =
+        new Dictionary<>(
+            subdivision -> List.of(subdivision.code(), subdivision.name(), subdivision.type()));
+    final Dictionary<String> timeZoneIds = new Dictionary<>(timeZoneId -> timeZoneId);
+    for (final Location location : locations) {
+      countries.add(location.getCountry());
+      if (location.getSubdivision() != null) {
+        subdivisions.add(location.getSubdivision());
+      }
+      timeZoneIds.add(location.getTimeZoneId());
+    }
+
+    final CRC32 checksum = new CRC32();
+    try (DataOutputStream out =
+        new DataOutputStream(
+            new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024), checksum))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+
+      out.writeInt(sources.size());
+      for (final ResourceFingerprint source : sources) {
+        writeString(out, source.location());
+        out.writeLong(source.size());
+        out.writeLong(source.version());
+      }
+
+      out.writeInt(countries.values.size());
+      for (final Country country : countries.values) {
+        writeString(out, country.name());
+        writeString(out, country.alpha2Code());
+        writeString(out, country.alpha3Code());
+      }
+      out.writeInt(subdivisions.values.size());
+      for (final Subdivision subdivision : subdivisions.values) {
+        writeString(out, subdivision.code());
+        writeString(out, subdivision.name());
+        writeString(out, subdivision.type());
+      }
+      out.writeInt(timeZoneIds.values.size());
+      for (final String timeZoneId : timeZoneIds.values) {
+        writeString(out, timeZoneId);
+      }
+
+      out.writeInt(locations.size());
+      for (final Location location : locations) {
+        final PointLocation pointLocation = location.getPointLocation();
+        writeString(out, location.getCity());
+        out.writeInt(countries.indexOf(location.getCountry()));
+        out.writeInt(
+            location.getSubdivision() == null
+                ? -1
+                : subdivisions.indexOf(location.getSubdivision()));
+        out.writeInt(timeZoneIds.indexOf(location.getTimeZoneId()));
+        out.writeDouble(pointLocation.getLatitude().getRadians());
+        out.writeDouble(pointLocation.getLongitude().getRadians());
+        out.writeDouble(pointLocation.getAltitude());
+        writeString(out, pointLocation.getCoordinateReferenceSystemIdentifier());
+      }
+
+      out.flush();
+      out.writeLong(checksum.getValue());
+    }
+  }
+
+  private static void writeString(final DataOutputStream out, final String string)
+      throws IOException {
+    final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /** Values that are each written once, and referred to by their index. */
+  private static final class Dictionary<T> {
+
+    private final Function<T, Object> identity;
+    private final Map<Object, Integer> indexes = new HashMap<>();
+    private final List<T> values = new ArrayList<>();
+
+    Dictionary(final Function<T, Object> identity) {
+      this.identity = identity;
+    }
+
+    void add(final T value) {
+      if (indexes.putIfAbsent(identity.apply(value), values.size()) == null) {
+        values.add(value);
+      }
+    }
+
+    int indexOf(final T value) {
+      return indexes.get(identity.apply(value));
+    }
+  }
+
+  private LocationSnapshotFormatter() {}
+}
@@ -0,0 +1,245 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.parser;
+
+import static org.geoname.parser.LocationSnapshotFormat.CHECKSUM_SIZE;
+import static org.geoname.parser.LocationSnapshotFormat.MAGIC;
+import static org.geoname.parser.LocationSnapshotFormat.VERSION;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import org.geoname.data.Country;
+import org.geoname.data.Location;
+import org.geoname.data.Subdivision;
+import org.geoname.parser.resources.ResourceFingerprint;
+import org.geoname.parser.resources.ResourceRef;
+import us.fatehi.pointlocation6709.Angle;
+import us.fatehi.pointlocation6709.Latitude;
+import us.fatehi.pointlocation6709.Longitude;
+import us.fatehi.pointlocation6709.PointLocation;
+
+/**
+ * Parses locations from a binary snapshot, written by {@link LocationSnapshotFormatter}. Snapshot
+ * files are memory-mapped, and the checksum of a snapshot is checked before any locations are read.
+ * Locations are read without looking up time zones, so reading a snapshot is much faster than
+ * parsing the files that the locations came from.
+ */
+public final class LocationSnapshotParser implements LocationsParser {
+
+  private static final Logger LOGGER = Logger.getLogger(LocationSnapshotParser.class.getName());
+
+  /** Number of locations in each batch that is passed on. */
+  private static final int BATCH_SIZE = 4096;
+
+  private final ResourceRef resourceRef;
+
+  public LocationSnapshotParser(final ResourceRef resourceRef) throws ParserException {
+    if (resourceRef == null) {
+      throw new ParserException("Cannot read locations");
+    }
+    this.resourceRef = resourceRef;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.geoname.parser.LocationsParser#parseLocations(Consumer)
+   */
+  @Override
+  public void parseLocations(final Consumer<List<Location>> batches) throws ParserException {
+    final ByteBuffer buffer = open();
+    checkChecksum(buffer);
+    try {
+      readSources(buffer);
+    } catch (final BufferUnderflowException | IllegalArgumentException e) {
+      throw new ParserException("Invalid location snapshot", e);
+    }
+    readLocations(buffer, batches);
+  }
+
+  /**
+   * Parses locations from the snapshot, only if it was written from the given sources. The snapshot
+   * is read once, and its sources are compared before its checksum is checked, so that a snapshot
+   * that is out of date is rejected without reading the rest of it.
+   *
+   * @param sources Fingerprints of the sources that the snapshot is expected to come from
+   * @param batches Consumer of batches of locations
+   * @return true if the snapshot came from the given sources, and its locations were parsed
+   * @throws ParserException On an exception
+   */
+  public boolean parseLocations(
+      final List<ResourceFingerprint> sources, final Consumer<List<Location>> batches)
+      throws ParserException {
+    final ByteBuffer buffer = open();
+    try {
+      if (!readSources(buffer).equals(sources)) {
+        return false;
+      }
+    } catch (final BufferUnderflowException | IllegalArgumentException e) {
+      throw new ParserException("Invalid location snapshot", e);
+    }
+    checkChecksum(buffer);
+    readLocations(buffer, batches);
+    return true;
+  }
+
+  /**
+   * Parses the fingerprints of the sources that the locations in the snapshot came from, without
+   * reading the locations or checking the checksum.
+   *
+   * @return Source fingerprints, in the order in which they were written
+   * @throws ParserException On an exception
+   */
+  public List<ResourceFingerprint> parseSources() throws ParserException {
+    try {
+      return readSources(open());
+    } catch (final BufferUnderflowException | IllegalArgumentException e) {
+      throw new ParserException("Invalid location snapshot", e);
+    }
+  }
+
+  /**
+   * Reads the dictionaries and the locations, from a buffer that is positioned after the sources,
+   * and limited to before the checksum.
+   */
+  private void readLocations(final ByteBuffer buffer, final Consumer<List<Location>> batches)
+      throws ParserException {
+    final int count;
+    try {
+      final Country[] countries = new Country[readCount(buffer)];
+      for (int i = 0; i < countries.length; i++) {
+        countries[i] = new Country(readString(buffer), readString(buffer), readString(buffer));
+      }
+      final Subdivision[] subdivisions = new Subdivision[readCount(buffer)];
+      for (int i = 0; i < subdivisions.length; i++) {
+        subdivisions[i] =
+            new Subdivision(readString(buffer), readString(buffer), readString(buffer));
+      }
+      final String[] timeZoneIds = new String[readCount(buffer)];
+      for (int i = 0; i < timeZoneIds.length; i++) {
+        timeZoneIds[i] = readString(buffer);
+      }
+
+      count = readCount(buffer);
+      List<Location> batch = new ArrayList<>(Math.min(count, BATCH_SIZE));
+      for (int i = 0; i < count; i++) {
+        final String city = readString(buffer);
+        final Country country = countries[buffer.getInt()];
+        final int subdivision = buffer.getInt();
+        final String timeZoneId = timeZoneIds[buffer.getInt()];
+        final PointLocation pointLocation =
+            new PointLocation(
+                new Latitude(Angle.fromRadians(buffer.getDouble())),
+                new Longitude(Angle.fromRadians(buffer.getDouble())),
+                buffer.getDouble(),
+                readString(buffer));
+        batch.add(
+            new Location(
+                city,
+                subdivision < 0 ? null : subdivisions[subdivision],
+                country,
+                timeZoneId,
+                pointLocation));
+        if (batch.size() == BATCH_SIZE) {
+          batches.accept(batch);
+          batch = new ArrayList<>(BATCH_SIZE);
+        }
+      }
+      if (!batch.isEmpty()) {
+        batches.accept(batch);
+      }
+    } catch (final BufferUnderflowException
+        | IndexOutOfBoundsException
+        | IllegalArgumentException
+        | DateTimeException e) {
+      throw new ParserException("Invalid location snapshot", e);
+    }
+
+    LOGGER.log(Level.INFO, "Loaded " + count + " locations");
+  }
+
+  private void checkChecksum(final ByteBuffer buffer) throws ParserException {
+    final int checksumPosition = buffer.limit() - CHECKSUM_SIZE;
+    if (checksumPosition < 0) {
+      throw new ParserException("Invalid location snapshot");
+    }
+    final CRC32 checksum = new CRC32();
+    checksum.update(buffer.slice(0, checksumPosition));
+    if (checksum.getValue() != buffer.getLong(checksumPosition)) {
+      throw new ParserException("Location snapshot is corrupt");
+    }
+    buffer.limit(checksumPosition);
+  }
+
+  /** Memory-maps a snapshot file, or reads other resources into memory. */
+  private ByteBuffer open() throws ParserException {
+    try {
+      final Optional<Path> path = resourceRef.toPath();
+      if (path.isPresent()) {
+        try (FileChannel channel = FileChannel.open(path.get(), StandardOpenOption.READ)) {
+          if (channel.size() > Integer.MAX_VALUE) {
+            throw new ParserException("Location snapshot is too large to map");
+          }
+          return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+      }
+      try (InputStream stream = resourceRef.openStream()) {
+        return ByteBuffer.wrap(stream.readAllBytes());
+      }
+    } catch (final IOException e) {
+      throw new ParserException("Cannot read location snapshot", e);
+    }
+  }
+
+  /** Reads a count, which must fit in the rest of the buffer. */
+  private static int readCount(final ByteBuffer buffer) {
+    final int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining()) {
+      throw new IllegalArgumentException("Invalid count, " + count);
+    }
+    return count;
+  }
+
+  /** Reads the header, and then the source fingerprints. */
+  private static List<ResourceFingerprint> readSources(final ByteBuffer buffer) {
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a location snapshot");
+    }
+    final int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported location snapshot version, " + version);
+    }
+    final int count = readCount(buffer);
+    final List<ResourceFingerprint> sources = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      sources.add(new ResourceFingerprint(readString(buffer), buffer.getLong(), buffer.getLong()));
+    }
+    return sources;
+  }
+
+  private static String readString(final ByteBuffer buffer) {
+    final byte[] bytes = new byte[readCount(buffer)];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -13,10 +13,8 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.csv.CSVFormat;
@@ -35,6 +33,9 @@ import us.fatehi.pointlocation6709.parse.PointLocationParser;
 public final class LocationsListParser implements LocationsParser {
   private static final Logger LOGGER = Logger.getLogger(LocationsListParser.class.getName());
 
+  /** Number of locations in each batch that is passed on. */
+  private static final int BATCH_SIZE = 4096;
+
   private static final CSVFormat RECORD_FORMAT =
       CSVFormat.DEFAULT
           .builder()
@@ -103,29 +104,34 @@ public final class LocationsListParser implements LocationsParser {
   /**
    * {@inheritDoc}
    *
-   * @see org.geoname.parser.LocationsParser#parseLocations()
+   * @see org.geoname.parser.LocationsParser#parseLocations(Consumer)
    */
   @Override
-  public Collection<Location> parseLocations() throws ParserException {
-    final List<Location> locations = new ArrayList<>();
+  public void parseLocations(final Consumer<List<Location>> batches) throws ParserException {
+    int count = 0;
+    List<Location> batch = new ArrayList<>();
     try (InputStream stream = resourceRef.openStream();
         CSVParser csvParser = FILE_FORMAT.parse(new InputStreamReader(stream, "UTF-8"))) {
-      final Set<String> seen = new HashSet<>();
       for (final CSVRecord record : csvParser) {
         try {
-          final Location location = toLocation(record, record.toString());
-          if (seen.add(location.deduplicationKey())) {
-            locations.add(location);
-          }
+          batch.add(toLocation(record, record.toString()));
         } catch (final ParserException e) {
           LOGGER.log(Level.WARNING, "Skipping invalid location record: " + record, e);
         }
+        if (batch.size() == BATCH_SIZE) {
+          count += batch.size();
+          batches.accept(batch);
+          batch = new ArrayList<>();
+        }
       }
     } catch (final IOException e) {
       throw new ParserException("Invalid locations", e);
     }
+    if (!batch.isEmpty()) {
+      count += batch.size();
+      batches.accept(batch);
+    }
 
-    LOGGER.log(Level.INFO, "Loaded " + locations.size() + " locations");
-    return locations;
+    LOGGER.log(Level.INFO, "Loaded " + count + " locations");
   }
 }
@@ -8,17 +8,41 @@
 
 package org.geoname.parser;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.geoname.data.Location;
 
 /** Parses locations files. */
 public interface LocationsParser {
 
   /**
-   * Parse a list of locations from a source.
+   * Parse a list of locations from a source. Duplicate locations are dropped, keeping the first.
    *
    * @return List of locations
    * @throws ParserException On an exception
    */
-  Collection<Location> parseLocations() throws ParserException;
+  default Collection<Location> parseLocations() throws ParserException {
+    final Map<String, Location> locations = new LinkedHashMap<>();
+    parseLocations(
+        batch -> {
+          for (final Location location : batch) {
+            locations.putIfAbsent(location.deduplicationKey(), location);
+          }
+        });
+    return new ArrayList<>(locations.values());
+  }
+
+  /**
+   * Parse locations from a source, and pass them on in batches, in source order, as they are
+   * parsed, so that the whole source is never held in memory. Batches are not deduplicated against
+   * each other, so consumers that need unique locations should keep the first of each.
+   *
+   * @param batches Consumer of batches of locations, which may keep the batches
+   * @throws ParserException On an exception
+   */
+  void parseLocations(Consumer<List<Location>> batches) throws ParserException;
 }
@@ -13,6 +13,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.Optional;
 
 /** {@link ResourceRef} backed by a {@link java.nio.file.Path} on the default file system. */
 final class FileResourceRef implements ResourceRef {
@@ -37,4 +38,9 @@ final class FileResourceRef implements ResourceRef {
   public InputStream openStream() throws IOException {
     return Files.newInputStream(path);
   }
+
+  @Override
+  public Optional<Path> toPath() {
+    return Optional.of(path);
+  }
 }
@@ -0,0 +1,65 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.parser.resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Fingerprint of a resource, which changes when the resource changes, so that data derived from the
+ * resource can be reused while the resource is unchanged. Files are fingerprinted by their size and
+ * modification time, without being read. Other resources are read, and fingerprinted by their size
+ * and a checksum of their content.
+ *
+ * @param location Location of the resource, from {@link ResourceRef#location()}
+ * @param size Size of the resource, in bytes
+ * @param version Modification time of a file, in milliseconds, or a checksum of the content of
+ *     other resources
+ */
+public record ResourceFingerprint(String location, long size, long version) {
+
+  public ResourceFingerprint {
+    location = Objects.requireNonNull(location, "Location is required");
+  }
+
+  /**
+   * Fingerprints a resource.
+   *
+   * @param resourceRef Resource
+   * @return Fingerprint of the resource
+   * @throws IOException if the resource does not exist or cannot be read
+   */
+  public static ResourceFingerprint of(final ResourceRef resourceRef) throws IOException {
+    Objects.requireNonNull(resourceRef, "Resource is required");
+    final Optional<Path> path = resourceRef.toPath();
+    if (path.isPresent()) {
+      return new ResourceFingerprint(
+          resourceRef.location(),
+          Files.size(path.get()),
+          Files.getLastModifiedTime(path.get()).toMillis());
+    }
+
+    final CRC32 checksum = new CRC32();
+    long size = 0;
+    try (InputStream stream = resourceRef.openStream()) {
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        checksum.update(buffer, 0, read);
+        size += read;
+      }
+    }
+    return new ResourceFingerprint(resourceRef.location(), size, checksum.getValue());
+  }
+}
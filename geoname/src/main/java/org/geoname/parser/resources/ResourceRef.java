@@ -10,6 +10,8 @@ package org.geoname.parser.resources;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * Lightweight abstraction for a readable resource. Implementations hold only a reference to the
@@ -41,4 +43,14 @@ public interface ResourceRef {
    * @throws IOException if the resource does not exist or cannot be opened
    */
   InputStream openStream() throws IOException;
+
+  /**
+   * Returns the path of the resource, if it is a file on the default file system, so that it can be
+   * read directly, for example by memory-mapping it.
+   *
+   * @return path to the file, or empty if the resource is not a plain file
+   */
+  default Optional<Path> toPath() {
+    return Optional.empty();
+  }
 }
@@ -20,14 +20,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -43,10 +46,46 @@ public final class DefaultTimezones {
 
   private static final Logger LOGGER = Logger.getLogger(DefaultTimezones.class.getName());
 
+  private static final int MAXIMUM_MATCHES = 4096;
+  private static final Pattern CITY_SEPARATORS = Pattern.compile(" |-");
+
   private static final Map<Country, List<String>> defaultTimezones = new HashMap<>();
-  private static final Map<String, List<String>> allTimezoneIds = new HashMap<>();
   private static final Set<TimeZoneDisplay> allTimezones = new TreeSet<>();
 
+  /**
+   * Time zone ids by their lower case city segment, with the next segment of each, in the order in
+   * which they are matched.
+   */
+  private static final Map<String, List<CityTimeZone>> timezonesByCity = new HashMap<>();
+
+  /** Standard offsets of time zones, in hours, which are computed once for each time zone. */
+  private static final Map<String, Double> standardOffsetHours = new ConcurrentHashMap<>();
+
+  /**
+   * Recent matches, least recently used first, since locations are often parsed in runs from the
+   * same area, and matching by city name is expensive. One bounded cache is shared by all threads,
+   * and is guarded by its own lock.
+   */
+  private static final Map<MatchKey, String> matches =
+      new LinkedHashMap<>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<MatchKey, String> eldest) {
+          return size() > MAXIMUM_MATCHES;
+        }
+      };
+
+  /** Time zone, with the lower case segment before its city segment, if there is one. */
+  private record CityTimeZone(String timeZoneId, String nextPart) {}
+
+  /**
+   * Inputs of a time zone match, with the longitude rounded to the nominal offset, which is all
+   * that the match depends on.
+   */
+  private record MatchKey(String city, Country country, double tzOffsetHours) {}
+
   /**
    * Loads default time zones from the internal database. These are default time zone ids for every
    * time zone for each country.
@@ -94,6 +133,7 @@ public final class DefaultTimezones {
   }
 
   static {
+    final Map<String, List<String>> allTimezoneIds = new HashMap<>();
     final Set<String> allTimeZoneIds = ZoneId.getAvailableZoneIds();
     for (final String timeZoneId : allTimeZoneIds) {
       if (timeZoneId.startsWith("Etc/")) {
@@ -105,6 +145,18 @@ public final class DefaultTimezones {
         allTimezoneIds.put(timeZoneId, timeZoneIdParts);
       }
     }
+
+    // Index time zones by city, keeping the order in which they were previously scanned, so that
+    // the first match is the same
+    for (final Entry<String, List<String>> entry : allTimezoneIds.entrySet()) {
+      final List<String> timeZoneParts = entry.getValue();
+      final String nextPart =
+          timeZoneParts.size() <= 1 ? null : timeZoneParts.get(1).toLowerCase(Locale.ENGLISH);
+      timezonesByCity
+          .computeIfAbsent(
+              timeZoneParts.getFirst().toLowerCase(Locale.ENGLISH), city -> new ArrayList<>())
+          .add(new CityTimeZone(entry.getKey(), nextPart));
+    }
   }
 
   /**
@@ -124,6 +176,9 @@ public final class DefaultTimezones {
    *       country is completely unknown.
    * </ol>
    *
+   * <p>Time zone ids are indexed by their city segment, and recent matches are remembered in a
+   * bounded cache, so that parsing a large file does not repeat the search for every row.
+   *
    * @param city City name (used for step 2 city-name matching)
    * @param country Country (used to look up registered default timezones)
    * @param longitude Geographic longitude (used for step 3 proximity and step 4 fallback)
@@ -136,10 +191,6 @@ public final class DefaultTimezones {
       return null;
     }
 
-    // Nominal UTC offset derived from the location's longitude (1 hour per 15° of longitude).
-    double tzOffsetHours = longitude.getDegrees() / 15D;
-    tzOffsetHours = roundToNearestFraction(tzOffsetHours, 0.5D);
-
     final List<String> defaultTimezonesForCountry = defaultTimezones.get(country);
 
     // Step 1: Single default timezone.
@@ -149,55 +200,23 @@ public final class DefaultTimezones {
       return defaultTimezonesForCountry.get(0);
     }
 
-    // Step 2: City name match.
-    // For countries with zero or multiple defaults, try to find a timezone whose city segment
-    // matches the supplied city name (e.g. "New York" → "America/New_York").
-    final String cityMatchedTimeZoneId = findBestTimeZoneId(city, country);
-    if (cityMatchedTimeZoneId != null) {
-      LOGGER.log(
-          Level.INFO,
-          "Time zone id for \""
-              + city
-              + ", "
-              + country
-              + "\" matched by city name: \""
-              + cityMatchedTimeZoneId
-              + "\"");
-      return cityMatchedTimeZoneId;
-    }
+    // Nominal UTC offset derived from the location's longitude (1 hour per 15° of longitude).
+    double tzOffsetHours = longitude.getDegrees() / 15D;
+    tzOffsetHours = roundToNearestFraction(tzOffsetHours, 0.5D);
 
-    // Step 3: Longitude proximity.
-    // For countries with multiple defaults and no city-name match, pick the default whose
-    // standard UTC offset is closest to the longitude-derived nominal offset.
-    if (defaultTimezonesForCountry != null && defaultTimezonesForCountry.size() > 1) {
-      double leastDifference = Double.MAX_VALUE;
-      String timeZoneId = null;
-      for (final String defaultTimeZoneId : defaultTimezonesForCountry) {
-        final double difference =
-            Math.abs(getStandardTimeZoneOffsetHours(defaultTimeZoneId) - tzOffsetHours);
-        if (difference < leastDifference) {
-          leastDifference = difference;
-          timeZoneId = defaultTimeZoneId;
-        }
-      }
-      if (timeZoneId != null) {
-        LOGGER.log(
-            Level.INFO,
-            "Time zone id for \""
-                + city
-                + ", "
-                + country
-                + "\" matched by longitude proximity: \""
-                + timeZoneId
-                + "\"");
-        return timeZoneId;
+    final MatchKey matchKey = new MatchKey(city, country, tzOffsetHours);
+    String timeZoneId;
+    synchronized (matches) {
+      timeZoneId = matches.get(matchKey);
+    }
+    if (timeZoneId == null) {
+      // Match outside the lock; a match that is made twice has the same result
+      timeZoneId = attemptTimeZoneMatch(city, country, tzOffsetHours, defaultTimezonesForCountry);
+      synchronized (matches) {
+        matches.put(matchKey, timeZoneId);
       }
     }
-
-    // Step 4: GMT fallback.
-    // No registered defaults exist for this country (or proximity matching yielded nothing).
-    // Synthesise a GMT±HH:MM timezone directly from the longitude.
-    return createGMTTimeZoneId(tzOffsetHours);
+    return timeZoneId;
   }
 
   /**
@@ -243,7 +262,8 @@ public final class DefaultTimezones {
   }
 
   /**
-   * Calculates the STANDARD time zone offset, in hours.
+   * Calculates the STANDARD time zone offset, in hours. Offsets are computed once for each time
+   * zone.
    *
    * @param timeZoneId Time zone id
    * @return Time zone offset, in hours
@@ -252,8 +272,11 @@ public final class DefaultTimezones {
     if (timeZoneId == null) {
       return 0D;
     }
-    final ZoneId zoneId = ZoneId.of(timeZoneId);
-    return zoneId.getRules().getStandardOffset(Instant.now()).getTotalSeconds() / (60D * 60D);
+    return standardOffsetHours.computeIfAbsent(
+        timeZoneId,
+        id ->
+            ZoneId.of(id).getRules().getStandardOffset(Instant.now()).getTotalSeconds()
+                / (60D * 60D));
   }
 
   /**
@@ -270,6 +293,54 @@ public final class DefaultTimezones {
         * fraction;
   }
 
+  /** Matches a time zone with steps 2 to 4 of {@link #attemptTimeZoneMatch}. */
+  private static String attemptTimeZoneMatch(
+      final String city,
+      final Country country,
+      final double tzOffsetHours,
+      final List<String> defaultTimezonesForCountry) {
+
+    // Step 2: City name match.
+    // For countries with zero or multiple defaults, try to find a timezone whose city segment
+    // matches the supplied city name (e.g. "New York" → "America/New_York").
+    final String cityMatchedTimeZoneId = findBestTimeZoneId(city, country);
+    if (cityMatchedTimeZoneId != null) {
+      LOGGER.log(
+          Level.FINE,
+          "Time zone id for \"{0}, {1}\" matched by city name: \"{2}\"",
+          new Object[] {city, country, cityMatchedTimeZoneId});
+      return cityMatchedTimeZoneId;
+    }
+
+    // Step 3: Longitude proximity.
+    // For countries with multiple defaults and no city-name match, pick the default whose
+    // standard UTC offset is closest to the longitude-derived nominal offset.
+    if (defaultTimezonesForCountry != null && defaultTimezonesForCountry.size() > 1) {
+      double leastDifference = Double.MAX_VALUE;
+      String timeZoneId = null;
+      for (final String defaultTimeZoneId : defaultTimezonesForCountry) {
+        final double difference =
+            Math.abs(getStandardTimeZoneOffsetHours(defaultTimeZoneId) - tzOffsetHours);
+        if (difference < leastDifference) {
+          leastDifference = difference;
+          timeZoneId = defaultTimeZoneId;
+        }
+      }
+      if (timeZoneId != null) {
+        LOGGER.log(
+            Level.FINE,
+            "Time zone id for \"{0}, {1}\" matched by longitude proximity: \"{2}\"",
+            new Object[] {city, country, timeZoneId});
+        return timeZoneId;
+      }
+    }
+
+    // Step 4: GMT fallback.
+    // No registered defaults exist for this country (or proximity matching yielded nothing).
+    // Synthesise a GMT±HH:MM timezone directly from the longitude.
+    return createGMTTimeZoneId(tzOffsetHours);
+  }
+
   /**
    * Create a STANDARD GMT-based timezone id.
    *
@@ -311,7 +382,7 @@ public final class DefaultTimezones {
 
     final List<String> locationParts = new ArrayList<>();
     for (final String locationPart : city.split(",")) {
-      locationParts.add(locationPart.trim().replaceAll(" |-", "_"));
+      locationParts.add(CITY_SEPARATORS.matcher(locationPart.trim()).replaceAll("_"));
     }
     if ("US".equals(country.alpha2Code()) && locationParts.size() >= 2) {
       final String stateString = locationParts.getLast();
@@ -324,28 +395,18 @@ public final class DefaultTimezones {
     }
     locationParts.add(country.name());
 
-    String bestTimeZoneId = null;
-
-    for (final Entry<String, List<String>> entry : allTimezoneIds.entrySet()) {
-      final String timeZoneId = entry.getKey();
-      final List<String> timeZoneParts = entry.getValue();
-      final String locationPart1 = locationParts.getFirst().toLowerCase(Locale.ENGLISH);
-      final String timeZonePart1 = timeZoneParts.getFirst().toLowerCase(Locale.ENGLISH);
-      if (locationPart1.equals(timeZonePart1)) {
-        if (timeZoneParts.size() <= 1) {
-          bestTimeZoneId = timeZoneId;
-          break;
-        }
-        final String locationPart2 = locationParts.get(1).toLowerCase(Locale.ENGLISH);
-        final String timeZonePart2 = timeZoneParts.get(1).toLowerCase(Locale.ENGLISH);
-        if (locationPart2.equals(timeZonePart2)) {
-          bestTimeZoneId = timeZoneId;
-          break;
-        }
+    final List<CityTimeZone> cityTimeZones =
+        timezonesByCity.get(locationParts.getFirst().toLowerCase(Locale.ENGLISH));
+    if (cityTimeZones == null) {
+      return null;
+    }
+    final String locationPart2 = locationParts.get(1).toLowerCase(Locale.ENGLISH);
+    for (final CityTimeZone cityTimeZone : cityTimeZones) {
+      if (cityTimeZone.nextPart() == null || locationPart2.equals(cityTimeZone.nextPart())) {
+        return cityTimeZone.timeZoneId();
       }
     }
-
-    return bestTimeZoneId;
+    return null;
   }
 
   private static List<String> splitTimeZoneId(final String timeZoneId) {
@@ -106,6 +106,25 @@ public class TestDefaultTimezones {
         is("Pacific/Honolulu"));
   }
 
+  /**
+   * Matches are remembered for each city, country, and nominal offset, so the same unmatched city
+   * at a different longitude must still be matched by longitude proximity.
+   */
+  @Test
+  public void rememberedMatchesDependOnLongitude() {
+    final Country us = Countries.lookupIso3166CountryCode2("US");
+    final Longitude honoluluLon = new Longitude(Angle.fromDegrees(-157.85));
+    final Longitude newYorkLon = new Longitude(Angle.fromDegrees(-74.0));
+    for (int i = 0; i < 2; i++) {
+      assertThat(
+          DefaultTimezones.attemptTimeZoneMatch("ZZZUnknownCity", us, honoluluLon),
+          is("Pacific/Honolulu"));
+      assertThat(
+          DefaultTimezones.attemptTimeZoneMatch("ZZZUnknownCity", us, newYorkLon),
+          is("America/New_York"));
+    }
+  }
+
   // ── Step 4: GMT fallback ─────────────────────────────────────────────────
 
   /**
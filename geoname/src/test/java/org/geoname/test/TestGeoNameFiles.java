@@ -9,6 +9,8 @@
 package org.geoname.test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 
 import java.io.IOException;
@@ -20,6 +22,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Handler;
 import java.util.logging.Logger;
@@ -32,6 +35,7 @@ import org.geoname.parser.resources.ResourceRefs;
 import org.geoname.timezones.DefaultTimezones;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class TestGeoNameFiles {
 
@@ -56,12 +60,84 @@ public class TestGeoNameFiles {
     parseGNISUSStates("HI", 130);
   }
 
+  @Test
+  public void GNISFileWithIrregularRows(@TempDir final Path tempDir)
+      throws ParserException, IOException {
+    final Path file = tempDir.resolve("irregular.csv");
+    Files.writeString(
+        file,
+        String.join(
+            "\n",
+            "Gaz ID,Feature Name,Class,County,State,Map,Elevation,Latitude,Longitude,Entry Date",
+            // Ends before the coordinates, so it is not a location
+            "1,Shortville,Populated Place,Plymouth County,Massachusetts,Plympton,28",
+            // Ends after the coordinates, and the missing columns are not needed
+            "2,Endsville,Populated Place,Suffolk County,Massachusetts,Newton,12,42.1,-71.1",
+            "",
+            // Empty elevation defaults to zero, and empty trailing fields are read
+            "3,Emptyville,Populated Place,Suffolk County,Massachusetts,Newton,,42.2,-71.2,",
+            // Quotes are not special, so a quoted separator still splits the field, and the class
+            // is then not a populated place
+            "4,\"Quote, The\",Populated Place,Suffolk County,Massachusetts,Newton,5,42.3,-71.3,",
+            // Quotes are kept as part of the field
+            "5,\"Quoted\",Populated Place,Suffolk County,Massachusetts,Newton,7,42.4,-71.4,x"));
+
+    final List<Location> locations =
+        new ArrayList<>(new GNISFileParser(ResourceRefs.ofFile(file)).parseLocations());
+
+    assertThat(
+        locations.stream().map(Location::getCity).toList(),
+        is(List.of("Endsville", "Emptyville", "\"Quoted\"")));
+    assertThat(locations.get(0).getPointLocation().getAltitude(), is(12.0));
+    assertThat(locations.get(0).getPointLocation().getLatitude().getDegrees(), closeTo(42.1, 1e-9));
+    assertThat(locations.get(1).getPointLocation().getAltitude(), is(0.0));
+    assertThat(
+        locations.get(1).getPointLocation().getLongitude().getDegrees(), closeTo(-71.2, 1e-9));
+    assertThat(locations.get(2).getPointLocation().getAltitude(), is(7.0));
+  }
+
   @Test
   public void GNSCountries() throws ParserException, IOException, URISyntaxException {
     parseGNSCountryFile("Uzbekistan.zip", 6392);
     parseGNSCountryFile("Slovakia.zip", 4830);
   }
 
+  @Test
+  public void GNSCountryFileInParallelChunks(@TempDir final Path tempDir)
+      throws ParserException, IOException, URISyntaxException {
+    final URL zipUrl = this.getClass().getClassLoader().getResource("Uzbekistan.zip");
+    final Path zipPath = Path.of(zipUrl.toURI());
+    final Path file = tempDir.resolve("Uzbekistan.txt");
+    try (FileSystem fs = FileSystems.newFileSystem(zipPath, Map.of())) {
+      Files.copy(fs.getPath("/Uzbekistan.txt"), file);
+    }
+
+    // The file is large enough to be split into chunks, which must give the same locations in the
+    // same order as reading it as a stream
+    final List<String> expected =
+        keys(
+            new GNSCountryFileParser(ResourceRefs.ofZipEntry(zipPath, "Uzbekistan.txt"))
+                .parseLocations());
+    final List<String> actual =
+        keys(new GNSCountryFileParser(ResourceRefs.ofFile(file)).parseLocations());
+    assertThat(actual.size(), is(6392));
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void GNSCountryFileInBatches() throws ParserException, IOException, URISyntaxException {
+    final URL zipUrl = this.getClass().getClassLoader().getResource("Uzbekistan.zip");
+    final Path zipPath = Path.of(zipUrl.toURI());
+    final GNSCountryFileParser parser =
+        new GNSCountryFileParser(ResourceRefs.ofZipEntry(zipPath, "Uzbekistan.txt"));
+
+    final List<List<Location>> batches = new ArrayList<>();
+    parser.parseLocations(batches::add);
+    assertThat(batches.size(), is(greaterThan(1)));
+    final List<Location> streamed = batches.stream().flatMap(List::stream).toList();
+    assertThat(keys(streamed).stream().distinct().toList(), is(keys(parser.parseLocations())));
+  }
+
   private void parseGNISUSStates(final String state, final int numLocations)
       throws ParserException, IOException, URISyntaxException {
     final String filename = state + ".zip";
@@ -99,6 +175,10 @@ public class TestGeoNameFiles {
         is(numLocations));
   }
 
+  private static List<String> keys(final Collection<Location> locations) {
+    return locations.stream().map(Location::deduplicationKey).toList();
+  }
+
   private static String firstZipEntryName(final Path zipPath) throws IOException {
     try (FileSystem fs = FileSystems.newFileSystem(zipPath, Map.of())) {
       return Files.walk(fs.getPath("/"))
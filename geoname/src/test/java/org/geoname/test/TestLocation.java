@@ -10,12 +10,21 @@ package org.geoname.test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import org.geoname.data.Countries;
+import org.geoname.data.Country;
 import org.geoname.data.Location;
+import org.geoname.data.Subdivision;
+import org.geoname.data.Subdivisions;
 import org.geoname.parser.FormatterException;
 import org.geoname.parser.GNISFileParser;
 import org.geoname.parser.LocationFormatter;
@@ -24,6 +33,10 @@ import org.geoname.parser.ParserException;
 import org.geoname.parser.resources.ResourceRef;
 import org.geoname.parser.resources.ResourceRefs;
 import org.junit.jupiter.api.Test;
+import us.fatehi.pointlocation6709.Angle;
+import us.fatehi.pointlocation6709.Latitude;
+import us.fatehi.pointlocation6709.Longitude;
+import us.fatehi.pointlocation6709.PointLocation;
 
 public class TestLocation {
 
@@ -85,6 +98,49 @@ public class TestLocation {
     assertThat(LocationFormatter.formatLocation(location), is(locationString));
   }
 
+  @Test
+  public void locationsShareCountriesSubdivisionsAndTimeZoneIds()
+      throws IOException, ClassNotFoundException {
+    final Country country = Countries.lookupIso3166CountryCode2("US");
+    final Subdivision subdivision = Subdivisions.lookupSubdivision("US-MA");
+    final PointLocation pointLocation =
+        new PointLocation(
+            new Latitude(Angle.fromDegrees(42.36)), new Longitude(Angle.fromDegrees(-71.06)));
+    final Location location =
+        new Location(
+            "Boston",
+            new Subdivision(subdivision.code(), subdivision.name(), subdivision.type()),
+            new Country(country.name(), country.alpha2Code(), country.alpha3Code()),
+            new String("America/New_York"),
+            pointLocation);
+
+    assertThat(location.getCountry(), is(sameInstance(country)));
+    assertThat(location.getSubdivision(), is(sameInstance(subdivision)));
+    assertThat(
+        location.getTimeZoneId(),
+        is(
+            sameInstance(
+                new Location("Boston", subdivision, country, "America/New_York", pointLocation)
+                    .getTimeZoneId())));
+    assertThat(location.getDescription(), is("Boston, Massachusetts, United States of America"));
+    assertThat(location.deduplicationKey(), is(sameInstance(location.deduplicationKey())));
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(location);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      final Location copy = (Location) in.readObject();
+      assertThat(copy, is(location));
+      assertThat(copy.hashCode(), is(location.hashCode()));
+      assertThat(copy.getCountry(), is(sameInstance(country)));
+      assertThat(copy.getSubdivision(), is(sameInstance(subdivision)));
+      assertThat(copy.getTimeZoneId(), is(sameInstance(location.getTimeZoneId())));
+      assertThat(copy.getDescription(), is(location.getDescription()));
+    }
+  }
+
   @Test
   public void locations() throws ParserException {
     final ResourceRef ref = ResourceRefs.ofClasspath("locations.data");
@@ -9,22 +9,31 @@
 package org.geoname.test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.Collection;
 import java.util.List;
 import org.geoname.data.Countries;
 import org.geoname.data.Location;
+import org.geoname.data.LocationCluster;
 import org.geoname.data.LocationRegistry;
+import org.geoname.data.utility.Utility;
 import org.geoname.parser.LocationsListParser;
 import org.geoname.parser.ParserException;
 import org.geoname.parser.resources.ResourceRefs;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import us.fatehi.pointlocation6709.Angle;
+import us.fatehi.pointlocation6709.Latitude;
+import us.fatehi.pointlocation6709.Longitude;
+import us.fatehi.pointlocation6709.PointLocation;
 
 public class TestLocationRegistry {
 
@@ -103,6 +112,166 @@ public class TestLocationRegistry {
     assertThat(registry.size(), is(before + 1));
   }
 
+  @Test
+  public void findByKey() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    final Location location = BUNDLED_LOCATIONS.iterator().next();
+    assertThat(registry.findByKey(location.deduplicationKey()).orElseThrow(), is(location));
+    assertThat(registry.findByKey("NoSuchPlace||XX").isPresent(), is(false));
+    assertThat(registry.findByKey(null).isPresent(), is(false));
+  }
+
+  @Test
+  public void loadersPublishOnCommit() {
+    final List<Location> locations = List.copyOf(BUNDLED_LOCATIONS);
+    registry.addLocations(locations.subList(0, 2));
+
+    final LocationRegistry.Loader loader = registry.replacementLoader();
+    loader.add(locations.subList(1, 5));
+    loader.add(locations.subList(3, 6));
+    assertThat(registry.size(), is(2));
+    assertThat(loader.commit(), is(5));
+    assertThat(registry.getAllLocations(), hasSize(5));
+    assertThat(registry.findByKey(locations.get(0).deduplicationKey()).isPresent(), is(false));
+    assertThrows(IllegalStateException.class, loader::commit);
+
+    final LocationRegistry.Loader additionLoader = registry.additionLoader();
+    additionLoader.add(locations.subList(4, 8));
+    assertThat(additionLoader.commit(), is(2));
+    assertThat(registry.size(), is(7));
+    assertThat(registry.search(locations.get(7).getCity(), 1), is(List.of(locations.get(7))));
+  }
+
+  @Test
+  public void replaceLocation() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    final java.util.Iterator<Location> iterator = BUNDLED_LOCATIONS.iterator();
+    final Location first = iterator.next();
+    final Location second = iterator.next();
+    registry.removeLocation(second.deduplicationKey());
+
+    assertThat(registry.replaceLocation(first.deduplicationKey(), second), is(true));
+    assertThat(registry.findByKey(first.deduplicationKey()).isPresent(), is(false));
+    assertThat(registry.findByKey(second.deduplicationKey()).orElseThrow(), is(second));
+    assertThat(registry.size(), is(BUNDLED_LOCATIONS.size() - 1));
+    assertThat(registry.replaceLocation("NoSuchPlace||XX", first), is(false));
+  }
+
+  @Test
+  public void replaceLocationKeepsRegistryOnKeyCollision() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    final java.util.Iterator<Location> iterator = BUNDLED_LOCATIONS.iterator();
+    final Location first = iterator.next();
+    final Location second = iterator.next();
+    final List<Location> before = List.copyOf(registry.getAllLocations());
+
+    assertThat(registry.replaceLocation(first.deduplicationKey(), second), is(false));
+    assertThat(registry.findByKey(first.deduplicationKey()).orElseThrow(), is(first));
+    assertThat(registry.findByKey(second.deduplicationKey()).orElseThrow(), is(second));
+    assertThat(List.copyOf(registry.getAllLocations()), is(before));
+  }
+
+  @Test
+  public void readersSeeCompleteSnapshotsDuringWrites() throws Exception {
+    final int total = BUNDLED_LOCATIONS.size();
+    final Thread writer =
+        new Thread(
+            () -> {
+              for (int i = 0; i < 200; i++) {
+                registry.replaceLocations(i % 2 == 0 ? BUNDLED_LOCATIONS : List.of());
+              }
+            });
+    writer.start();
+    while (writer.isAlive()) {
+      final int size = registry.getAllLocations().size();
+      assertThat(size == 0 || size == total, is(true));
+    }
+    writer.join();
+    assertThat(registry.size(), is(0));
+  }
+
+  @Test
+  public void singleChangesKeepLocationsInSortOrder() {
+    final java.util.Random random = new java.util.Random(29);
+    final java.util.TreeMap<String, Location> expected = new java.util.TreeMap<>();
+    final List<Location> added = new java.util.ArrayList<>();
+    for (int i = 0; i < 6000; i++) {
+      if (!added.isEmpty() && random.nextInt(3) == 0) {
+        final Location removed = added.remove(random.nextInt(added.size()));
+        assertThat(registry.removeLocation(removed.deduplicationKey()), is(true));
+        expected.remove(LocationRegistry.sortKey(removed));
+      } else {
+        final Location location =
+            location(
+                "Place " + random.nextInt(100_000),
+                random.nextDouble() * 180 - 90,
+                random.nextDouble() * 360 - 180);
+        registry.addLocations(List.of(location));
+        if (expected.putIfAbsent(LocationRegistry.sortKey(location), location) == null) {
+          added.add(location);
+        }
+      }
+    }
+
+    assertThat(registry.size(), is(expected.size()));
+    assertThat(
+        new java.util.ArrayList<>(registry.getAllLocations()),
+        is(new java.util.ArrayList<>(expected.values())));
+    final String middle = LocationRegistry.sortKey(added.get(added.size() / 2));
+    assertThat(
+        registry.getLocations(middle, 10),
+        is(new java.util.ArrayList<>(expected.tailMap(middle, false).values()).subList(0, 10)));
+    for (final Location location : added) {
+      assertThat(registry.findByKey(location.deduplicationKey()).get(), is(sameInstance(location)));
+    }
+
+    for (final Location location : added) {
+      assertThat(registry.removeLocation(location.deduplicationKey()), is(true));
+    }
+    assertThat(registry.size(), is(0));
+    assertThat(registry.getAllLocations(), is(empty()));
+  }
+
+  @Test
+  public void keysWithEqualHashCodesAreKeptApart() {
+    // "Aa" and "BB" have the same hash code, so all of these keys do too
+    final List<Location> locations =
+        List.of(
+            location("AaAa", 1, 1),
+            location("AaBB", 2, 2),
+            location("BBAa", 3, 3),
+            location("BBBB", 4, 4));
+    registry.addLocations(locations);
+    for (final Location location : locations) {
+      assertThat(registry.findByKey(location.deduplicationKey()).get(), is(sameInstance(location)));
+    }
+
+    assertThat(registry.removeLocation(locations.get(1).deduplicationKey()), is(true));
+    assertThat(registry.findByKey(locations.get(1).deduplicationKey()).isPresent(), is(false));
+    assertThat(registry.findByKey(locations.get(2).deduplicationKey()).isPresent(), is(true));
+    assertThat(registry.size(), is(3));
+  }
+
+  @Test
+  public void pagesFollowSortOrder() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    final List<Location> all = new java.util.ArrayList<>(registry.getAllLocations());
+    final List<Location> sorted = new java.util.ArrayList<>(BUNDLED_LOCATIONS);
+    java.util.Collections.sort(sorted);
+    assertThat(all, is(sorted));
+
+    final List<Location> firstPage = registry.getLocations(null, 5);
+    assertThat(firstPage, is(all.subList(0, 5)));
+    final List<Location> secondPage =
+        registry.getLocations(LocationRegistry.sortKey(firstPage.get(4)), 5);
+    assertThat(secondPage, is(all.subList(5, 10)));
+
+    // The cursor of a removed location still positions the next page
+    registry.removeLocation(firstPage.get(4).deduplicationKey());
+    assertThat(
+        registry.getLocations(LocationRegistry.sortKey(firstPage.get(4)), 5), is(secondPage));
+  }
+
   @Test
   public void getAllLocationsIsUnmodifiable() {
     registry.addLocations(BUNDLED_LOCATIONS);
@@ -151,6 +320,132 @@ public class TestLocationRegistry {
     assertThat(mixed.size(), is(lower.size()));
   }
 
+  @Test
+  public void searchIgnoresAccents() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    assertThat(cities(registry.search("sao paulo")), is(List.of("São Paulo")));
+    assertThat(cities(registry.search("REYKJAVIK")), is(List.of("Reykjavík")));
+    assertThat(cities(registry.search("Bogotá")), is(List.of("Bogotá")));
+  }
+
+  @Test
+  public void searchRanksPrefixMatchesFirst() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    final List<Location> results = registry.search("ca", 3);
+    assertThat(results, hasSize(3));
+    assertThat(cities(results.subList(0, 2)), is(List.of("Cairo", "Cape Town")));
+    assertThat(results.get(2).getDescription().toLowerCase().contains(" ca"), is(true));
+
+    // Substrings within words still match
+    assertThat(cities(registry.search("ondo")), is(List.of("London")));
+  }
+
+  @Test
+  public void searchIndexIsUpdatedIncrementally() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    final Location london = registry.search("london", 1).get(0);
+    registry.removeLocation(london.deduplicationKey());
+    assertThat(registry.search("london"), is(empty()));
+
+    registry.addLocations(List.of(london));
+    assertThat(registry.search("london", 1), is(List.of(london)));
+  }
+
+  @Test
+  public void nearestLocations() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    final List<Location> nearest = registry.nearest(pointLocation(42.36, -71.06), 2);
+    assertThat(cities(nearest), is(List.of("Boston", "Montreal")));
+
+    // Across the antimeridian, Auckland is closer than Sydney
+    assertThat(cities(registry.nearest(pointLocation(-38, 179.9), 1)), is(List.of("Auckland")));
+  }
+
+  @Test
+  public void nearestLocationsMatchAFullScan() {
+    final java.util.Random random = new java.util.Random(17);
+    final List<Location> locations = new java.util.ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      locations.add(
+          new Location(
+              "Place " + i,
+              Countries.lookupCountry("US"),
+              "UTC",
+              pointLocation(
+                  Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1)),
+                  random.nextDouble() * 360 - 180)));
+    }
+    registry.addLocations(locations);
+    // Some changes are kept outside the tree until it is rebuilt
+    for (int i = 0; i < 100; i++) {
+      registry.removeLocation(locations.get(i * 7).deduplicationKey());
+    }
+    registry.addLocations(BUNDLED_LOCATIONS);
+
+    final List<Location> all = new java.util.ArrayList<>(registry.getAllLocations());
+    for (int i = 0; i < 50; i++) {
+      final PointLocation point =
+          pointLocation(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+      all.sort(
+          java.util.Comparator.comparingDouble(
+              location -> Utility.greatCircleDistance(point, location.getPointLocation())));
+
+      final List<Location> nearest = registry.nearest(point, 7);
+      assertThat(nearest, hasSize(7));
+      for (int j = 0; j < 7; j++) {
+        assertThat(
+            Utility.greatCircleDistance(point, nearest.get(j).getPointLocation()),
+            is(closeTo(Utility.greatCircleDistance(point, all.get(j).getPointLocation()), 1e-9)));
+      }
+    }
+  }
+
+  @Test
+  public void clustersCountAllLocationsInTiles() {
+    registry.addLocations(BUNDLED_LOCATIONS);
+    for (int zoom = 0; zoom <= 3; zoom++) {
+      int count = 0;
+      for (int x = 0; x < 1 << zoom; x++) {
+        for (int y = 0; y < 1 << zoom; y++) {
+          for (final LocationCluster cluster : registry.clusters(zoom, x, y)) {
+            assertThat(cluster.count(), is(greaterThan(0)));
+            count += cluster.count();
+          }
+        }
+      }
+      assertThat(count, is(registry.size()));
+    }
+  }
+
+  @Test
+  public void clustersAreUpdatedIncrementally() {
+    final Location near = location("Near", 0.001, 0.001);
+    final Location nearby = location("Nearby", 0.001, 0.002);
+    final Location far = location("Far", -40, 100);
+    registry.addLocations(List.of(near, nearby, far));
+    assertThat(count(registry.clusters(0, 0, 0)), is(3));
+
+    // Below the leaf level of the grid, tiles are clustered from their locations
+    final int zoom = 16;
+    final int x = 1 << zoom - 1;
+    final int y = (1 << zoom - 1) - 1;
+    assertThat(count(registry.clusters(zoom, x, y)), is(2));
+    assertThat(count(registry.clusters(8, 128, 127)), is(2));
+
+    registry.removeLocation(near.deduplicationKey());
+    final List<LocationCluster> clusters = registry.clusters(zoom, x, y);
+    assertThat(count(clusters), is(1));
+    assertThat(clusters.get(0).representative(), is(nearby));
+    assertThat(count(registry.clusters(0, 0, 0)), is(2));
+  }
+
+  @Test
+  public void clustersRejectTilesOutOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> registry.clusters(-1, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> registry.clusters(25, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> registry.clusters(2, 4, 0));
+  }
+
   @Test
   public void searchNullReturnsAll() {
     registry.addLocations(BUNDLED_LOCATIONS);
@@ -182,4 +477,23 @@ public class TestLocationRegistry {
     final List<Location> afterReverseAdd = new java.util.ArrayList<>(registry.getAllLocations());
     assertThat(afterReverseAdd, is(all));
   }
+
+  private static List<String> cities(final Collection<Location> locations) {
+    return locations.stream().map(Location::getCity).toList();
+  }
+
+  private static int count(final List<LocationCluster> clusters) {
+    return clusters.stream().mapToInt(LocationCluster::count).sum();
+  }
+
+  private static Location location(
+      final String city, final double latitude, final double longitude) {
+    return new Location(
+        city, Countries.lookupCountry("US"), "UTC", pointLocation(latitude, longitude));
+  }
+
+  private static PointLocation pointLocation(final double latitude, final double longitude) {
+    return new PointLocation(
+        new Latitude(Angle.fromDegrees(latitude)), new Longitude(Angle.fromDegrees(longitude)));
+  }
 }
@@ -0,0 +1,109 @@
+/*
+ * Daylight Chart
+ * http://sualeh.github.io/DaylightChart
+ * Copyright (c) 2007-2026, Sualeh Fatehi <sualeh@hotmail.com>.
+ * All rights reserved.
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.geoname.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.geoname.data.Location;
+import org.geoname.parser.FormatterException;
+import org.geoname.parser.GNSCountryFileParser;
+import org.geoname.parser.LocationSnapshotFormatter;
+import org.geoname.parser.LocationSnapshotParser;
+import org.geoname.parser.LocationsListParser;
+import org.geoname.parser.ParserException;
+import org.geoname.parser.resources.ResourceFingerprint;
+import org.geoname.parser.resources.ResourceRef;
+import org.geoname.parser.resources.ResourceRefs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestLocationSnapshot {
+
+  @TempDir Path tempDir;
+
+  @Test
+  public void snapshotReadsBackWrittenLocations()
+      throws ParserException, FormatterException, IOException, URISyntaxException {
+    final URL zipUrl = this.getClass().getClassLoader().getResource("Uzbekistan.zip");
+    final ResourceRef zipRef = ResourceRefs.ofZipEntry(Path.of(zipUrl.toURI()), "Uzbekistan.txt");
+    final ResourceRef dataRef = ResourceRefs.ofClasspath("locations.data");
+    final List<Location> locations = new ArrayList<>();
+    locations.addAll(new LocationsListParser(dataRef).parseLocations());
+    locations.addAll(new GNSCountryFileParser(zipRef).parseLocations());
+    final List<ResourceFingerprint> sources =
+        List.of(ResourceFingerprint.of(dataRef), ResourceFingerprint.of(zipRef));
+
+    final Path file = tempDir.resolve("locations.snapshot");
+    LocationSnapshotFormatter.formatLocations(locations, sources, file);
+
+    final LocationSnapshotParser parser = new LocationSnapshotParser(ResourceRefs.ofFile(file));
+    assertThat(parser.parseSources(), is(sources));
+    final List<Location> batched = new ArrayList<>();
+    parser.parseLocations(batched::addAll);
+    assertThat(batched, is(locations));
+    for (int i = 0; i < locations.size(); i++) {
+      assertThat(batched.get(i).getDescription(), is(locations.get(i).getDescription()));
+      assertThat(
+          batched.get(i).getPointLocation().getAltitude(),
+          is(locations.get(i).getPointLocation().getAltitude()));
+    }
+
+    final List<Location> current = new ArrayList<>();
+    assertThat(parser.parseLocations(sources, current::addAll), is(true));
+    assertThat(current, is(locations));
+    final List<Location> outOfDate = new ArrayList<>();
+    assertThat(parser.parseLocations(sources.subList(0, 1), outOfDate::addAll), is(false));
+    assertThat(outOfDate.isEmpty(), is(true));
+  }
+
+  @Test
+  public void snapshotRejectsCorruptFiles()
+      throws ParserException, FormatterException, IOException {
+    final Path file = tempDir.resolve("locations.snapshot");
+    LocationSnapshotFormatter.formatLocations(
+        new LocationsListParser(ResourceRefs.ofClasspath("locations.data")).parseLocations(),
+        List.of(),
+        file);
+
+    final byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length / 2] ^= 1;
+    final Path corruptFile = tempDir.resolve("corrupt.snapshot");
+    Files.write(corruptFile, bytes);
+    assertThrows(
+        ParserException.class,
+        () -> new LocationSnapshotParser(ResourceRefs.ofFile(corruptFile)).parseLocations());
+
+    final Path dataFile = tempDir.resolve("locations.data");
+    Files.writeString(dataFile, "city;admin_code;country_code;timezone;coordinates\n");
+    assertThrows(
+        ParserException.class,
+        () -> new LocationSnapshotParser(ResourceRefs.ofFile(dataFile)).parseSources());
+  }
+
+  @Test
+  public void fingerprintsChangeWithFiles() throws IOException {
+    final Path file = tempDir.resolve("locations.data");
+    Files.writeString(file, "a");
+    final ResourceFingerprint fingerprint = ResourceFingerprint.of(ResourceRefs.ofFile(file));
+    assertThat(ResourceFingerprint.of(ResourceRefs.ofFile(file)), is(fingerprint));
+
+    Files.writeString(file, "ab");
+    assertThat(ResourceFingerprint.of(ResourceRefs.ofFile(file)), is(not(fingerprint)));
+  }
+}